@@ -0,0 +1,291 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.config.RabbitMQConfig;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.event.NotificacaoCirurgiaAtualizadaEvent;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.event.NotificacaoCirurgiaCanceladaEvent;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.event.NotificacaoCirurgiaCriadaEvent;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.Paciente;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.PacienteRepository;
+
+import java.io.File;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de carga ponta a ponta: publica {@code carga.eventos} eventos de cirurgia no
+ * {@code sus.exchange} à taxa {@code carga.taxa} (eventos/s) e mede a vazão, a latência entre
+ * a publicação e o registro do envio no outbox (p50/p99) e o uso de heap e GC da JVM.
+ * PostgreSQL e RabbitMQ sobem em containers, o SMTP é o GreenMail e o SMS usa o
+ * {@code FakeSmsGateway} com a latência de {@code carga.sms.latencia}; com as imagens já
+ * baixadas, roda sem acesso à rede. O resultado é gravado em {@code carga.relatorio}.
+ */
+@Testcontainers
+@SpringBootTest(properties = {
+        "spring.mail.host=127.0.0.1",
+        "spring.mail.port=3025",
+        "spring.mail.username=" + CargaNotificacaoTest.USUARIO,
+        "spring.mail.password=senha",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "spring.mail.properties.mail.smtp.starttls.required=false",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.format_sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.springframework.mail=WARN",
+        "logging.level.sus.microservico.notificacoes=${carga.log:WARN}",
+        "logging.level.sus.microservico.notificacoes.sus_microservico_notificacoes.carga=INFO",
+        "notificacao.sms.gateway=fake",
+        "notificacao.sms.fake.latencia=${carga.sms.latencia:200ms}",
+        "notificacao.sms.fake.taxa-falhas=0",
+        "notificacao.sms.taxa.mensagens-por-segundo=${carga.sms.taxa:1000}",
+        "notificacao.sms.taxa.rajada=${carga.sms.taxa:1000}",
+        // Sem retenção das atualizações: cada evento do teste é de uma cirurgia diferente
+        "notificacao.coalescencia.janela=0s"
+})
+class CargaNotificacaoTest {
+
+    static final String USUARIO = "sustech@teste.local";
+
+    private static final int EVENTOS = Integer.getInteger("carga.eventos", 2000);
+    private static final int TAXA = Integer.getInteger("carga.taxa", 200);
+    private static final int PACIENTES = Integer.getInteger("carga.pacientes", 500);
+    private static final Duration TEMPO_MAXIMO = Duration.parse(System.getProperty("carga.tempo-maximo", "PT5M"));
+    private static final String RELATORIO = System.getProperty("carga.relatorio", "target/carga-resultado.json");
+
+    private final Logger logger = LoggerFactory.getLogger(CargaNotificacaoTest.class);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Container
+    static RabbitMQContainer rabbit = new RabbitMQContainer("rabbitmq:3.13-management-alpine");
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withUser(USUARIO, "senha"))
+            .withPerMethodLifecycle(false);
+
+    @DynamicPropertySource
+    static void conexoes(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.rabbitmq.host", rabbit::getHost);
+        registry.add("spring.rabbitmq.port", rabbit::getAmqpPort);
+        registry.add("spring.rabbitmq.username", rabbit::getAdminUsername);
+        registry.add("spring.rabbitmq.password", rabbit::getAdminPassword);
+    }
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private PacienteRepository pacienteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void entregaTodosOsEventosPublicadosNaTaxaAlvo() throws Exception {
+        List<Paciente> pacientes = cadastrarPacientes();
+        Map<UUID, LocalDateTime> publicacoes = new ConcurrentHashMap<>(EVENTOS * 2);
+        MedicaoJvm jvm = MedicaoJvm.iniciar();
+
+        long intervalo = 1_000_000_000L / TAXA;
+        long inicio = System.nanoTime();
+        for (int i = 0; i < EVENTOS; i++) {
+            LockSupport.parkNanos(inicio + i * intervalo - System.nanoTime());
+            UUID cirurgiaId = UUID.randomUUID();
+            publicacoes.put(cirurgiaId, LocalDateTime.now());
+            publicar(i, cirurgiaId, pacientes.get(i % pacientes.size()).getId());
+        }
+        double taxaPublicada = EVENTOS / segundos(System.nanoTime() - inicio);
+
+        // Todo paciente tem e-mail e telefone: duas entregas por evento
+        int esperadas = EVENTOS * 2;
+        int enviadas = aguardarEntregas(esperadas);
+        double duracao = segundos(System.nanoTime() - inicio);
+        ResultadoJvm usoJvm = jvm.finalizar();
+
+        long[] latencias = latenciasMs(publicacoes);
+        Relatorio relatorio = new Relatorio(EVENTOS, TAXA, Math.round(taxaPublicada), enviadas,
+                Math.round(enviadas / duracao), Math.round(EVENTOS / duracao),
+                percentil(latencias, 0.50), percentil(latencias, 0.99), latencias[latencias.length - 1],
+                greenMail.getReceivedMessages().length, usoJvm);
+        gravar(relatorio);
+
+        logger.info("Carga: {} eventos a {}/s (publicados a {}/s) -> {} entregas em {}s ({} entregas/s, {} eventos/s)",
+                EVENTOS, TAXA, relatorio.taxaPublicada(), enviadas, String.format("%.1f", duracao),
+                relatorio.entregasPorSegundo(), relatorio.eventosPorSegundo());
+        logger.info("Latência evento -> entrega: p50 {} ms, p99 {} ms, máx. {} ms",
+                relatorio.latenciaP50Ms(), relatorio.latenciaP99Ms(), relatorio.latenciaMaximaMs());
+        logger.info("JVM: heap {} MB -> pico {} MB, {} coleta(s) em {} ms",
+                usoJvm.heapInicialMb(), usoJvm.heapPicoMb(), usoJvm.coletas(), usoJvm.tempoGcMs());
+
+        assertEquals(esperadas, enviadas);
+        assertEquals(EVENTOS, relatorio.emailsRecebidos());
+    }
+
+    private List<Paciente> cadastrarPacientes() {
+        List<Paciente> pacientes = new ArrayList<>(PACIENTES);
+        for (int i = 0; i < PACIENTES; i++) {
+            pacientes.add(new Paciente(UUID.randomUUID(), "Paciente " + i,
+                    "paciente" + i + "@teste.local", String.format("+55119%08d", i)));
+        }
+        return pacienteRepository.saveAll(pacientes);
+    }
+
+    /**
+     * Mistura próxima da produção: a cada 20 eventos, 17 agendamentos, 2 atualizações e um
+     * cancelamento.
+     */
+    private void publicar(int i, UUID cirurgiaId, UUID pacienteId) {
+        LocalDate data = LocalDate.now().plusDays(30 + i % 60);
+        LocalTime hora = LocalTime.of(7 + i % 10, 0);
+        switch (i % 20) {
+            case 0 -> rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE,
+                    RabbitMQConfig.NOTIFICACAO_CIRURGIA_CANCELADA_ROUTING_KEY,
+                    new NotificacaoCirurgiaCanceladaEvent(cirurgiaId, pacienteId, UUID.randomUUID(), data, hora, "Centro Cirúrgico", UUID.randomUUID()));
+            case 1, 2 -> rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE,
+                    RabbitMQConfig.NOTIFICACAO_CIRURGIA_ATUALIZADA_ROUTING_KEY,
+                    new NotificacaoCirurgiaAtualizadaEvent(cirurgiaId, pacienteId, UUID.randomUUID(), data, hora, "Centro Cirúrgico", UUID.randomUUID()));
+            default -> rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE,
+                    RabbitMQConfig.NOTIFICACAO_CIRURGIA_CRIADA_ROUTING_KEY,
+                    new NotificacaoCirurgiaCriadaEvent(cirurgiaId, pacienteId, UUID.randomUUID(), data, hora, "Centro Cirúrgico", UUID.randomUUID()));
+        }
+    }
+
+    private int aguardarEntregas(int esperadas) throws InterruptedException {
+        long limite = System.nanoTime() + TEMPO_MAXIMO.toNanos();
+        int enviadas = 0;
+        while (System.nanoTime() < limite) {
+            enviadas = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM tb_entrega_notificacao WHERE status = 'ENVIADA'", Integer.class);
+            if (enviadas >= esperadas) {
+                return enviadas;
+            }
+            Thread.sleep(250);
+        }
+        logger.warn("Tempo máximo de {} atingido com {}/{} entregas enviadas", TEMPO_MAXIMO, enviadas, esperadas);
+        return enviadas;
+    }
+
+    private long[] latenciasMs(Map<UUID, LocalDateTime> publicacoes) {
+        List<Long> latencias = new ArrayList<>();
+        jdbcTemplate.query("SELECT cirurgia_id, data_envio FROM tb_entrega_notificacao WHERE status = 'ENVIADA'", linha -> {
+            LocalDateTime publicacao = publicacoes.get(linha.getObject("cirurgia_id", UUID.class));
+            Timestamp envio = linha.getTimestamp("data_envio");
+            if (publicacao != null && envio != null) {
+                latencias.add(Duration.between(publicacao, envio.toLocalDateTime()).toMillis());
+            }
+        });
+        assertTrue(!latencias.isEmpty(), "Nenhuma entrega enviada");
+        long[] ordenadas = latencias.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(ordenadas);
+        return ordenadas;
+    }
+
+    private static long percentil(long[] ordenados, double quantil) {
+        int posicao = (int) Math.ceil(quantil * ordenados.length) - 1;
+        return ordenados[Math.max(0, posicao)];
+    }
+
+    private static double segundos(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+
+    private void gravar(Relatorio relatorio) throws Exception {
+        File arquivo = new File(RELATORIO);
+        if (arquivo.getParentFile() != null) {
+            arquivo.getParentFile().mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(arquivo, relatorio);
+        logger.info("Relatório do teste de carga gravado em {}", arquivo.getAbsolutePath());
+    }
+
+    record Relatorio(int eventos, int taxaAlvo, long taxaPublicada, int entregasEnviadas,
+                     long entregasPorSegundo, long eventosPorSegundo,
+                     long latenciaP50Ms, long latenciaP99Ms, long latenciaMaximaMs,
+                     int emailsRecebidos, ResultadoJvm jvm) {
+    }
+
+    record ResultadoJvm(long heapInicialMb, long heapPicoMb, long heapFinalMb, long coletas, long tempoGcMs) {
+    }
+
+    /**
+     * Heap e coletas do GC durante a carga. O pico de cada pool do heap é zerado no início,
+     * então {@code heapPicoMb} cobre apenas o período medido.
+     */
+    private record MedicaoJvm(long heapInicial, long coletas, long tempoGc) {
+
+        static MedicaoJvm iniciar() {
+            heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+            return new MedicaoJvm(heapUsado(), totalColetas(), totalTempoGc());
+        }
+
+        ResultadoJvm finalizar() {
+            long pico = heapPools().stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+            return new ResultadoJvm(mb(heapInicial), mb(pico), mb(heapUsado()),
+                    totalColetas() - coletas, totalTempoGc() - tempoGc);
+        }
+
+        private static List<MemoryPoolMXBean> heapPools() {
+            return ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP)
+                    .toList();
+        }
+
+        private static long heapUsado() {
+            return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        }
+
+        private static long totalColetas() {
+            return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                    .mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+        }
+
+        private static long totalTempoGc() {
+            return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                    .mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+        }
+
+        private static long mb(long bytes) {
+            return bytes / (1024 * 1024);
+        }
+    }
+}
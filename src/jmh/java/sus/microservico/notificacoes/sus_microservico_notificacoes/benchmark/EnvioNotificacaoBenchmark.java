@@ -0,0 +1,97 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.EntregaNotificacao;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.CanalNotificacao;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.ResultadoEnvio;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.TipoNotificacao;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.EmailService;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.EntregaNotificacaoService;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.FakeSmsGateway;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.NotificacaoDispatcher;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.NotificacaoMetricas;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.SmsService;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.template.Formatos;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.template.TemplateMensagemEngine;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.template.TipoTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho completo de uma notificação de agendamento: renderização das mensagens, montagem
+ * das entregas de e-mail e SMS e envio pelo {@link NotificacaoDispatcher}, com provedores
+ * falsos sem latência. Mede o custo do próprio serviço (templates, executores, métricas).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnvioNotificacaoBenchmark {
+
+    private TemplateMensagemEngine templates;
+    private NotificacaoDispatcher dispatcher;
+
+    private final UUID pacienteId = UUID.randomUUID();
+    private final UUID cirurgiaId = UUID.randomUUID();
+    private final String data = Formatos.data(LocalDate.of(2026, 11, 23));
+    private final String hora = Formatos.hora(LocalTime.of(7, 30));
+
+    @Setup
+    public void setup() {
+        Stubs.silenciarLogs();
+        templates = new TemplateMensagemEngine("");
+        templates.carregar();
+
+        EmailService email = new EmailService(null, null, null, Duration.ZERO) {
+            @Override
+            public ResultadoEnvio enviarEmail(String destinatario, String assunto, String mensagem) {
+                return ResultadoEnvio.ENVIADO;
+            }
+        };
+        SmsService sms = new SmsService(new FakeSmsGateway(Duration.ZERO, 0), 1_000_000_000, 1_000_000,
+                Duration.ofSeconds(1), Duration.ofSeconds(5));
+        dispatcher = new NotificacaoDispatcher(email, sms, new NotificacaoMetricas(new SimpleMeterRegistry(), null),
+                16, 500, 8, 500, 4, 100, 20, 10, 0.5, Duration.ofSeconds(30), 3);
+    }
+
+    @TearDown
+    public void encerrar() {
+        dispatcher.encerrar();
+    }
+
+    @Benchmark
+    public boolean notificarAgendamento() {
+        String nome = "Maria Aparecida da Silva";
+        String local = "Hospital das Clínicas - Bloco Cirúrgico 3";
+        // A criação usa o mesmo texto no e-mail e no SMS
+        String mensagem = templates.renderizar(TipoTemplate.AGENDAMENTO, nome, data, hora, local);
+
+        UUID grupoId = UUID.randomUUID();
+        EntregaNotificacao entregaEmail = EntregaNotificacaoService.nova(grupoId, TipoNotificacao.CRIACAO,
+                CanalNotificacao.EMAIL, "maria@example.com", pacienteId, cirurgiaId, "Cirurgia Agendada", mensagem);
+        EntregaNotificacao entregaSms = EntregaNotificacaoService.nova(grupoId, TipoNotificacao.CRIACAO,
+                CanalNotificacao.SMS, "(11) 98765-4321", pacienteId, cirurgiaId, "Cirurgia Agendada", mensagem);
+
+        CompletableFuture<ResultadoEnvio> email = dispatcher.enviar(entregaEmail);
+        CompletableFuture<ResultadoEnvio> sms = dispatcher.enviar(entregaSms);
+        return email.join() == ResultadoEnvio.ENVIADO & sms.join() == ResultadoEnvio.ENVIADO;
+    }
+}
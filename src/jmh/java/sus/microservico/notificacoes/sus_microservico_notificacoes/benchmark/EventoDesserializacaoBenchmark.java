@@ -0,0 +1,79 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.event.NotificacaoCirurgiaAtualizadaEvent;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.event.NotificacaoCirurgiaCanceladaEvent;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.event.NotificacaoCirurgiaCriadaEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão das mensagens RabbitMQ nos três eventos de cirurgia, com o mesmo conversor
+ * configurado em {@code RabbitMQConfig}. O tipo vem do parâmetro do listener, como no consumer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventoDesserializacaoBenchmark {
+
+    private static final String CAMPOS = """
+            "cirurgiaId":"6f1c2a4e-8b7d-4c3a-9e21-0d5f7a6b8c90",
+            "pacienteId":"1a2b3c4d-5e6f-4a1b-8c2d-3e4f5a6b7c8d",
+            "medicoId":"9e8d7c6b-5a4f-4e3d-8c2b-1a0f9e8d7c6b",
+            "dataCirurgia":"2026-11-23",
+            "horaCirurgia":"07:30:00",
+            "local":"Hospital das Clínicas - Bloco Cirúrgico 3",
+            "eventoId":"3c9a7e2f-4b1d-4e8a-a6f0-7d2c5b9e1a34\"""";
+
+    private Jackson2JsonMessageConverter converter;
+    private Message criada;
+    private Message atualizada;
+    private Message cancelada;
+
+    @Setup
+    public void setup() {
+        converter = new Jackson2JsonMessageConverter();
+        criada = mensagem("{" + CAMPOS + "}", NotificacaoCirurgiaCriadaEvent.class);
+        atualizada = mensagem("{" + CAMPOS + "}", NotificacaoCirurgiaAtualizadaEvent.class);
+        cancelada = mensagem("{" + CAMPOS + "}", NotificacaoCirurgiaCanceladaEvent.class);
+    }
+
+    @Benchmark
+    public Object criada() {
+        return converter.fromMessage(criada);
+    }
+
+    @Benchmark
+    public Object atualizada() {
+        return converter.fromMessage(atualizada);
+    }
+
+    @Benchmark
+    public Object cancelada() {
+        return converter.fromMessage(cancelada);
+    }
+
+    private static Message mensagem(String json, Class<?> tipo) {
+        MessageProperties propriedades = new MessageProperties();
+        propriedades.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        propriedades.setContentEncoding(StandardCharsets.UTF_8.name());
+        propriedades.setInferredArgumentType(tipo);
+        return new Message(json.getBytes(StandardCharsets.UTF_8), propriedades);
+    }
+}
@@ -0,0 +1,74 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.template.Formatos;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.template.TemplateMensagem;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.template.TemplateMensagemEngine;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.template.TipoTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a montagem das mensagens via {@code String.format} + {@code DateTimeFormatter.ofPattern}
+ * a cada chamada (implementação anterior) com os templates pré-compilados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MensagemTemplateBenchmark {
+
+    @Param({"AGENDAMENTO", "CANCELAMENTO", "LEMBRETE_PACIENTE"})
+    public TipoTemplate tipo;
+
+    private String formatoLegado;
+    private TemplateMensagem template;
+
+    private final String nomePaciente = "Maria Aparecida da Silva";
+    private final LocalDate dataCirurgia = LocalDate.of(2026, 11, 23);
+    private final LocalTime horaCirurgia = LocalTime.of(7, 30);
+    private final String local = "Hospital das Clínicas - Bloco Cirúrgico 3";
+
+    @Setup
+    public void setup() {
+        String texto = TemplateMensagemEngine.lerClasspath(tipo);
+        template = TemplateMensagemEngine.compilar(tipo, texto);
+        // Mesmo texto no formato usado antes dos templates: placeholders viram %s
+        formatoLegado = texto.strip().replaceAll("\\{\\{[a-z]+}}", "%s");
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        String data = dataCirurgia.format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+        String hora = horaCirurgia.format(DateTimeFormatter.ofPattern("HH:mm"));
+        if (tipo == TipoTemplate.CANCELAMENTO) {
+            return String.format(formatoLegado, nomePaciente, data, hora);
+        }
+        return String.format(formatoLegado, nomePaciente, data, hora, local);
+    }
+
+    @Benchmark
+    public String templatePreCompilado() {
+        String data = Formatos.data(dataCirurgia);
+        String hora = Formatos.hora(horaCirurgia);
+        if (tipo == TipoTemplate.CANCELAMENTO) {
+            return template.renderizar(nomePaciente, data, hora);
+        }
+        return template.renderizar(nomePaciente, data, hora, local);
+    }
+}
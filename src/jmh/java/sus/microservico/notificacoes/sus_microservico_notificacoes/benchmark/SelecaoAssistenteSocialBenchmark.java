@@ -0,0 +1,86 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.AssistenteSocial;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.AssistenteSocialRepository;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.CargaAssistenteSocial;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.TarefaAssistenteSocialRepository;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.IndiceCargaAssistenteSocial;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seleção da assistente social menos ocupada no índice de carga, com os repositórios em
+ * memória. Cada operação reserva uma assistente e conclui a tarefa em seguida, mantendo a
+ * carga estável entre as iterações.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SelecaoAssistenteSocialBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int assistentes;
+
+    private IndiceCargaAssistenteSocial indice;
+
+    @Setup
+    public void setup() {
+        Stubs.silenciarLogs();
+        List<AssistenteSocial> cadastro = new ArrayList<>(assistentes);
+        List<CargaAssistenteSocial> cargas = new ArrayList<>(assistentes);
+        for (int i = 0; i < assistentes; i++) {
+            UUID id = UUID.randomUUID();
+            long tarefas = ThreadLocalRandom.current().nextLong(20);
+            cadastro.add(new AssistenteSocial(id, "Assistente " + i, "assistente" + i + "@sus.gov.br", "M" + i, "11999990000"));
+            cargas.add(new CargaAssistenteSocial() {
+                @Override
+                public UUID getAssistenteSocialId() {
+                    return id;
+                }
+
+                @Override
+                public long getTarefasAtivas() {
+                    return tarefas;
+                }
+            });
+        }
+
+        indice = new IndiceCargaAssistenteSocial(
+                Stubs.repositorio(AssistenteSocialRepository.class, Map.of("findAll", args -> cadastro)),
+                Stubs.repositorio(TarefaAssistenteSocialRepository.class, Map.of("contarTarefasPorAssistente", args -> cargas)));
+        indice.reconciliar();
+    }
+
+    @Benchmark
+    public AssistenteSocial reservarEConcluir() {
+        AssistenteSocial selecionada = indice.reservarMenosOcupada().orElseThrow();
+        indice.decrementar(selecionada.getId());
+        return selecionada;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public AssistenteSocial reservarEConcluirConcorrente() {
+        return reservarEConcluir();
+    }
+}
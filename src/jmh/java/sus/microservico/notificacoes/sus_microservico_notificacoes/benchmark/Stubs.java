@@ -0,0 +1,37 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.benchmark;
+
+import ch.qos.logback.classic.Level;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Apoio aos benchmarks: repositórios em memória e logs silenciados, para que o resultado meça
+ * o código de notificação e não o banco ou a saída no console.
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * Implementa a interface respondendo apenas aos métodos informados (por nome).
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T repositorio(Class<T> tipo, Map<String, Function<Object[], Object>> metodos) {
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (proxy, metodo, args) -> {
+            Function<Object[], Object> implementacao = metodos.get(metodo.getName());
+            if (implementacao == null) {
+                throw new UnsupportedOperationException(tipo.getSimpleName() + "." + metodo.getName());
+            }
+            return implementacao.apply(args);
+        });
+    }
+
+    static void silenciarLogs() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+}
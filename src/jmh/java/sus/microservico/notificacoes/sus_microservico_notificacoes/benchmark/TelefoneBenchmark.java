@@ -0,0 +1,41 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.SmsService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalização do telefone antes do envio de SMS: {@code replaceAll} (compila a regex a cada
+ * chamada) contra a varredura de caracteres de {@link SmsService#formatarTelefone(String)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TelefoneBenchmark {
+
+    @Param({"(11) 98765-4321", "11987654321", "+5511987654321"})
+    public String telefone;
+
+    @Benchmark
+    public String replaceAll() {
+        return telefone.startsWith("+") ? telefone : "+55" + telefone.replaceAll("[^0-9]", "");
+    }
+
+    @Benchmark
+    public String formatarTelefone() {
+        return SmsService.formatarTelefone(telefone);
+    }
+}
@@ -0,0 +1,112 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.ResultadoEnvio;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.EnvioCancelavel;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.LimitadorConcorrencia;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.SmsGateway;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.SmsService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lote de SMS por um provedor com latência injetada e chamada bloqueante, limitado a
+ * {@code conexoes} envios simultâneos pelo {@link LimitadorConcorrencia} (como o gateway do
+ * Twilio). Compara pools fixos de threads de plataforma com uma thread virtual por envio:
+ * com poucas threads o pool é o gargalo; com threads virtuais o limite passa a ser o do provedor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ThreadsVirtuaisBenchmark {
+
+    @Param({"PLATAFORMA_8", "PLATAFORMA_200", "VIRTUAL"})
+    private String modo;
+
+    @Param({"50"})
+    private int latenciaMs;
+
+    @Param({"20"})
+    private int conexoes;
+
+    @Param({"500"})
+    private int envios;
+
+    private ExecutorService executor;
+    private SmsService sms;
+
+    @Setup
+    public void setup() {
+        Stubs.silenciarLogs();
+        executor = modo.equals("VIRTUAL")
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(Integer.parseInt(modo.substring("PLATAFORMA_".length())));
+
+        LimitadorConcorrencia limitador = new LimitadorConcorrencia("provedor", conexoes, Duration.ofMinutes(1));
+        SmsGateway provedor = new SmsGateway() {
+            @Override
+            public boolean configurado() {
+                return true;
+            }
+
+            @Override
+            public EnvioCancelavel<String> enviar(String telefone, String mensagem) {
+                // Chamada HTTP síncrona: a thread fica bloqueada durante a latência do provedor
+                EnvioCancelavel<String> envio = new EnvioCancelavel<>();
+                envio.iniciar();
+                envio.complete(limitador.executar(() -> {
+                    try {
+                        Thread.sleep(latenciaMs);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException(e);
+                    }
+                    return "SM" + UUID.randomUUID();
+                }));
+                return envio;
+            }
+        };
+        sms = new SmsService(provedor, 1_000_000_000, 1_000_000, Duration.ofSeconds(1), Duration.ofMinutes(1));
+    }
+
+    @TearDown
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int enviarLote() throws Exception {
+        List<Future<ResultadoEnvio>> resultados = new ArrayList<>(envios);
+        for (int i = 0; i < envios; i++) {
+            resultados.add(executor.submit(() -> sms.enviarSMS("(11) 98765-4321", "Lembrete: sua cirurgia é amanhã")));
+        }
+        int enviados = 0;
+        for (Future<ResultadoEnvio> resultado : resultados) {
+            if (resultado.get() == ResultadoEnvio.ENVIADO) {
+                enviados++;
+            }
+        }
+        return enviados;
+    }
+}
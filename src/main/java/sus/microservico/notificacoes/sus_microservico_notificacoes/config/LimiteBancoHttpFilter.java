@@ -0,0 +1,96 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.LimitadorConcorrencia;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.LimitesConcorrencia;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Requisições das rotas da API que acessam o banco passam pelo limitador do banco. Com threads
+ * virtuais o Tomcat não limita mais as requisições simultâneas; sem este filtro elas disputariam
+ * as conexões do Hikari com os consumidores. Quem não obtém permissão a tempo recebe 503.
+ */
+@Component
+public class LimiteBancoHttpFilter extends OncePerRequestFilter {
+
+    /** Rotas servidas a partir dos repositórios; o parking lot, por exemplo, só fala com o RabbitMQ. */
+    private static final List<String> ROTAS_BANCO = List.of("/api/v1/tarefas");
+
+    private final Logger logger = LoggerFactory.getLogger(LimiteBancoHttpFilter.class);
+    private final LimitadorConcorrencia limitador;
+
+    public LimiteBancoHttpFilter(LimitesConcorrencia limites) {
+        this.limitador = limites.banco();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        return ROTAS_BANCO.stream().noneMatch(rota -> caminho.equals(rota) || caminho.startsWith(rota + "/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            if (!limitador.adquirir()) {
+                logger.warn("Limite de acesso ao banco atingido: {} {} recusada", request.getMethod(), request.getRequestURI());
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+
+        boolean liberar = true;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Exportação NDJSON: a permissão só é devolvida quando o streaming terminar
+                request.getAsyncContext().addListener(new LiberarAoConcluir());
+                liberar = false;
+            }
+        } finally {
+            if (liberar) {
+                limitador.liberar();
+            }
+        }
+    }
+
+    private class LiberarAoConcluir implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            // Chamado uma única vez, também depois de timeout ou erro
+            limitador.liberar();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.config;
+
+import com.rabbitmq.client.GetResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.HeadersExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Retira de uso as filas criadas por versões anteriores com argumentos que o RabbitMQ não deixa
+ * alterar. Roda a cada inicialização e é idempotente: uma fila legada que não existe é ignorada.
+ * As filas de retentativa legadas deixam de receber mensagens e são removidas quando esvaziam;
+ * até lá, as que ainda estão nelas voltam pelo dead-letter antigo.
+ * <p>
+ * As filas de notificação sem {@code x-max-priority} são desligadas do {@code sus.exchange} e
+ * suas mensagens são movidas para as filas novas. Mensagens de retentativas antigas ainda podem
+ * voltar para elas pelo nome; por isso a fila legada só é removida depois do maior atraso de
+ * retentativa, numa segunda passagem que move o que tiver chegado nesse meio-tempo.
+ */
+@Component
+public class MigracaoFilasRabbit {
+
+    private static final List<String> ROUTING_KEYS_NOTIFICACAO = List.of(
+            RabbitMQConfig.NOTIFICACAO_CIRURGIA_CRIADA_ROUTING_KEY,
+            RabbitMQConfig.NOTIFICACAO_CIRURGIA_ATUALIZADA_ROUTING_KEY,
+            RabbitMQConfig.NOTIFICACAO_CIRURGIA_CANCELADA_ROUTING_KEY);
+    private static final Duration MARGEM_REMOCAO = Duration.ofMinutes(1);
+
+    private final Logger logger = LoggerFactory.getLogger(MigracaoFilasRabbit.class);
+    private final AmqpAdmin amqpAdmin;
+    private final RabbitTemplate rabbitTemplate;
+    private final TaskScheduler agendador;
+    private final NotificacaoRabbitProperties rabbitProperties;
+
+    public MigracaoFilasRabbit(AmqpAdmin amqpAdmin,
+                               RabbitTemplate rabbitTemplate,
+                               TaskScheduler agendador,
+                               NotificacaoRabbitProperties rabbitProperties) {
+        this.amqpAdmin = amqpAdmin;
+        this.rabbitTemplate = rabbitTemplate;
+        this.agendador = agendador;
+        this.rabbitProperties = rabbitProperties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrar() {
+        try {
+            for (Duration atraso : rabbitProperties.getRetentativa().getAtrasos()) {
+                retirarRetentativaLegada(RabbitMQConfig.nivelRetentativa(atraso));
+            }
+            boolean pendentes = false;
+            for (String routingKey : ROUTING_KEYS_NOTIFICACAO) {
+                pendentes |= desligarNotificacaoLegada(routingKey);
+            }
+            if (pendentes) {
+                Duration maiorAtraso = Collections.max(rabbitProperties.getRetentativa().getAtrasos());
+                agendador.schedule(this::removerNotificacoesLegadas, Instant.now().plus(maiorAtraso).plus(MARGEM_REMOCAO));
+            }
+        } catch (Exception e) {
+            logger.error("Erro ao migrar filas legadas do RabbitMQ: {}", e.getMessage(), e);
+        }
+    }
+
+    private void retirarRetentativaLegada(String nivel) {
+        String nome = RabbitMQConfig.filaRetentativaLegada(nivel);
+        QueueInformation info = amqpAdmin.getQueueInfo(nome);
+        if (info == null) {
+            return;
+        }
+        amqpAdmin.removeBinding(BindingBuilder.bind(new Queue(nome))
+                .to(new HeadersExchange(RabbitMQConfig.RETENTATIVA_EXCHANGE))
+                .where(RabbitMQConfig.HEADER_ATRASO).matches(nivel));
+        if (info.getMessageCount() == 0) {
+            amqpAdmin.deleteQueue(nome, false, true);
+            logger.info("Fila de retentativa legada {} removida", nome);
+        } else {
+            logger.info("Fila de retentativa legada {} desligada; será removida quando esvaziar ({} mensagem(ns))",
+                    nome, info.getMessageCount());
+        }
+    }
+
+    /**
+     * @return {@code true} se a fila legada existe e fica para a remoção agendada
+     */
+    private boolean desligarNotificacaoLegada(String routingKey) {
+        String legada = RabbitMQConfig.filaNotificacaoLegada(routingKey);
+        if (amqpAdmin.getQueueInfo(legada) == null) {
+            return false;
+        }
+        amqpAdmin.removeBinding(new Binding(legada, Binding.DestinationType.QUEUE,
+                RabbitMQConfig.EXCHANGE, routingKey, null));
+        int movidas = mover(legada, RabbitMQConfig.filaDaRoutingKey(routingKey));
+        logger.info("Fila de notificação legada {} desligada do {}; {} mensagem(ns) movida(s) para {}",
+                legada, RabbitMQConfig.EXCHANGE, movidas, RabbitMQConfig.filaDaRoutingKey(routingKey));
+        return true;
+    }
+
+    private void removerNotificacoesLegadas() {
+        for (String routingKey : ROUTING_KEYS_NOTIFICACAO) {
+            String legada = RabbitMQConfig.filaNotificacaoLegada(routingKey);
+            try {
+                if (amqpAdmin.getQueueInfo(legada) == null) {
+                    continue;
+                }
+                mover(legada, RabbitMQConfig.filaDaRoutingKey(routingKey));
+                QueueInformation info = amqpAdmin.getQueueInfo(legada);
+                if (info != null && info.getMessageCount() == 0) {
+                    amqpAdmin.deleteQueue(legada, false, true);
+                    logger.info("Fila de notificação legada {} removida", legada);
+                } else {
+                    logger.warn("Fila de notificação legada {} ainda recebe mensagens; será revista na próxima inicialização",
+                            legada);
+                }
+            } catch (Exception e) {
+                logger.error("Erro ao remover a fila de notificação legada {}: {}", legada, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Republica as mensagens na fila nova pelo exchange padrão, com as mesmas propriedades
+     * (inclusive a prioridade), e só confirma cada uma depois de publicá-la.
+     */
+    private int mover(String origem, String destino) {
+        Integer movidas = rabbitTemplate.execute(channel -> {
+            int total = 0;
+            GetResponse resposta;
+            while ((resposta = channel.basicGet(origem, false)) != null) {
+                channel.basicPublish("", destino, resposta.getProps(), resposta.getBody());
+                channel.basicAck(resposta.getEnvelope().getDeliveryTag(), false);
+                total++;
+            }
+            return total;
+        });
+        return movidas != null ? movidas : 0;
+    }
+}
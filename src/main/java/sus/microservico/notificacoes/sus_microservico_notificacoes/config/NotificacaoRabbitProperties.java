@@ -0,0 +1,65 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Ajustes dos listeners RabbitMQ, por fila, sob o prefixo {@code notificacao.rabbit}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notificacao.rabbit")
+public class NotificacaoRabbitProperties {
+
+    private Batch batch = new Batch();
+    private Adaptativo adaptativo = new Adaptativo();
+    private Retentativa retentativa = new Retentativa();
+    private Fila criada = new Fila();
+    private Fila atualizada = new Fila();
+    private Fila cancelada = new Fila();
+
+    @Data
+    public static class Fila {
+        /** Consumidores iniciados com o container. */
+        private int consumidores = 1;
+        /** Limite de consumidores quando a fila está ocupada. */
+        private int maxConsumidores = 1;
+        /** Mensagens não confirmadas entregues a cada consumidor. */
+        private int prefetch = 250;
+        /** Tamanho máximo do lote quando o modo lote está habilitado. */
+        private int tamanhoLote = 100;
+        /** Intervalo mínimo entre a criação de dois novos consumidores. */
+        private Duration intervaloInicioConsumidor = Duration.ofSeconds(10);
+        /** Executa os consumidores em threads virtuais. */
+        private boolean threadsVirtuais = false;
+    }
+
+    @Data
+    public static class Batch {
+        private boolean habilitado = false;
+        /** Tempo máximo de espera para completar um lote. */
+        private Duration receiveTimeout = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class Adaptativo {
+        private boolean habilitado = false;
+        /** Intervalo entre as verificações de profundidade das filas. */
+        private Duration intervalo = Duration.ofSeconds(15);
+        /** Mensagens pendentes por consumidor antes de iniciar mais um. */
+        private int mensagensPorConsumidor = 100;
+    }
+
+    @Data
+    public static class Retentativa {
+        /**
+         * Atraso de cada nível de retentativa. A tentativa {@code n} usa o nível {@code n}
+         * (ou o último, se houver menos níveis que tentativas).
+         */
+        private List<Duration> atrasos = List.of(Duration.ofSeconds(10), Duration.ofMinutes(1), Duration.ofMinutes(10));
+        /** Tentativas com atraso antes de a mensagem ir para o parking lot. */
+        private int maxTentativas = 5;
+    }
+}
@@ -3,30 +3,83 @@ package sus.microservico.notificacoes.sus_microservico_notificacoes.config;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.HeadersExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.CacheCadastros;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.PrioridadeNotificacao;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.RetentativaMensagemService;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
+@EnableConfigurationProperties(NotificacaoRabbitProperties.class)
 public class RabbitMQConfig {
     
     private static final Logger logger = LoggerFactory.getLogger(RabbitMQConfig.class);
     
     public static final String EXCHANGE = "sus.exchange";
     
-    public static final String CIRURGIA_CRIADA_QUEUE = "notificacao.cirurgia.criada.queue";
-    public static final String CIRURGIA_ATUALIZADA_QUEUE = "notificacao.cirurgia.atualizada.queue";
-    public static final String CIRURGIA_CANCELADA_QUEUE = "notificacao.cirurgia.cancelada.queue";
+    // O sufixo .v2 marca as filas declaradas com x-max-priority (ver MigracaoFilasRabbit)
+    public static final String CIRURGIA_CRIADA_QUEUE = "notificacao.cirurgia.criada.v2.queue";
+    public static final String CIRURGIA_ATUALIZADA_QUEUE = "notificacao.cirurgia.atualizada.v2.queue";
+    public static final String CIRURGIA_CANCELADA_QUEUE = "notificacao.cirurgia.cancelada.v2.queue";
     
     public static final String NOTIFICACAO_CIRURGIA_CRIADA_ROUTING_KEY = "notificacao.cirurgia.criada";
     public static final String NOTIFICACAO_CIRURGIA_ATUALIZADA_ROUTING_KEY = "notificacao.cirurgia.atualizada";
     public static final String NOTIFICACAO_CIRURGIA_CANCELADA_ROUTING_KEY = "notificacao.cirurgia.cancelada";
     
+    public static final String CADASTRO_PACIENTE_ATUALIZADO_ROUTING_KEY = "cadastro.paciente.atualizado";
+    public static final String CADASTRO_ASSISTENTE_SOCIAL_ATUALIZADO_ROUTING_KEY = "cadastro.assistente-social.atualizado";
+    public static final String CADASTRO_MEDICO_ATUALIZADO_ROUTING_KEY = "cadastro.medico.atualizado";
+    
+    public static final String RETENTATIVA_EXCHANGE = "notificacao.retentativa.exchange";
+    public static final String PARKING_LOT_QUEUE = "notificacao.parking-lot.queue";
+    
+    public static final String HEADER_TENTATIVAS = "x-tentativas";
+    public static final String HEADER_ATRASO = "x-atraso";
+    public static final String HEADER_ROUTING_KEY_ORIGINAL = "x-routing-key-original";
+    public static final String HEADER_FILA_ORIGEM = "x-fila-origem";
+    public static final String HEADER_ERRO = "x-erro";
+    
+    public static final String CRIADA_CONTAINER_FACTORY = "criadaContainerFactory";
+    public static final String ATUALIZADA_CONTAINER_FACTORY = "atualizadaContainerFactory";
+    public static final String CANCELADA_CONTAINER_FACTORY = "canceladaContainerFactory";
+    
+    public static final String CRIADA_LISTENER_ID = "notificacao-cirurgia-criada";
+    public static final String ATUALIZADA_LISTENER_ID = "notificacao-cirurgia-atualizada";
+    public static final String CANCELADA_LISTENER_ID = "notificacao-cirurgia-cancelada";
+    
+    private final NotificacaoRabbitProperties rabbitProperties;
+    private final boolean threadsVirtuais;
+    
+    public RabbitMQConfig(NotificacaoRabbitProperties rabbitProperties,
+                          @Value("${spring.threads.virtual.enabled:false}") boolean threadsVirtuais) {
+        this.rabbitProperties = rabbitProperties;
+        this.threadsVirtuais = threadsVirtuais;
+    }
+    
     @PostConstruct
     public void init() {
         logger.info("==========================================================");
@@ -36,6 +89,10 @@ public class RabbitMQConfig {
         logger.info("  • {} -> {}", CIRURGIA_CRIADA_QUEUE, NOTIFICACAO_CIRURGIA_CRIADA_ROUTING_KEY);
         logger.info("  • {} -> {}", CIRURGIA_ATUALIZADA_QUEUE, NOTIFICACAO_CIRURGIA_ATUALIZADA_ROUTING_KEY);
         logger.info("  • {} -> {}", CIRURGIA_CANCELADA_QUEUE, NOTIFICACAO_CIRURGIA_CANCELADA_ROUTING_KEY);
+        logger.info("  • {} (exclusiva) -> cadastro.*.atualizado", cadastroInvalidacaoQueue().getName());
+        logger.info("Retentativas: {} (máx. {} tentativas), parking lot: {}",
+                rabbitProperties.getRetentativa().getAtrasos(), rabbitProperties.getRetentativa().getMaxTentativas(),
+                PARKING_LOT_QUEUE);
         logger.info("==========================================================");
     }
 
@@ -46,7 +103,7 @@ public class RabbitMQConfig {
 
     @Bean
     public Queue notificacaoCirurgiaCriadaQueue() {
-        return new Queue(CIRURGIA_CRIADA_QUEUE, true);
+        return filaNotificacao(CIRURGIA_CRIADA_QUEUE);
     }
 
     @Bean
@@ -58,7 +115,7 @@ public class RabbitMQConfig {
 
     @Bean
     public Queue notificacaoCirurgiaAtualizadaQueue() {
-        return new Queue(CIRURGIA_ATUALIZADA_QUEUE, true);
+        return filaNotificacao(CIRURGIA_ATUALIZADA_QUEUE);
     }
 
     @Bean
@@ -70,7 +127,7 @@ public class RabbitMQConfig {
 
     @Bean
     public Queue notificacaoCirurgiaCanceladaQueue() {
-        return new Queue(CIRURGIA_CANCELADA_QUEUE, true);
+        return filaNotificacao(CIRURGIA_CANCELADA_QUEUE);
     }
 
     @Bean
@@ -80,8 +137,194 @@ public class RabbitMQConfig {
                 .with(NOTIFICACAO_CIRURGIA_CANCELADA_ROUTING_KEY);
     }
 
+    /**
+     * Filas de prioridade: o publicador define a prioridade da mensagem (0 a
+     * {@link PrioridadeNotificacao#MAXIMA}) e o broker entrega primeiro as mais altas. Como o
+     * RabbitMQ não altera os argumentos de uma fila existente, elas têm nomes novos; as filas
+     * antigas, sem {@code x-max-priority}, são esvaziadas e removidas por {@link MigracaoFilasRabbit}.
+     */
+    private static Queue filaNotificacao(String nome) {
+        return QueueBuilder.durable(nome)
+                .maxPriority(PrioridadeNotificacao.MAXIMA)
+                .build();
+    }
+
+    /**
+     * Fila exclusiva e temporária desta instância para a invalidação do cache de cadastros:
+     * cada réplica recebe sua própria cópia do evento.
+     */
+    @Bean
+    public AnonymousQueue cadastroInvalidacaoQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("notificacao.cadastro.invalidacao."));
+    }
+
+    @Bean
+    public Declarables cadastroInvalidacaoBindings() {
+        return new Declarables(
+                BindingBuilder.bind(cadastroInvalidacaoQueue()).to(exchange()).with(CADASTRO_PACIENTE_ATUALIZADO_ROUTING_KEY),
+                BindingBuilder.bind(cadastroInvalidacaoQueue()).to(exchange()).with(CADASTRO_ASSISTENTE_SOCIAL_ATUALIZADO_ROUTING_KEY),
+                BindingBuilder.bind(cadastroInvalidacaoQueue()).to(exchange()).with(CADASTRO_MEDICO_ATUALIZADO_ROUTING_KEY));
+    }
+
+    public static String cadastroDaRoutingKey(String routingKey) {
+        return switch (routingKey) {
+            case CADASTRO_PACIENTE_ATUALIZADO_ROUTING_KEY -> CacheCadastros.PACIENTE;
+            case CADASTRO_ASSISTENTE_SOCIAL_ATUALIZADO_ROUTING_KEY -> CacheCadastros.ASSISTENTE_SOCIAL;
+            case CADASTRO_MEDICO_ATUALIZADO_ROUTING_KEY -> CacheCadastros.MEDICO;
+            default -> null;
+        };
+    }
+
+    /**
+     * Uma fila por nível de atraso, sem consumidores: a mensagem espera o TTL e volta pelo
+     * dead-letter do exchange padrão, publicada com o nome da fila de origem como routing key.
+     * Assim só a fila cujo consumidor falhou recebe a mensagem de novo, não todas as ligadas à
+     * routing key do evento. O nível é escolhido pelo header {@code x-atraso} no exchange de
+     * retentativa.
+     */
+    @Bean
+    public Declarables retentativaDeclarables() {
+        HeadersExchange retentativaExchange = new HeadersExchange(RETENTATIVA_EXCHANGE);
+        List<Declarable> declaraveis = new ArrayList<>();
+        declaraveis.add(retentativaExchange);
+        
+        for (Duration atraso : rabbitProperties.getRetentativa().getAtrasos()) {
+            String nivel = nivelRetentativa(atraso);
+            Queue fila = QueueBuilder.durable(filaRetentativa(nivel))
+                    .ttl((int) atraso.toMillis())
+                    .deadLetterExchange("")
+                    .build();
+            declaraveis.add(fila);
+            declaraveis.add(BindingBuilder.bind(fila).to(retentativaExchange).where(HEADER_ATRASO).matches(nivel));
+        }
+        return new Declarables(declaraveis);
+    }
+
+    @Bean
+    public Queue parkingLotQueue() {
+        return new Queue(PARKING_LOT_QUEUE, true);
+    }
+
+    public static String nivelRetentativa(Duration atraso) {
+        return atraso.toSeconds() + "s";
+    }
+
+    /**
+     * O sufixo de versão separa as filas atuais das que faziam dead-letter para o
+     * {@code sus.exchange}; o RabbitMQ não permite alterar os argumentos de uma fila existente.
+     */
+    public static String filaRetentativa(String nivel) {
+        return "notificacao.retentativa." + nivel + ".v2.queue";
+    }
+
+    public static String filaRetentativaLegada(String nivel) {
+        return "notificacao.retentativa." + nivel + ".queue";
+    }
+
+    /**
+     * Fila de notificação de versões anteriores, sem {@code x-max-priority}, para a routing key.
+     */
+    public static String filaNotificacaoLegada(String routingKey) {
+        return routingKey + ".queue";
+    }
+
+    /**
+     * Fila deste serviço que consome a routing key de um evento de notificação, ou {@code null}.
+     */
+    public static String filaDaRoutingKey(String routingKey) {
+        if (routingKey == null) {
+            return null;
+        }
+        return switch (routingKey) {
+            case NOTIFICACAO_CIRURGIA_CRIADA_ROUTING_KEY -> CIRURGIA_CRIADA_QUEUE;
+            case NOTIFICACAO_CIRURGIA_ATUALIZADA_ROUTING_KEY -> CIRURGIA_ATUALIZADA_QUEUE;
+            case NOTIFICACAO_CIRURGIA_CANCELADA_ROUTING_KEY -> CIRURGIA_CANCELADA_QUEUE;
+            default -> null;
+        };
+    }
+
     @Bean
     public MessageConverter messageConverter() {
         return new Jackson2JsonMessageConverter();
     }
+
+    @Bean(CRIADA_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory criadaContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            RetentativaMensagemService retentativaService) {
+        return criarContainerFactory(configurer, connectionFactory, retentativaService, "criada", rabbitProperties.getCriada());
+    }
+
+    @Bean(ATUALIZADA_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory atualizadaContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            RetentativaMensagemService retentativaService) {
+        return criarContainerFactory(configurer, connectionFactory, retentativaService, "atualizada", rabbitProperties.getAtualizada());
+    }
+
+    @Bean(CANCELADA_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory canceladaContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            RetentativaMensagemService retentativaService) {
+        return criarContainerFactory(configurer, connectionFactory, retentativaService, "cancelada", rabbitProperties.getCancelada());
+    }
+
+    /**
+     * Cada fila tem a sua factory para que consumidores, prefetch e lote sejam ajustados
+     * de forma independente. O listener apenas grava as entregas no outbox, então o ack
+     * automático confirma a mensagem assim que a transação termina. Com
+     * {@code notificacao.rabbit.batch.habilitado} a factory entrega listas de mensagens ao
+     * {@code NotificacaoBatchConsumer}, que converte e confirma cada mensagem individualmente; o prefetch
+     * precisa comportar o lote inteiro, senão o lote nunca enche.
+     * <p>
+     * Uma mensagem com erro não volta para a fila: o recoverer a republica com atraso
+     * (ou a estaciona no parking lot), para não consumir a capacidade dos consumidores
+     * em um loop de reentrega.
+     */
+    private SimpleRabbitListenerContainerFactory criarContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            RetentativaMensagemService retentativaService,
+            String nome,
+            NotificacaoRabbitProperties.Fila fila) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setAcknowledgeMode(AcknowledgeMode.AUTO);
+        factory.setConcurrentConsumers(fila.getConsumidores());
+        factory.setMaxConcurrentConsumers(Math.max(fila.getConsumidores(), fila.getMaxConsumidores()));
+        factory.setStartConsumerMinInterval(fila.getIntervaloInicioConsumidor().toMillis());
+        
+        int prefetch = fila.getPrefetch();
+        NotificacaoRabbitProperties.Batch batch = rabbitProperties.getBatch();
+        if (batch.isHabilitado()) {
+            factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+            factory.setBatchListener(true);
+            factory.setConsumerBatchEnabled(true);
+            factory.setBatchSize(fila.getTamanhoLote());
+            factory.setReceiveTimeout(batch.getReceiveTimeout().toMillis());
+            prefetch = Math.max(prefetch, fila.getTamanhoLote());
+        } else {
+            factory.setAdviceChain(RetryInterceptorBuilder.stateless()
+                    .maxAttempts(1)
+                    .recoverer(retentativaService::encaminhar)
+                    .build());
+        }
+        factory.setPrefetchCount(prefetch);
+        
+        // Com spring.threads.virtual.enabled o configurer do Spring Boot já usa threads virtuais em todas as filas
+        boolean virtuais = threadsVirtuais || fila.isThreadsVirtuais();
+        if (fila.isThreadsVirtuais() && !threadsVirtuais) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("rabbit-" + nome + "-");
+            executor.setVirtualThreads(true);
+            factory.setTaskExecutor(executor);
+        }
+        
+        logger.info("Fila {}: consumidores {}-{}, prefetch {}, lote {}, threads virtuais {}",
+                nome, fila.getConsumidores(), fila.getMaxConsumidores(), prefetch,
+                batch.isHabilitado() ? fila.getTamanhoLote() : "desabilitado", virtuais);
+        return factory;
+    }
 }
@@ -0,0 +1,35 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.consumer;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.config.RabbitMQConfig;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.event.CadastroAtualizadoEvent;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.CacheCadastros;
+
+/**
+ * Invalida o cache de cadastros desta instância quando o serviço principal altera um registro.
+ * Cada réplica tem a sua fila exclusiva, então todas recebem o evento.
+ */
+@Component
+@RequiredArgsConstructor
+public class CadastroAtualizadoConsumer {
+
+    private final Logger logger = LoggerFactory.getLogger(CadastroAtualizadoConsumer.class);
+    private final CacheCadastros cacheCadastros;
+
+    @RabbitListener(queues = "#{cadastroInvalidacaoQueue.name}")
+    public void receberCadastroAtualizado(CadastroAtualizadoEvent evento,
+                                          @Header(AmqpHeaders.RECEIVED_ROUTING_KEY) String routingKey) {
+        String cadastro = RabbitMQConfig.cadastroDaRoutingKey(routingKey);
+        if (cadastro == null) {
+            logger.warn("Routing key de cadastro desconhecida: {}", routingKey);
+            return;
+        }
+        cacheCadastros.invalidar(cadastro, evento.id());
+    }
+}
@@ -0,0 +1,185 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.consumer;
+
+import com.rabbitmq.client.Channel;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.config.RabbitMQConfig;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.event.NotificacaoCirurgiaAtualizadaEvent;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.event.NotificacaoCirurgiaCanceladaEvent;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.event.NotificacaoCirurgiaCriadaEvent;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.LimitesConcorrencia;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.NotificacaoMetricas;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.NotificacaoService;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.RetentativaMensagemService;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Consumer em modo lote, ativado com {@code notificacao.rabbit.batch.habilitado=true}.
+ * As mensagens chegam sem conversão e cada uma é convertida aqui: uma mensagem inválida vai
+ * direto para o parking lot sem derrubar o lote. O lote é gravado em uma única transação; se
+ * ela falhar, os eventos são refeitos um a um, cada um na sua transação. Cada mensagem é
+ * confirmada individualmente: um evento com erro segue para a fila de retentativa sem derrubar
+ * os demais.
+ */
+@Component
+@ConditionalOnProperty(name = "notificacao.rabbit.batch.habilitado", havingValue = "true")
+@RequiredArgsConstructor
+public class NotificacaoBatchConsumer {
+
+    private final Logger logger = LoggerFactory.getLogger(NotificacaoBatchConsumer.class);
+    private final NotificacaoService notificacaoService;
+    private final NotificacaoMetricas metricas;
+    private final RetentativaMensagemService retentativaService;
+    private final LimitesConcorrencia limites;
+    private final MessageConverter messageConverter;
+
+    @RabbitListener(id = RabbitMQConfig.CRIADA_LISTENER_ID, queues = RabbitMQConfig.CIRURGIA_CRIADA_QUEUE,
+            containerFactory = RabbitMQConfig.CRIADA_CONTAINER_FACTORY)
+    public void receberLoteCirurgiaCriada(List<Message> mensagens, Channel channel) {
+        logger.info("Lote de {} evento(s) de criação recebido", mensagens.size());
+        processar(mensagens, NotificacaoCirurgiaCriadaEvent.class, notificacaoService::processarLoteCriacao,
+                notificacaoService::processarNotificacaoCriacao, "criada", channel);
+    }
+
+    @RabbitListener(id = RabbitMQConfig.ATUALIZADA_LISTENER_ID, queues = RabbitMQConfig.CIRURGIA_ATUALIZADA_QUEUE,
+            containerFactory = RabbitMQConfig.ATUALIZADA_CONTAINER_FACTORY)
+    public void receberLoteCirurgiaAtualizada(List<Message> mensagens, Channel channel) {
+        logger.info("Lote de {} evento(s) de atualização recebido", mensagens.size());
+        processar(mensagens, NotificacaoCirurgiaAtualizadaEvent.class, notificacaoService::processarLoteAtualizacao,
+                notificacaoService::processarNotificacaoAtualizacao, "atualizada", channel);
+    }
+
+    @RabbitListener(id = RabbitMQConfig.CANCELADA_LISTENER_ID, queues = RabbitMQConfig.CIRURGIA_CANCELADA_QUEUE,
+            containerFactory = RabbitMQConfig.CANCELADA_CONTAINER_FACTORY)
+    public void receberLoteCirurgiaCancelada(List<Message> mensagens, Channel channel) {
+        logger.info("Lote de {} evento(s) de cancelamento recebido", mensagens.size());
+        processar(mensagens, NotificacaoCirurgiaCanceladaEvent.class, notificacaoService::processarLoteCancelamento,
+                notificacaoService::processarNotificacaoCancelamento, "cancelada", channel);
+    }
+
+    /**
+     * Mensagens que não convertem são encaminhadas (e confirmadas) antes da gravação; o
+     * serviço de retentativa as estaciona no parking lot, já que uma nova tentativa falharia igual.
+     */
+    private <T> void processar(List<Message> mensagens, Class<T> tipo, Consumer<List<T>> lote, Consumer<T> individual,
+                               String evento, Channel channel) {
+        long inicio = System.nanoTime();
+        List<Message> validas = new ArrayList<>(mensagens.size());
+        List<T> eventos = new ArrayList<>(mensagens.size());
+        for (Message mensagem : mensagens) {
+            try {
+                eventos.add(converter(mensagem, tipo));
+                validas.add(mensagem);
+            } catch (MessageConversionException e) {
+                long deliveryTag = mensagem.getMessageProperties().getDeliveryTag();
+                logger.error("Mensagem inválida no lote (deliveryTag {}): {}", deliveryTag, e.getMessage());
+                encaminharParaRetentativa(mensagem, e, channel, deliveryTag);
+            }
+        }
+
+        List<CompletableFuture<Void>> envios = eventos.isEmpty() ? List.of() : gravarComLimite(eventos, lote, individual);
+        int falhas = (int) envios.stream().filter(CompletableFuture::isCompletedExceptionally).count();
+        int invalidas = mensagens.size() - validas.size();
+        metricas.registrarConsumoLote(evento, System.nanoTime() - inicio, eventos.size() - falhas, falhas + invalidas);
+        confirmar(validas, envios, channel);
+    }
+
+    private <T> T converter(Message mensagem, Class<T> tipo) {
+        // Com o tipo inferido o conversor ignora o __TypeId__ do publicador, como no listener de mensagem única
+        mensagem.getMessageProperties().setInferredArgumentType(tipo);
+        Object evento = messageConverter.fromMessage(mensagem);
+        if (!tipo.isInstance(evento)) {
+            throw new MessageConversionException("Esperado " + tipo.getSimpleName() + ", recebido "
+                    + (evento != null ? evento.getClass().getSimpleName() : "null"));
+        }
+        return tipo.cast(evento);
+    }
+
+    /**
+     * O futuro na posição {@code i} corresponde ao evento {@code i}. Sem permissão do limitador
+     * do banco, todas as mensagens seguem para retentativa: no ack manual uma exceção do
+     * listener deixaria as mensagens sem confirmação até o canal fechar.
+     */
+    private <T> List<CompletableFuture<Void>> gravarComLimite(List<T> eventos, Consumer<List<T>> lote, Consumer<T> individual) {
+        try {
+            return limites.banco().executar(() -> gravar(eventos, lote, individual));
+        } catch (Exception e) {
+            logger.error("Erro ao gravar lote de {} evento(s): {}", eventos.size(), e.getMessage(), e);
+            return eventos.stream().map(evento -> CompletableFuture.<Void>failedFuture(e)).toList();
+        }
+    }
+
+    /**
+     * Uma falha desfaz a transação do lote inteiro; os eventos são então refeitos um a um e só
+     * os que falharem de novo vão para retentativa. A deduplicação descarta o que já tiver sido
+     * gravado caso a mensagem volte.
+     */
+    private <T> List<CompletableFuture<Void>> gravar(List<T> eventos, Consumer<List<T>> lote, Consumer<T> individual) {
+        try {
+            lote.accept(eventos);
+            return eventos.stream().map(evento -> CompletableFuture.<Void>completedFuture(null)).toList();
+        } catch (RuntimeException e) {
+            logger.warn("Erro ao gravar lote de {} evento(s), processando um a um: {}", eventos.size(), e.getMessage());
+            return eventos.stream().map(evento -> gravarIndividual(evento, individual)).toList();
+        }
+    }
+
+    private static <T> CompletableFuture<Void> gravarIndividual(T evento, Consumer<T> individual) {
+        try {
+            individual.accept(evento);
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void confirmar(List<Message> mensagens, List<CompletableFuture<Void>> envios, Channel channel) {
+        int falhas = 0;
+        for (int i = 0; i < mensagens.size(); i++) {
+            long deliveryTag = mensagens.get(i).getMessageProperties().getDeliveryTag();
+            try {
+                envios.get(i).join();
+                channel.basicAck(deliveryTag, false);
+            } catch (CompletionException e) {
+                falhas++;
+                logger.error("Erro ao registrar notificação do lote (deliveryTag {}): {}", deliveryTag, e.getCause().getMessage());
+                encaminharParaRetentativa(mensagens.get(i), e.getCause(), channel, deliveryTag);
+            } catch (IOException e) {
+                logger.error("Erro ao confirmar mensagem (deliveryTag {}): {}", deliveryTag, e.getMessage());
+            }
+        }
+        logger.info("Lote concluído: {} confirmada(s), {} encaminhada(s) para retentativa", mensagens.size() - falhas, falhas);
+    }
+
+    private void encaminharParaRetentativa(Message mensagem, Throwable erro, Channel channel, long deliveryTag) {
+        try {
+            retentativaService.encaminhar(mensagem, erro);
+            channel.basicAck(deliveryTag, false);
+        } catch (Exception e) {
+            // Sem conseguir republicar, a mensagem volta para a fila original
+            logger.error("Erro ao encaminhar mensagem para retentativa (deliveryTag {}): {}", deliveryTag, e.getMessage());
+            nack(channel, deliveryTag);
+        }
+    }
+
+    private void nack(Channel channel, long deliveryTag) {
+        try {
+            channel.basicNack(deliveryTag, false, true);
+        } catch (IOException e) {
+            logger.error("Erro ao devolver mensagem (deliveryTag {}): {}", deliveryTag, e.getMessage());
+        }
+    }
+}
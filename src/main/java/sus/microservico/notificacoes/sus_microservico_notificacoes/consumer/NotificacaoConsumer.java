@@ -1,58 +1,69 @@
 package sus.microservico.notificacoes.sus_microservico_notificacoes.consumer;
 
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.config.RabbitMQConfig;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.event.NotificacaoCirurgiaAtualizadaEvent;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.event.NotificacaoCirurgiaCanceladaEvent;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.event.NotificacaoCirurgiaCriadaEvent;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.LimitesConcorrencia;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.NotificacaoMetricas;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.service.NotificacaoService;
 
 @Component
+@ConditionalOnProperty(name = "notificacao.rabbit.batch.habilitado", havingValue = "false", matchIfMissing = true)
 @RequiredArgsConstructor
 public class NotificacaoConsumer {
     
     private final Logger logger = LoggerFactory.getLogger(NotificacaoConsumer.class);
     private final NotificacaoService notificacaoService;
+    private final NotificacaoMetricas metricas;
+    private final LimitesConcorrencia limites;
 
-    @RabbitListener(queues = RabbitMQConfig.CIRURGIA_CRIADA_QUEUE)
+    @RabbitListener(id = RabbitMQConfig.CRIADA_LISTENER_ID, queues = RabbitMQConfig.CIRURGIA_CRIADA_QUEUE,
+            containerFactory = RabbitMQConfig.CRIADA_CONTAINER_FACTORY)
     public void receberNotificacaoCirurgiaCriada(NotificacaoCirurgiaCriadaEvent evento) {
+        Timer.Sample amostra = metricas.iniciar();
         try {
-            logger.info("==========================================================");
-            logger.info("EVENTO DE NOTIFICAÇÃO RECEBIDO (CONSUMER)");
-            logger.info("Cirurgia ID: {}", evento.cirurgiaId());
-            logger.info("Paciente ID: {}", evento.pacienteId());
-            logger.info("Médico ID: {}", evento.medicoId());
-            
-            notificacaoService.processarNotificacaoCriacao(evento);
-            
-            logger.info("==========================================================");
-            logger.info("NOTIFICAÇÃO PROCESSADA COM SUCESSO");
-            logger.info("==========================================================");
+            // O resultado do evento é registrado pelo NotificacaoService em uma única linha
+            limites.banco().executar(() -> notificacaoService.processarNotificacaoCriacao(evento));
+            metricas.registrarConsumo(amostra, "criada", true);
         } catch (Exception e) {
-            logger.error("==========================================================");
-            logger.error("ERRO NO CONSUMER DE NOTIFICAÇÃO");
-            logger.error("Cirurgia ID: {}", evento.cirurgiaId());
-            logger.error("Paciente ID: {}", evento.pacienteId());
-            logger.error("Erro: {}", e.getMessage());
-            logger.error("Stack trace:", e);
-            logger.error("==========================================================");
+            metricas.registrarConsumo(amostra, "criada", false);
+            logger.error("Erro ao processar evento de criação da cirurgia {} (paciente {}): {}",
+                    evento.cirurgiaId(), evento.pacienteId(), e.getMessage(), e);
             throw e;
         }
     }
 
-    @RabbitListener(queues = RabbitMQConfig.CIRURGIA_ATUALIZADA_QUEUE)
+    @RabbitListener(id = RabbitMQConfig.ATUALIZADA_LISTENER_ID, queues = RabbitMQConfig.CIRURGIA_ATUALIZADA_QUEUE,
+            containerFactory = RabbitMQConfig.ATUALIZADA_CONTAINER_FACTORY)
     public void receberNotificacaoCirurgiaAtualizada(NotificacaoCirurgiaAtualizadaEvent evento) {
-        logger.info("Evento de notificação de atualização recebido para cirurgia {}", evento.cirurgiaId());
-        notificacaoService.processarNotificacaoAtualizacao(evento);
+        Timer.Sample amostra = metricas.iniciar();
+        boolean sucesso = false;
+        try {
+            limites.banco().executar(() -> notificacaoService.processarNotificacaoAtualizacao(evento));
+            sucesso = true;
+        } finally {
+            metricas.registrarConsumo(amostra, "atualizada", sucesso);
+        }
     }
 
-    @RabbitListener(queues = RabbitMQConfig.CIRURGIA_CANCELADA_QUEUE)
+    @RabbitListener(id = RabbitMQConfig.CANCELADA_LISTENER_ID, queues = RabbitMQConfig.CIRURGIA_CANCELADA_QUEUE,
+            containerFactory = RabbitMQConfig.CANCELADA_CONTAINER_FACTORY)
     public void receberNotificacaoCirurgiaCancelada(NotificacaoCirurgiaCanceladaEvent evento) {
-        logger.info("Evento de notificação de cancelamento recebido para cirurgia {}", evento.cirurgiaId());
-        notificacaoService.processarNotificacaoCancelamento(evento);
+        Timer.Sample amostra = metricas.iniciar();
+        boolean sucesso = false;
+        try {
+            limites.banco().executar(() -> notificacaoService.processarNotificacaoCancelamento(evento));
+            sucesso = true;
+        } finally {
+            metricas.registrarConsumo(amostra, "cancelada", sucesso);
+        }
     }
 }
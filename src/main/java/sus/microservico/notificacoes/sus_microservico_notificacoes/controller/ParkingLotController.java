@@ -0,0 +1,36 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.controller.dto.ParkingLotDTO;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.controller.dto.ReprocessamentoDTO;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.RetentativaMensagemService;
+
+@RestController
+@RequestMapping("api/v1/notificacoes/parking-lot")
+@RequiredArgsConstructor
+public class ParkingLotController {
+
+    private static final int LIMITE_MAXIMO = 1000;
+
+    private final Logger logger = LoggerFactory.getLogger(ParkingLotController.class);
+    private final RetentativaMensagemService retentativaService;
+
+    @GetMapping
+    public ResponseEntity<ParkingLotDTO> consultar() {
+        this.logger.info("GET -> /api/v1/notificacoes/parking-lot");
+        return ResponseEntity.ok(new ParkingLotDTO(retentativaService.contarParkingLot()));
+    }
+
+    @PostMapping("reprocessar")
+    public ResponseEntity<ReprocessamentoDTO> reprocessar(
+            @RequestParam(value = "limite", defaultValue = "100") int limite
+    ) {
+        this.logger.info("POST -> /api/v1/notificacoes/parking-lot/reprocessar?limite={}", limite);
+        int reprocessadas = retentativaService.reprocessarParkingLot(Math.max(1, Math.min(limite, LIMITE_MAXIMO)));
+        return ResponseEntity.ok(new ReprocessamentoDTO(reprocessadas, retentativaService.contarParkingLot()));
+    }
+}
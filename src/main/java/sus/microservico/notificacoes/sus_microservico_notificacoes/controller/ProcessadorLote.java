@@ -0,0 +1,91 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.controller.dto.ResultadoLoteDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Divide as requisições em lote em blocos de {@code notificacao.tarefas.lote.tamanho-bloco} itens.
+ * Cada bloco é processado em uma transação própria pelo service. Corpos NDJSON são lidos
+ * linha a linha, sem carregar a requisição inteira em memória.
+ */
+@Component
+public class ProcessadorLote {
+
+    private final Logger logger = LoggerFactory.getLogger(ProcessadorLote.class);
+    private final ObjectMapper objectMapper;
+    private final int tamanhoBloco;
+
+    public ProcessadorLote(ObjectMapper objectMapper,
+                           @Value("${notificacao.tarefas.lote.tamanho-bloco:500}") int tamanhoBloco) {
+        this.objectMapper = objectMapper;
+        this.tamanhoBloco = tamanhoBloco;
+    }
+
+    /**
+     * @param processarBloco recebe os itens do bloco e o índice do primeiro item na requisição
+     */
+    public <T> List<ResultadoLoteDTO> processar(List<T> itens,
+                                                BiFunction<List<T>, Integer, List<ResultadoLoteDTO>> processarBloco) {
+        List<ResultadoLoteDTO> resultados = new ArrayList<>(itens.size());
+        for (int inicio = 0; inicio < itens.size(); inicio += tamanhoBloco) {
+            List<T> bloco = itens.subList(inicio, Math.min(itens.size(), inicio + tamanhoBloco));
+            resultados.addAll(processarBloco.apply(bloco, inicio));
+        }
+        return resultados;
+    }
+
+    /**
+     * Lê um corpo NDJSON (um objeto JSON por linha). Linhas que não puderem ser convertidas
+     * chegam ao service como {@code null} e são reportadas como falha no item correspondente.
+     */
+    public <T> List<ResultadoLoteDTO> processarNdjson(InputStream corpo, Class<T> tipo,
+                                                      BiFunction<List<T>, Integer, List<ResultadoLoteDTO>> processarBloco)
+            throws IOException {
+        List<ResultadoLoteDTO> resultados = new ArrayList<>();
+        List<T> bloco = new ArrayList<>(tamanhoBloco);
+        int inicioBloco = 0;
+        
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(corpo, StandardCharsets.UTF_8))) {
+            String linha;
+            while ((linha = reader.readLine()) != null) {
+                if (linha.isBlank()) {
+                    continue;
+                }
+                bloco.add(converter(linha, tipo, inicioBloco + bloco.size()));
+                if (bloco.size() == tamanhoBloco) {
+                    resultados.addAll(processarBloco.apply(bloco, inicioBloco));
+                    inicioBloco += bloco.size();
+                    bloco = new ArrayList<>(tamanhoBloco);
+                }
+            }
+        }
+        
+        if (!bloco.isEmpty()) {
+            resultados.addAll(processarBloco.apply(bloco, inicioBloco));
+        }
+        return resultados;
+    }
+
+    private <T> T converter(String linha, Class<T> tipo, int indice) {
+        try {
+            return objectMapper.readValue(linha, tipo);
+        } catch (JsonProcessingException e) {
+            logger.warn("Linha {} do lote NDJSON inválida: {}", indice, e.getOriginalMessage());
+            return null;
+        }
+    }
+}
@@ -5,12 +5,20 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import sus.microservico.notificacoes.sus_microservico_notificacoes.controller.dto.BuscarTarefaDTO;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.controller.dto.AtribuicaoTarefaDTO;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.controller.dto.PaginaTarefasDTO;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.controller.dto.ResultadoLoteDTO;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.controller.dto.TarefaDTO;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.StatusTarefa;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.FiltroTarefas;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.service.TarefaAssistenteSocialService;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -19,16 +27,40 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class TarefaAssistenteSocialController {
 
+    private static final int LIMITE_MAXIMO = 1000;
+
     private final Logger logger = LoggerFactory.getLogger(TarefaAssistenteSocialController.class);
     private final TarefaAssistenteSocialService tarefaService;
+    private final ProcessadorLote processadorLote;
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PaginaTarefasDTO> buscarTarefas(
+            @RequestParam(value = "status", defaultValue = "PENDENTE") String status,
+            @RequestParam(value = "assistenteSocialId", required = false) UUID assistenteSocialId,
+            @RequestParam(value = "pacienteId", required = false) UUID pacienteId,
+            @RequestParam(value = "cirurgiaId", required = false) UUID cirurgiaId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limite", defaultValue = "100") int limite
+    ) {
+        this.logger.info("GET -> /api/v1/tarefas?status={}&cursor={}&limite={}", status, cursor, limite);
+        FiltroTarefas filtro = new FiltroTarefas(StatusTarefa.fromValue(status), assistenteSocialId, pacienteId, cirurgiaId);
+        int limiteValido = Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+        return ResponseEntity.ok(tarefaService.buscarTarefas(filtro, cursor, limiteValido));
+    }
 
-    @GetMapping
-    public ResponseEntity<List<BuscarTarefaDTO>> buscarTarefasPorStatus(
-            @RequestParam(value = "status", defaultValue = "PENDENTE") String status
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarTarefas(
+            @RequestParam(value = "status", defaultValue = "PENDENTE") String status,
+            @RequestParam(value = "assistenteSocialId", required = false) UUID assistenteSocialId,
+            @RequestParam(value = "pacienteId", required = false) UUID pacienteId,
+            @RequestParam(value = "cirurgiaId", required = false) UUID cirurgiaId
     ) {
-        this.logger.info("GET -> /api/v1/tarefas?status={}", status);
-        List<BuscarTarefaDTO> tarefas = tarefaService.buscarTarefasPorStatus(status);
-        return ResponseEntity.ok(tarefas);
+        this.logger.info("GET -> /api/v1/tarefas?status={} (NDJSON)", status);
+        FiltroTarefas filtro = new FiltroTarefas(StatusTarefa.fromValue(status), assistenteSocialId, pacienteId, cirurgiaId);
+        StreamingResponseBody corpo = saida -> tarefaService.exportarTarefas(filtro, saida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(corpo);
     }
 
     @PostMapping
@@ -54,4 +86,40 @@ public class TarefaAssistenteSocialController {
         tarefaService.concluirTarefa(id);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping(value = "lote", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ResultadoLoteDTO>> criarTarefasEmLote(@RequestBody List<TarefaDTO> dtos) {
+        this.logger.info("POST -> /api/v1/tarefas/lote ({} itens)", dtos.size());
+        return ResponseEntity.ok(processadorLote.processar(dtos, tarefaService::criarTarefasEmLote));
+    }
+
+    @PostMapping(value = "lote", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<List<ResultadoLoteDTO>> criarTarefasEmLoteNdjson(InputStream corpo) throws IOException {
+        this.logger.info("POST -> /api/v1/tarefas/lote (NDJSON)");
+        return ResponseEntity.ok(processadorLote.processarNdjson(corpo, TarefaDTO.class, tarefaService::criarTarefasEmLote));
+    }
+
+    @PutMapping(value = "atribuir-lote", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ResultadoLoteDTO>> atribuirTarefasEmLote(@RequestBody List<AtribuicaoTarefaDTO> atribuicoes) {
+        this.logger.info("PUT -> /api/v1/tarefas/atribuir-lote ({} itens)", atribuicoes.size());
+        return ResponseEntity.ok(processadorLote.processar(atribuicoes, tarefaService::atribuirTarefasEmLote));
+    }
+
+    @PutMapping(value = "atribuir-lote", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<List<ResultadoLoteDTO>> atribuirTarefasEmLoteNdjson(InputStream corpo) throws IOException {
+        this.logger.info("PUT -> /api/v1/tarefas/atribuir-lote (NDJSON)");
+        return ResponseEntity.ok(processadorLote.processarNdjson(corpo, AtribuicaoTarefaDTO.class, tarefaService::atribuirTarefasEmLote));
+    }
+
+    @PutMapping(value = "concluir-lote", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ResultadoLoteDTO>> concluirTarefasEmLote(@RequestBody List<UUID> ids) {
+        this.logger.info("PUT -> /api/v1/tarefas/concluir-lote ({} itens)", ids.size());
+        return ResponseEntity.ok(processadorLote.processar(ids, tarefaService::concluirTarefasEmLote));
+    }
+
+    @PutMapping(value = "concluir-lote", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<List<ResultadoLoteDTO>> concluirTarefasEmLoteNdjson(InputStream corpo) throws IOException {
+        this.logger.info("PUT -> /api/v1/tarefas/concluir-lote (NDJSON)");
+        return ResponseEntity.ok(processadorLote.processarNdjson(corpo, UUID.class, tarefaService::concluirTarefasEmLote));
+    }
 }
@@ -0,0 +1,14 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.controller.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+public record AtribuicaoTarefaDTO(
+        @NotNull
+        UUID tarefaId,
+        
+        @NotNull
+        UUID assistenteSocialId
+) {
+}
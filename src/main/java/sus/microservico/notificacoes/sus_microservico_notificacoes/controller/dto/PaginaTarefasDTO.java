@@ -0,0 +1,9 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.controller.dto;
+
+import java.util.List;
+
+public record PaginaTarefasDTO(
+        List<BuscarTarefaDTO> tarefas,
+        String proximoCursor
+) {
+}
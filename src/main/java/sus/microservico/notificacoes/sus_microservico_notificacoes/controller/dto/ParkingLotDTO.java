@@ -0,0 +1,6 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.controller.dto;
+
+public record ParkingLotDTO(
+        long mensagens
+) {
+}
@@ -0,0 +1,7 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.controller.dto;
+
+public record ReprocessamentoDTO(
+        int reprocessadas,
+        long restantes
+) {
+}
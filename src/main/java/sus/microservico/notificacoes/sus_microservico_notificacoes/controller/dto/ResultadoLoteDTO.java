@@ -0,0 +1,18 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.controller.dto;
+
+import java.util.UUID;
+
+public record ResultadoLoteDTO(
+        int indice,
+        UUID id,
+        boolean sucesso,
+        String erro
+) {
+    public static ResultadoLoteDTO sucesso(int indice, UUID id) {
+        return new ResultadoLoteDTO(indice, id, true, null);
+    }
+
+    public static ResultadoLoteDTO falha(int indice, UUID id, String erro) {
+        return new ResultadoLoteDTO(indice, id, false, erro);
+    }
+}
@@ -0,0 +1,13 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.event;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Publicado pelo serviço principal quando um paciente, assistente social ou médico é alterado;
+ * o tipo de cadastro vem na routing key. Sem {@code id}, todo o cadastro é invalidado.
+ */
+public record CadastroAtualizadoEvent(
+        UUID id
+) implements Serializable {
+}
@@ -11,6 +11,7 @@ public record NotificacaoCirurgiaCriadaEvent(
         UUID medicoId,
         LocalDate dataCirurgia,
         LocalTime horaCirurgia,
-        String local
-) implements Serializable {
+        String local,
+        UUID eventoId
+) implements NotificacaoCirurgiaEvent, Serializable {
 }
@@ -0,0 +1,26 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.event;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+public interface NotificacaoCirurgiaEvent {
+
+    UUID cirurgiaId();
+
+    UUID pacienteId();
+
+    UUID medicoId();
+
+    LocalDate dataCirurgia();
+
+    LocalTime horaCirurgia();
+
+    String local();
+
+    /**
+     * Identificador da publicação, igual em todas as reentregas do mesmo evento. Publicadores
+     * antigos não o enviam.
+     */
+    UUID eventoId();
+}
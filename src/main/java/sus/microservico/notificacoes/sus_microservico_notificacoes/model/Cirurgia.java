@@ -2,6 +2,7 @@ package sus.microservico.notificacoes.sus_microservico_notificacoes.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.StatusCirurgia;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -26,6 +27,10 @@ public class Cirurgia {
     
     private String local;
     
+    @Enumerated(EnumType.STRING)
+    private StatusCirurgia status;
+    
+    /** Legado: os lembretes agora são controlados por horizonte em {@code tb_lembrete_cirurgia}. */
     @Column(nullable = false)
     private Boolean lembreteEnviado = false;
 }
@@ -0,0 +1,75 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.CanalNotificacao;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.StatusEntrega;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.TipoNotificacao;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Outbox de notificações: uma linha por (evento, destinatário, canal). As entregas de uma
+ * mesma notificação compartilham o {@code grupoId}.
+ */
+@Entity
+@Table(name = "tb_entrega_notificacao", indexes = {
+        @Index(name = "idx_entrega_status_proxima", columnList = "status, proxima_tentativa"),
+        @Index(name = "idx_entrega_status_prioridade", columnList = "status, prioridade, proxima_tentativa"),
+        @Index(name = "idx_entrega_grupo", columnList = "grupo_id")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EntregaNotificacao {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @Column(nullable = false)
+    private UUID grupoId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TipoNotificacao tipo;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CanalNotificacao canal;
+    
+    @Column(nullable = false)
+    private String destinatario;
+    
+    private UUID pacienteId;
+    private UUID cirurgiaId;
+    private String assunto;
+    
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String mensagem;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StatusEntrega status;
+    
+    private int tentativas;
+    
+    /** De 0 a 9, calculada por {@code PrioridadeNotificacao}; define a faixa do outbox e a ordem de envio. */
+    @ColumnDefault("0")
+    private int prioridade;
+    
+    @Column(nullable = false)
+    private LocalDateTime proximaTentativa;
+    
+    @Column(length = 500)
+    private String ultimoErro;
+    
+    /** Marcado na entrega que criou a tarefa de fallback do grupo, para que ela seja criada uma única vez. */
+    private boolean fallbackRegistrado;
+    
+    private LocalDateTime dataCriacao;
+    private LocalDateTime dataEnvio;
+}
@@ -0,0 +1,33 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.TipoNotificacao;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Eventos já processados, usados para descartar reentregas do RabbitMQ. A chave é o
+ * SHA-256 de (tipo, cirurgia, payload).
+ */
+@Entity
+@Table(name = "tb_evento_processado", indexes = {
+        @Index(name = "idx_evento_processado_data", columnList = "data_processamento")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventoProcessado {
+    @Id
+    @Column(length = 64)
+    private String chave;
+    
+    @Enumerated(EnumType.STRING)
+    private TipoNotificacao tipo;
+    
+    private UUID cirurgiaId;
+    private LocalDateTime dataProcessamento;
+}
@@ -0,0 +1,29 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease de um job agendado: somente a réplica registrada em {@code instancia} o executa até
+ * {@code expiraEm}.
+ */
+@Entity
+@Table(name = "tb_lease_agendamento")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LeaseAgendamento {
+    @Id
+    @Column(length = 100)
+    private String nome;
+    
+    @Column(nullable = false)
+    private String instancia;
+    
+    @Column(nullable = false)
+    private LocalDateTime expiraEm;
+}
@@ -0,0 +1,47 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.StatusLembrete;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Um lembrete de cirurgia por horizonte de antecedência (ex.: 7 dias, 2 horas). Um lembrete
+ * {@code AGENDADO} está na roda de temporização de uma réplica até {@code reservadoAte}; se ela
+ * cair, outra o reassume.
+ */
+@Entity
+@Table(name = "tb_lembrete_cirurgia",
+        uniqueConstraints = @UniqueConstraint(name = "uk_lembrete_cirurgia_antecedencia", columnNames = {"cirurgia_id", "antecedencia_minutos"}),
+        indexes = @Index(name = "idx_lembrete_status_envio", columnList = "status, envio_previsto"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LembreteCirurgia {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @Column(nullable = false)
+    private UUID cirurgiaId;
+    
+    private int antecedenciaMinutos;
+    
+    @Column(nullable = false)
+    private LocalDateTime envioPrevisto;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StatusLembrete status;
+    
+    private String instancia;
+    private LocalDateTime reservadoAte;
+    private int tentativas;
+    
+    private LocalDateTime dataCriacao;
+    private LocalDateTime dataEnvio;
+}
@@ -10,7 +10,10 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "tb_tarefa_assistente_social")
+@Table(name = "tb_tarefa_assistente_social", indexes = {
+        @Index(name = "idx_tarefa_cirurgia_status", columnList = "cirurgia_id, status"),
+        @Index(name = "idx_tarefa_status_criacao", columnList = "status, data_criacao, id")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
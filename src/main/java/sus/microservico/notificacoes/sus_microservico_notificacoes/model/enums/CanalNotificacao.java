@@ -0,0 +1,6 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums;
+
+public enum CanalNotificacao {
+    EMAIL,
+    SMS
+}
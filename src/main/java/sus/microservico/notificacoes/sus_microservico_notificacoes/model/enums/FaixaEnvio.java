@@ -0,0 +1,15 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums;
+
+/**
+ * Faixa do outbox em que uma entrega é enviada. Cada faixa tem worker e threads próprios por
+ * canal, de modo que um acúmulo na faixa normal não atrasa as urgentes.
+ */
+public enum FaixaEnvio {
+    URGENTE,
+    NORMAL;
+
+    /** Valor usado como tag nas métricas. */
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,8 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums;
+
+public enum ResultadoEnvio {
+    ENVIADO,
+    FALHA,
+    /** Canal indisponível (disjuntor aberto ou executor cheio): a entrega volta ao outbox sem contar tentativa. */
+    ADIADO
+}
@@ -0,0 +1,9 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums;
+
+public enum StatusEntrega {
+    PENDENTE,
+    ENVIADA,
+    FALHA,
+    /** Atualização descartada porque outra mais recente (ou um cancelamento) chegou antes do envio. */
+    SUBSTITUIDA
+}
@@ -0,0 +1,7 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums;
+
+public enum StatusLembrete {
+    PENDENTE,
+    AGENDADO,
+    ENVIADO
+}
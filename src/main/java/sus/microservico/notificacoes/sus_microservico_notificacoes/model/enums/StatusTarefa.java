@@ -2,11 +2,16 @@ package sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 
+import java.util.Set;
+
 public enum StatusTarefa {
     PENDENTE,
     EM_ANDAMENTO,
     CONCLUIDA;
 
+    /** Status de tarefas que ainda exigem ação da assistente social. */
+    public static final Set<StatusTarefa> ATIVOS = Set.of(PENDENTE, EM_ANDAMENTO);
+
     @JsonCreator
     public static StatusTarefa fromValue(String value) {
         return StatusTarefa.valueOf(value.toUpperCase());
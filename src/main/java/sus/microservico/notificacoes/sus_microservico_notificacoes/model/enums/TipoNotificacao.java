@@ -0,0 +1,22 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums;
+
+public enum TipoNotificacao {
+    CRIACAO,
+    ATUALIZACAO,
+    CANCELAMENTO,
+    LEMBRETE_PACIENTE,
+    LEMBRETE_ASSISTENTE_SOCIAL;
+
+    /**
+     * Indica se a falha em todos os canais deve gerar tarefa para a assistente social.
+     * Lembretes não geram: a tarefa criada no agendamento já cobre o paciente.
+     */
+    public boolean geraTarefaAssistenteSocial() {
+        return this == CRIACAO || this == ATUALIZACAO || this == CANCELAMENTO;
+    }
+
+    /** Valor usado como tag nas métricas. */
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
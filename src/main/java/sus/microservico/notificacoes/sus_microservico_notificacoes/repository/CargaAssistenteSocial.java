@@ -0,0 +1,13 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.repository;
+
+import java.util.UUID;
+
+/**
+ * Projeção com a quantidade de tarefas ativas de uma assistente social.
+ */
+public interface CargaAssistenteSocial {
+
+    UUID getAssistenteSocialId();
+
+    long getTarefasAtivas();
+}
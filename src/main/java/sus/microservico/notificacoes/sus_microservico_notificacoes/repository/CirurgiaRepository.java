@@ -1,8 +1,12 @@
 package sus.microservico.notificacoes.sus_microservico_notificacoes.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.model.Cirurgia;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.StatusCirurgia;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -10,5 +14,19 @@ import java.util.UUID;
 
 @Repository
 public interface CirurgiaRepository extends JpaRepository<Cirurgia, UUID> {
-    List<Cirurgia> findByDataCirurgiaAndLembreteEnviadoFalse(LocalDate dataCirurgia);
+
+    /**
+     * Página de cirurgias agendadas entre as datas que ainda não têm lembrete para a
+     * antecedência, paginada por chave ({@code id > ultimoId}).
+     */
+    @Query("SELECT c FROM Cirurgia c WHERE c.dataCirurgia BETWEEN :inicio AND :fim " +
+           "AND (c.status IS NULL OR c.status <> :cancelada) AND c.id > :ultimoId " +
+           "AND NOT EXISTS (SELECT 1 FROM LembreteCirurgia l WHERE l.cirurgiaId = c.id AND l.antecedenciaMinutos = :antecedencia) " +
+           "ORDER BY c.id")
+    List<Cirurgia> buscarSemLembrete(@Param("inicio") LocalDate inicio,
+                                     @Param("fim") LocalDate fim,
+                                     @Param("antecedencia") int antecedenciaMinutos,
+                                     @Param("cancelada") StatusCirurgia cancelada,
+                                     @Param("ultimoId") UUID ultimoId,
+                                     Limit limite);
 }
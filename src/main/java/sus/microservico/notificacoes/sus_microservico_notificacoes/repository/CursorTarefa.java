@@ -0,0 +1,35 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posição da última tarefa retornada, na ordem {@code (dataCriacao, id)}. Trafega para o
+ * cliente como um token opaco em Base64 URL-safe.
+ */
+public record CursorTarefa(
+        LocalDateTime dataCriacao,
+        UUID id
+) {
+    private static final String SEPARADOR = "|";
+
+    public String codificar() {
+        String valor = dataCriacao + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorTarefa decodificar(String token) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = valor.indexOf(SEPARADOR);
+            return new CursorTarefa(
+                    LocalDateTime.parse(valor.substring(0, separador)),
+                    UUID.fromString(valor.substring(separador + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.EntregaNotificacao;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.StatusEntrega;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.TipoNotificacao;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface EntregaNotificacaoRepository extends JpaRepository<EntregaNotificacao, UUID> {
+
+    /**
+     * Bloqueia um lote de entregas vencidas com prioridade entre {@code minima} e {@code maxima},
+     * as mais prioritárias primeiro. Linhas já bloqueadas por outra réplica são puladas, então
+     * várias instâncias podem consumir o outbox sem enviar em duplicidade.
+     */
+    @Query(value = """
+            SELECT * FROM tb_entrega_notificacao
+            WHERE status = 'PENDENTE' AND prioridade BETWEEN :minima AND :maxima AND proxima_tentativa <= :agora
+            ORDER BY prioridade DESC, proxima_tentativa
+            LIMIT :limite
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<EntregaNotificacao> bloquearPendentes(@Param("agora") LocalDateTime agora,
+                                               @Param("minima") int minima,
+                                               @Param("maxima") int maxima,
+                                               @Param("limite") int limite);
+
+    /**
+     * Marca o fallback do grupo somente se todas as entregas falharam e nenhuma réplica o
+     * marcou antes. Retorna o número de linhas afetadas: zero indica que não há nada a fazer.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE tb_entrega_notificacao SET fallback_registrado = true
+            WHERE grupo_id = :grupoId
+              AND fallback_registrado = false
+              AND NOT EXISTS (SELECT 1 FROM tb_entrega_notificacao e
+                              WHERE e.grupo_id = :grupoId AND e.status <> 'FALHA')
+            """, nativeQuery = true)
+    int registrarFallback(@Param("grupoId") UUID grupoId);
+
+    /**
+     * Descarta as atualizações ainda não enviadas de uma cirurgia.
+     */
+    @Modifying
+    @Query("""
+            UPDATE EntregaNotificacao e SET e.status = :substituida
+            WHERE e.cirurgiaId = :cirurgiaId AND e.tipo = :tipo AND e.status = :pendente
+            """)
+    int substituirPendentes(@Param("cirurgiaId") UUID cirurgiaId,
+                            @Param("tipo") TipoNotificacao tipo,
+                            @Param("pendente") StatusEntrega pendente,
+                            @Param("substituida") StatusEntrega substituida);
+
+    @Modifying
+    @Query("DELETE FROM EntregaNotificacao e WHERE e.status IN :status AND e.dataCriacao < :limite")
+    int removerFinalizadasAntesDe(@Param("status") Collection<StatusEntrega> status, @Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,31 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.EventoProcessado;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface EventoProcessadoRepository extends JpaRepository<EventoProcessado, String> {
+
+    /**
+     * @return 1 se o evento foi registrado agora, 0 se já havia sido processado
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO tb_evento_processado (chave, tipo, cirurgia_id, data_processamento)
+            VALUES (:chave, :tipo, :cirurgiaId, :dataProcessamento)
+            ON CONFLICT (chave) DO NOTHING
+            """, nativeQuery = true)
+    int registrar(@Param("chave") String chave,
+                  @Param("tipo") String tipo,
+                  @Param("cirurgiaId") UUID cirurgiaId,
+                  @Param("dataProcessamento") LocalDateTime dataProcessamento);
+
+    @Modifying
+    @Query("DELETE FROM EventoProcessado e WHERE e.dataProcessamento < :limite")
+    int removerAntesDe(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,16 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.repository;
+
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.StatusTarefa;
+
+import java.util.UUID;
+
+/**
+ * Filtros opcionais da listagem de tarefas; campos {@code null} não restringem a busca.
+ */
+public record FiltroTarefas(
+        StatusTarefa status,
+        UUID assistenteSocialId,
+        UUID pacienteId,
+        UUID cirurgiaId
+) {
+}
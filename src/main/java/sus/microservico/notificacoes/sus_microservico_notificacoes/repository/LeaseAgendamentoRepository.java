@@ -0,0 +1,30 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.LeaseAgendamento;
+
+import java.time.LocalDateTime;
+
+public interface LeaseAgendamentoRepository extends JpaRepository<LeaseAgendamento, String> {
+
+    /**
+     * Adquire (ou renova) o lease em um único comando: só sobrescreve um lease expirado ou da
+     * própria instância. Retorna 1 se a instância passou a deter o lease.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO tb_lease_agendamento (nome, instancia, expira_em)
+            VALUES (:nome, :instancia, :expiraEm)
+            ON CONFLICT (nome) DO UPDATE SET instancia = EXCLUDED.instancia, expira_em = EXCLUDED.expira_em
+            WHERE tb_lease_agendamento.expira_em < :agora OR tb_lease_agendamento.instancia = EXCLUDED.instancia
+            """, nativeQuery = true)
+    int adquirir(@Param("nome") String nome,
+                 @Param("instancia") String instancia,
+                 @Param("agora") LocalDateTime agora,
+                 @Param("expiraEm") LocalDateTime expiraEm);
+}
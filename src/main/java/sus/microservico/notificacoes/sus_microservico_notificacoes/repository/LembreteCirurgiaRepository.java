@@ -0,0 +1,64 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.LembreteCirurgia;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.StatusLembrete;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface LembreteCirurgiaRepository extends JpaRepository<LembreteCirurgia, UUID> {
+
+    /**
+     * Bloqueia os lembretes que vencem até {@code ate}, além dos agendados por uma réplica cuja
+     * reserva expirou. Linhas já bloqueadas por outra réplica são puladas.
+     */
+    @Query(value = """
+            SELECT * FROM tb_lembrete_cirurgia
+            WHERE (status = 'PENDENTE' AND envio_previsto <= :ate)
+               OR (status = 'AGENDADO' AND reservado_ate < :agora)
+            ORDER BY envio_previsto
+            LIMIT :limite
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<LembreteCirurgia> bloquearProximos(@Param("ate") LocalDateTime ate,
+                                            @Param("agora") LocalDateTime agora,
+                                            @Param("limite") int limite);
+
+    /**
+     * Bloqueia os lembretes que ainda pertencem à instância; os que foram descartados ou
+     * reassumidos por outra réplica não são retornados.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM LembreteCirurgia l WHERE l.id IN :ids AND l.status = :agendado AND l.instancia = :instancia")
+    List<LembreteCirurgia> bloquearReservados(@Param("ids") Collection<UUID> ids,
+                                              @Param("agendado") StatusLembrete agendado,
+                                              @Param("instancia") String instancia);
+
+    @Modifying
+    @Query("""
+            UPDATE LembreteCirurgia l SET l.status = :pendente, l.instancia = null, l.reservadoAte = null
+            WHERE l.id IN :ids AND l.status = :agendado AND l.instancia = :instancia
+            """)
+    int liberar(@Param("ids") Collection<UUID> ids,
+                @Param("instancia") String instancia,
+                @Param("agendado") StatusLembrete agendado,
+                @Param("pendente") StatusLembrete pendente);
+
+    List<LembreteCirurgia> findByCirurgiaId(UUID cirurgiaId);
+
+    @Modifying
+    @Query("DELETE FROM LembreteCirurgia l WHERE l.cirurgiaId = :cirurgiaId AND l.status IN :status")
+    int removerDaCirurgia(@Param("cirurgiaId") UUID cirurgiaId, @Param("status") Collection<StatusLembrete> status);
+
+    @Modifying
+    @Query("DELETE FROM LembreteCirurgia l WHERE l.status = :enviado AND l.envioPrevisto < :limite")
+    int removerEnviadosAntesDe(@Param("enviado") StatusLembrete enviado, @Param("limite") LocalDateTime limite);
+}
@@ -7,14 +7,30 @@ import org.springframework.stereotype.Repository;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.model.TarefaAssistenteSocial;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.StatusTarefa;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface TarefaAssistenteSocialRepository extends JpaRepository<TarefaAssistenteSocial, UUID> {
-    List<TarefaAssistenteSocial> findByStatus(StatusTarefa status);
+public interface TarefaAssistenteSocialRepository extends JpaRepository<TarefaAssistenteSocial, UUID>,
+        TarefaAssistenteSocialRepositoryCustom {
     
     @Query("SELECT COUNT(t) FROM TarefaAssistenteSocial t WHERE t.assistenteSocialId = :assistenteSocialId " +
            "AND (t.status = 'PENDENTE' OR t.status = 'EM_ANDAMENTO')")
     long contarTarefasAtivasPorAssistente(@Param("assistenteSocialId") UUID assistenteSocialId);
+    
+    @Query("SELECT t.assistenteSocialId AS assistenteSocialId, COUNT(t) AS tarefasAtivas " +
+           "FROM TarefaAssistenteSocial t WHERE t.assistenteSocialId IS NOT NULL AND t.status IN :status " +
+           "GROUP BY t.assistenteSocialId")
+    List<CargaAssistenteSocial> contarTarefasPorAssistente(@Param("status") Collection<StatusTarefa> status);
+    
+    @Query("SELECT t FROM TarefaAssistenteSocial t WHERE t.cirurgiaId = :cirurgiaId " +
+           "AND t.status IN :status AND t.assistenteSocialId IS NOT NULL")
+    List<TarefaAssistenteSocial> buscarAtribuidasPorCirurgia(@Param("cirurgiaId") UUID cirurgiaId,
+                                                             @Param("status") Collection<StatusTarefa> status);
+    
+    @Query("SELECT t FROM TarefaAssistenteSocial t WHERE t.cirurgiaId IN :cirurgiaIds " +
+           "AND t.status IN :status AND t.assistenteSocialId IS NOT NULL")
+    List<TarefaAssistenteSocial> buscarAtribuidasPorCirurgias(@Param("cirurgiaIds") Collection<UUID> cirurgiaIds,
+                                                              @Param("status") Collection<StatusTarefa> status);
 }
@@ -0,0 +1,14 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.repository;
+
+import sus.microservico.notificacoes.sus_microservico_notificacoes.controller.dto.BuscarTarefaDTO;
+
+import java.util.List;
+
+public interface TarefaAssistenteSocialRepositoryCustom {
+
+    /**
+     * Busca uma página de tarefas já projetada em {@link BuscarTarefaDTO}, sem hidratar entidades,
+     * ordenada por {@code (dataCriacao, id)} e começando após o {@code cursor} (quando informado).
+     */
+    List<BuscarTarefaDTO> buscarPagina(FiltroTarefas filtro, CursorTarefa cursor, int limite);
+}
@@ -0,0 +1,67 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.controller.dto.BuscarTarefaDTO;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.TarefaAssistenteSocial;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class TarefaAssistenteSocialRepositoryCustomImpl implements TarefaAssistenteSocialRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BuscarTarefaDTO> buscarPagina(FiltroTarefas filtro, CursorTarefa cursor, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BuscarTarefaDTO> query = cb.createQuery(BuscarTarefaDTO.class);
+        Root<TarefaAssistenteSocial> tarefa = query.from(TarefaAssistenteSocial.class);
+        
+        query.select(cb.construct(BuscarTarefaDTO.class,
+                tarefa.get("id"),
+                tarefa.get("pacienteId"),
+                tarefa.get("cirurgiaId"),
+                tarefa.get("descricao"),
+                tarefa.get("status"),
+                tarefa.get("assistenteSocialId"),
+                tarefa.get("dataCriacao"),
+                tarefa.get("dataConclusao")));
+        
+        List<Predicate> condicoes = new ArrayList<>();
+        if (filtro.status() != null) {
+            condicoes.add(cb.equal(tarefa.get("status"), filtro.status()));
+        }
+        if (filtro.assistenteSocialId() != null) {
+            condicoes.add(cb.equal(tarefa.get("assistenteSocialId"), filtro.assistenteSocialId()));
+        }
+        if (filtro.pacienteId() != null) {
+            condicoes.add(cb.equal(tarefa.get("pacienteId"), filtro.pacienteId()));
+        }
+        if (filtro.cirurgiaId() != null) {
+            condicoes.add(cb.equal(tarefa.get("cirurgiaId"), filtro.cirurgiaId()));
+        }
+        if (cursor != null) {
+            // (dataCriacao, id) > (cursor.dataCriacao, cursor.id)
+            condicoes.add(cb.or(
+                    cb.greaterThan(tarefa.<LocalDateTime>get("dataCriacao"), cursor.dataCriacao()),
+                    cb.and(
+                            cb.equal(tarefa.get("dataCriacao"), cursor.dataCriacao()),
+                            cb.greaterThan(tarefa.<UUID>get("id"), cursor.id()))));
+        }
+        
+        query.where(condicoes.toArray(Predicate[]::new))
+                .orderBy(cb.asc(tarefa.get("dataCriacao")), cb.asc(tarefa.get("id")));
+        
+        return entityManager.createQuery(query)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+}
@@ -0,0 +1,77 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.config.NotificacaoRabbitProperties;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.config.RabbitMQConfig;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Modo adaptativo: ajusta o número de consumidores de cada fila de acordo com a quantidade
+ * de mensagens pendentes, sempre entre {@code consumidores} e {@code max-consumidores}.
+ */
+@Component
+@ConditionalOnProperty(name = "notificacao.rabbit.adaptativo.habilitado", havingValue = "true")
+public class AjusteConsumidoresScheduler {
+
+    private final Logger logger = LoggerFactory.getLogger(AjusteConsumidoresScheduler.class);
+    private final RabbitListenerEndpointRegistry registry;
+    private final AmqpAdmin amqpAdmin;
+    private final NotificacaoRabbitProperties rabbitProperties;
+    private final Map<String, Integer> consumidoresAtuais = new ConcurrentHashMap<>();
+
+    public AjusteConsumidoresScheduler(RabbitListenerEndpointRegistry registry,
+                                       AmqpAdmin amqpAdmin,
+                                       NotificacaoRabbitProperties rabbitProperties) {
+        this.registry = registry;
+        this.amqpAdmin = amqpAdmin;
+        this.rabbitProperties = rabbitProperties;
+    }
+
+    @Scheduled(fixedDelayString = "${notificacao.rabbit.adaptativo.intervalo:PT15S}")
+    public void ajustarConsumidores() {
+        ajustar(RabbitMQConfig.CRIADA_LISTENER_ID, RabbitMQConfig.CIRURGIA_CRIADA_QUEUE, rabbitProperties.getCriada());
+        ajustar(RabbitMQConfig.ATUALIZADA_LISTENER_ID, RabbitMQConfig.CIRURGIA_ATUALIZADA_QUEUE, rabbitProperties.getAtualizada());
+        ajustar(RabbitMQConfig.CANCELADA_LISTENER_ID, RabbitMQConfig.CIRURGIA_CANCELADA_QUEUE, rabbitProperties.getCancelada());
+    }
+
+    private void ajustar(String listenerId, String fila, NotificacaoRabbitProperties.Fila config) {
+        try {
+            MessageListenerContainer container = registry.getListenerContainer(listenerId);
+            if (!(container instanceof SimpleMessageListenerContainer simpleContainer)) {
+                return;
+            }
+            
+            QueueInformation info = amqpAdmin.getQueueInfo(fila);
+            if (info == null) {
+                return;
+            }
+            
+            int minimo = config.getConsumidores();
+            int maximo = Math.max(minimo, config.getMaxConsumidores());
+            int porConsumidor = Math.max(1, rabbitProperties.getAdaptativo().getMensagensPorConsumidor());
+            int desejado = (int) Math.ceil((double) info.getMessageCount() / porConsumidor);
+            desejado = Math.max(minimo, Math.min(maximo, desejado));
+            
+            Integer atual = consumidoresAtuais.getOrDefault(listenerId, minimo);
+            if (desejado != atual) {
+                simpleContainer.setConcurrentConsumers(desejado);
+                consumidoresAtuais.put(listenerId, desejado);
+                logger.info("Fila {} com {} mensagem(ns) pendente(s): consumidores {} -> {}",
+                        fila, info.getMessageCount(), atual, desejado);
+            }
+        } catch (Exception e) {
+            logger.warn("Erro ao ajustar consumidores da fila {}: {}", fila, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.scheduler;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.EntregaNotificacao;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.FaixaEnvio;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.ResultadoEnvio;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.EntregaNotificacaoService;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.NotificacaoDispatcher;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.NotificacaoService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Worker do outbox: reserva entregas pendentes em lotes ({@code FOR UPDATE SKIP LOCKED}),
+ * envia cada uma pelo executor do seu canal e grava os resultados. Cada réplica roda o seu
+ * worker; as linhas reservadas por uma não são vistas pelas outras. A faixa urgente tem um
+ * ciclo próprio e mais curto, que não espera os lotes da faixa normal terminarem.
+ * Os dois ciclos rodam em threads próprias, fora do pool de {@code spring.task.scheduling}:
+ * o planejamento de lembretes e a limpeza não atrasam o outbox, nem o outbox os atrasa.
+ */
+@Component
+public class EntregaNotificacaoScheduler {
+
+    private final Logger logger = LoggerFactory.getLogger(EntregaNotificacaoScheduler.class);
+    private final EntregaNotificacaoService entregaService;
+    private final NotificacaoDispatcher dispatcher;
+    private final NotificacaoService notificacaoService;
+    private final int tamanhoLote;
+    private final int tamanhoLoteUrgente;
+    private final Duration retencao;
+    private final Duration intervalo;
+    private final Duration intervaloUrgente;
+    private ScheduledExecutorService executor;
+
+    public EntregaNotificacaoScheduler(EntregaNotificacaoService entregaService,
+                                       NotificacaoDispatcher dispatcher,
+                                       NotificacaoService notificacaoService,
+                                       @Value("${notificacao.outbox.tamanho-lote:100}") int tamanhoLote,
+                                       @Value("${notificacao.outbox.urgente.tamanho-lote:20}") int tamanhoLoteUrgente,
+                                       @Value("${notificacao.outbox.retencao:P30D}") Duration retencao,
+                                       @Value("${notificacao.outbox.intervalo:PT1S}") Duration intervalo,
+                                       @Value("${notificacao.outbox.urgente.intervalo:PT200MS}") Duration intervaloUrgente) {
+        this.entregaService = entregaService;
+        this.dispatcher = dispatcher;
+        this.notificacaoService = notificacaoService;
+        this.tamanhoLote = tamanhoLote;
+        this.tamanhoLoteUrgente = tamanhoLoteUrgente;
+        this.retencao = retencao;
+        this.intervalo = intervalo;
+        this.intervaloUrgente = intervaloUrgente;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        executor = Executors.newScheduledThreadPool(2, Thread.ofPlatform().name("outbox-", 0).factory());
+        executor.scheduleWithFixedDelay(this::processarPendentes,
+                intervalo.toMillis(), intervalo.toMillis(), TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::processarUrgentes,
+                intervaloUrgente.toMillis(), intervaloUrgente.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void processarPendentes() {
+        processar(FaixaEnvio.NORMAL, tamanhoLote);
+    }
+
+    private void processarUrgentes() {
+        processar(FaixaEnvio.URGENTE, tamanhoLoteUrgente);
+    }
+
+    private void processar(FaixaEnvio faixa, int tamanho) {
+        try {
+            // Enquanto os lotes vierem cheios há backlog: segue reservando sem esperar o próximo ciclo
+            List<EntregaNotificacao> lote;
+            do {
+                lote = entregaService.reservar(faixa, tamanho);
+                if (!lote.isEmpty()) {
+                    processarLote(faixa, lote);
+                }
+            } while (lote.size() == tamanho);
+        } catch (Exception e) {
+            logger.error("Erro ao processar a faixa {} do outbox de notificações: {}", faixa, e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${notificacao.outbox.limpeza:0 30 3 * * *}")
+    public void removerFinalizadas() {
+        int removidas = entregaService.removerFinalizadasAntesDe(LocalDateTime.now().minus(retencao));
+        if (removidas > 0) {
+            logger.info("{} entrega(s) finalizada(s) removida(s) do outbox", removidas);
+        }
+    }
+
+    private void processarLote(FaixaEnvio faixa, List<EntregaNotificacao> lote) {
+        Map<UUID, String> erros = new ConcurrentHashMap<>();
+        Set<UUID> adiadas = ConcurrentHashMap.newKeySet();
+        List<CompletableFuture<Void>> envios = new ArrayList<>(lote.size());
+        
+        for (EntregaNotificacao entrega : lote) {
+            envios.add(dispatcher.enviar(entrega)
+                    .handle((resultado, erro) -> {
+                        if (erro != null) {
+                            erros.put(entrega.getId(), mensagemErro(erro));
+                        } else if (resultado == ResultadoEnvio.FALHA) {
+                            erros.put(entrega.getId(), "Provedor de " + entrega.getCanal() + " recusou o envio");
+                        } else if (resultado == ResultadoEnvio.ADIADO) {
+                            adiadas.add(entrega.getId());
+                        }
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(envios.toArray(CompletableFuture[]::new)).join();
+        
+        Set<UUID> ids = lote.stream().map(EntregaNotificacao::getId).collect(Collectors.toSet());
+        List<EntregaNotificacao> falhasDefinitivas = entregaService.registrarResultados(ids, erros, adiadas);
+        logger.info("Outbox ({}): {} entrega(s) processada(s), {} enviada(s), {} reagendada(s), {} adiada(s), {} com falha definitiva",
+                faixa, lote.size(), lote.size() - erros.size() - adiadas.size(), erros.size() - falhasDefinitivas.size(),
+                adiadas.size(), falhasDefinitivas.size());
+        
+        for (EntregaNotificacao entrega : falhasDefinitivas) {
+            try {
+                notificacaoService.tratarFalhaDefinitiva(entrega);
+            } catch (Exception e) {
+                logger.error("Erro ao tratar falha definitiva da entrega {}: {}", entrega.getId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private static String mensagemErro(Throwable erro) {
+        Throwable causa = erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
+        return causa.getMessage() != null ? causa.getMessage() : causa.getClass().getSimpleName();
+    }
+}
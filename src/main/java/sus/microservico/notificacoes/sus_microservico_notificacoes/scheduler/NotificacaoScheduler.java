@@ -1,25 +1,52 @@
 package sus.microservico.notificacoes.sus_microservico_notificacoes.scheduler;
 
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.model.AssistenteSocial;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.model.Cirurgia;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.LembreteCirurgia;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.model.Paciente;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.model.TarefaAssistenteSocial;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.StatusCirurgia;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.StatusTarefa;
-import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.AssistenteSocialRepository;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.TipoNotificacao;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.CirurgiaRepository;
-import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.PacienteRepository;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.TarefaAssistenteSocialRepository;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.CacheCadastros;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.LembreteCirurgiaService;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.NotificacaoMetricas;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.service.NotificacaoService;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.PrioridadeNotificacao;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.template.Formatos;
 
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Lembretes de cirurgia em vários horizontes de antecedência. Os lembretes que vencem em breve
+ * são carregados do banco aos poucos para uma roda de temporização em memória, que os dispara
+ * no horário previsto de cada um; o tráfego para SMTP/Twilio se distribui ao longo do dia em vez
+ * de concentrar-se em um único horário.
+ */
 @Component
 @RequiredArgsConstructor
 public class NotificacaoScheduler {
@@ -27,78 +54,178 @@ public class NotificacaoScheduler {
     private final Logger logger = LoggerFactory.getLogger(NotificacaoScheduler.class);
     private final NotificacaoService notificacaoService;
     private final CirurgiaRepository cirurgiaRepository;
-    private final PacienteRepository pacienteRepository;
+    private final CacheCadastros cacheCadastros;
     private final TarefaAssistenteSocialRepository tarefaRepository;
-    private final AssistenteSocialRepository assistenteSocialRepository;
+    private final NotificacaoMetricas metricas;
+    private final LembreteCirurgiaService lembreteService;
+    private final TransactionTemplate transactionTemplate;
     
-    private static final int DIAS_ANTECEDENCIA = 7;
+    @Value("${notificacao.lembrete.tamanho-pagina:200}")
+    private int tamanhoPagina;
+    
+    @Value("${notificacao.lembrete.workers:4}")
+    private int workers;
+    
+    /** Janela à frente carregada na roda a cada {@code notificacao.lembrete.carga}. */
+    @Value("${notificacao.lembrete.janela-carga:PT5M}")
+    private Duration janelaCarga;
+    
+    @Value("${notificacao.lembrete.roda.tick:PT1S}")
+    private Duration tick;
+    
+    @Value("${notificacao.lembrete.roda.slots:512}")
+    private int slots;
+    
+    private ExecutorService executor;
+    private RodaTemporizacao<LembreteCirurgia> roda;
+    
+    @PostConstruct
+    public void iniciar() {
+        executor = Executors.newFixedThreadPool(workers, Thread.ofVirtual().name("lembrete-envio-", 0).factory());
+        // A thread da roda só entrega os vencidos ao executor, para não atrasar os próximos ticks
+        roda = new RodaTemporizacao<>("roda-lembretes", tick, slots,
+                vencidos -> executor.execute(() -> dispararLembretes(vencidos)));
+        metricas.monitorarLembretesAgendados(roda::tamanho);
+    }
+    
+    @PreDestroy
+    public void encerrar() {
+        List<LembreteCirurgia> restantes = roda.parar();
+        executor.shutdownNow();
+        try {
+            int liberados = lembreteService.liberar(restantes);
+            logger.info("{} lembrete(s) agendado(s) devolvido(s) para outras réplicas", liberados);
+        } catch (Exception e) {
+            logger.warn("Não foi possível devolver {} lembrete(s) agendado(s): {}", restantes.size(), e.getMessage());
+        }
+    }
 
-    @Scheduled(cron = "0 0 9 * * *") // Todo dia às 9h
-    public void verificarCirurgiasProximas() {
-        logger.info("=== Iniciando verificação de cirurgias próximas ===");
-        
+    @Scheduled(fixedDelayString = "${notificacao.lembrete.planejamento:PT5M}")
+    public void planejarLembretes() {
         try {
-            // Calcula a data daqui a 7 dias
-            LocalDate dataAlvo = LocalDate.now().plusDays(DIAS_ANTECEDENCIA);
-            logger.info("Buscando cirurgias para a data: {}", dataAlvo.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
-            
-            // Busca cirurgias marcadas para essa data que ainda não receberam lembrete
-            List<Cirurgia> cirurgias = cirurgiaRepository.findByDataCirurgiaAndLembreteEnviadoFalse(dataAlvo);
-            
-            if (cirurgias == null || cirurgias.isEmpty()) {
-                logger.info("Nenhuma cirurgia encontrada para {} dias a partir de hoje", DIAS_ANTECEDENCIA);
-                return;
-            }
-            
-            logger.info("Encontradas {} cirurgias para notificar", cirurgias.size());
-            
-            for (Cirurgia cirurgia : cirurgias) {
-                try {
-                    enviarLembreteCirurgia(cirurgia);
-                    enviarLembreteAssistenteSocial(cirurgia);
-                    
-                    // Marcar lembrete como enviado
-                    cirurgia.setLembreteEnviado(true);
-                    cirurgiaRepository.save(cirurgia);
-                    
-                } catch (Exception e) {
-                    logger.error("Erro ao enviar lembrete para cirurgia {}: {}", cirurgia.getId(), e.getMessage());
+            lembreteService.planejar();
+        } catch (Exception e) {
+            logger.error("Erro inesperado ao planejar lembretes de cirurgia: {}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Reserva os lembretes que vencem na próxima janela de carga e os agenda na roda.
+     */
+    @Scheduled(fixedDelayString = "${notificacao.lembrete.carga:PT1M}")
+    public void carregarLembretes() {
+        try {
+            LocalDateTime ate = LocalDateTime.now().plus(janelaCarga);
+            int carregados = 0;
+            List<LembreteCirurgia> lembretes;
+            do {
+                lembretes = lembreteService.reservar(ate, tamanhoPagina);
+                for (LembreteCirurgia lembrete : lembretes) {
+                    roda.agendar(lembrete, lembrete.getEnvioPrevisto().atZone(ZoneId.systemDefault()).toInstant());
                 }
-            }
-            
-            logger.info("=== Verificação concluída com sucesso ===");
+                carregados += lembretes.size();
+            } while (lembretes.size() == tamanhoPagina);
             
+            if (carregados > 0) {
+                logger.info("{} lembrete(s) carregado(s) na roda ({} agendado(s))", carregados, roda.tamanho());
+            }
         } catch (Exception e) {
-            logger.error("Erro inesperado ao verificar cirurgias próximas: {}", e.getMessage(), e);
+            logger.error("Erro inesperado ao carregar lembretes de cirurgia: {}", e.getMessage(), e);
         }
     }
     
-    private void enviarLembreteCirurgia(Cirurgia cirurgia) {
-        Paciente paciente = pacienteRepository.findById(cirurgia.getPacienteId()).orElse(null);
+    /**
+     * Envia os lembretes vencidos em um tick. As entregas no outbox e a marcação dos lembretes
+     * são gravadas na mesma transação; um lembrete que falhar continua reservado e é reassumido
+     * quando a reserva expirar.
+     */
+    private void dispararLembretes(List<LembreteCirurgia> vencidos) {
+        Timer.Sample amostra = metricas.iniciar();
+        int[] totais = new int[2];
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<LembreteCirurgia> confirmados = lembreteService.confirmarReserva(vencidos);
+                Map<UUID, Cirurgia> cirurgias = cirurgiaRepository.findAllById(
+                                confirmados.stream().map(LembreteCirurgia::getCirurgiaId).collect(Collectors.toSet()))
+                        .stream()
+                        .filter(cirurgia -> cirurgia.getStatus() != StatusCirurgia.CANCELADA)
+                        .collect(Collectors.toMap(Cirurgia::getId, Function.identity()));
+                
+                Set<UUID> enviadas = cirurgias.isEmpty() ? Set.of()
+                        : new HashSet<>(processarCirurgias(new ArrayList<>(cirurgias.values())));
+                List<LembreteCirurgia> concluidos = confirmados.stream()
+                        .filter(lembrete -> enviadas.contains(lembrete.getCirurgiaId())
+                                || !cirurgias.containsKey(lembrete.getCirurgiaId()))
+                        .toList();
+                lembreteService.marcarEnviados(concluidos);
+                totais[0] = confirmados.size();
+                totais[1] = (int) concluidos.stream().filter(lembrete -> enviadas.contains(lembrete.getCirurgiaId())).count();
+            });
+            logger.info("{} de {} lembrete(s) vencido(s) enviado(s)", totais[1], vencidos.size());
+        } catch (Exception e) {
+            logger.error("Erro ao enviar {} lembrete(s) de cirurgia: {}", vencidos.size(), e.getMessage(), e);
+        } finally {
+            metricas.registrarExecucaoLembretes(amostra, totais[0], totais[1]);
+        }
+    }
+    
+    /**
+     * Envia os lembretes de um grupo de cirurgias carregando antes os pacientes, as tarefas
+     * ativas atribuídas e as assistentes sociais dessas tarefas. Pacientes e assistentes vêm do
+     * cache de cadastros; os ausentes são buscados em uma consulta cada.
+     */
+    private List<UUID> processarCirurgias(List<Cirurgia> pagina) {
+        Map<UUID, Paciente> pacientes = cacheCadastros.buscarPacientes(
+                pagina.stream().map(Cirurgia::getPacienteId).toList());
+        
+        Map<UUID, List<TarefaAssistenteSocial>> tarefasPorCirurgia = tarefaRepository.buscarAtribuidasPorCirurgias(
+                        pagina.stream().map(Cirurgia::getId).toList(), StatusTarefa.ATIVOS)
+                .stream()
+                .collect(Collectors.groupingBy(TarefaAssistenteSocial::getCirurgiaId));
+        
+        Map<UUID, AssistenteSocial> assistentes = cacheCadastros.buscarAssistentesSociais(
+                tarefasPorCirurgia.values().stream()
+                        .flatMap(List::stream)
+                        .map(TarefaAssistenteSocial::getAssistenteSocialId)
+                        .toList());
         
+        List<UUID> processadas = new ArrayList<>(pagina.size());
+        for (Cirurgia cirurgia : pagina) {
+            try {
+                Paciente paciente = pacientes.get(cirurgia.getPacienteId());
+                enviarLembreteCirurgia(cirurgia, paciente);
+                enviarLembreteAssistenteSocial(cirurgia, paciente,
+                        tarefasPorCirurgia.getOrDefault(cirurgia.getId(), List.of()), assistentes);
+                processadas.add(cirurgia.getId());
+            } catch (Exception e) {
+                logger.error("Erro ao enviar lembrete para cirurgia {}: {}", cirurgia.getId(), e.getMessage());
+            }
+        }
+        return processadas;
+    }
+    
+    private void enviarLembreteCirurgia(Cirurgia cirurgia, Paciente paciente) {
         if (paciente == null) {
             logger.warn("Paciente {} não encontrado para cirurgia {}", 
                        cirurgia.getPacienteId(), cirurgia.getId());
             return;
         }
         
-        String dataCirurgia = cirurgia.getDataCirurgia().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
-        String horaCirurgia = cirurgia.getHoraCirurgia().format(DateTimeFormatter.ofPattern("HH:mm"));
+        String dataCirurgia = cirurgia.getDataCirurgia().format(Formatos.DATA);
+        String horaCirurgia = cirurgia.getHoraCirurgia().format(Formatos.HORA);
         String local = cirurgia.getLocal();
         
         logger.info("Enviando lembrete para paciente {} ({}) - Cirurgia {}", 
                    paciente.getNome(), cirurgia.getPacienteId(), cirurgia.getId());
         
-        notificacaoService.enviarLembretePaciente(cirurgia.getPacienteId(), dataCirurgia, horaCirurgia, local);
+        int prioridade = PrioridadeNotificacao.calcular(TipoNotificacao.LEMBRETE_PACIENTE,
+                cirurgia.getDataCirurgia(), cirurgia.getHoraCirurgia());
+        notificacaoService.enviarLembretePaciente(paciente, cirurgia.getId(), dataCirurgia, horaCirurgia, local, prioridade);
     }
     
-    private void enviarLembreteAssistenteSocial(Cirurgia cirurgia) {
-        List<TarefaAssistenteSocial> tarefas = tarefaRepository.findAll().stream()
-                .filter(t -> t.getCirurgiaId() != null && t.getCirurgiaId().equals(cirurgia.getId()))
-                .filter(t -> t.getStatus() == StatusTarefa.PENDENTE || t.getStatus() == StatusTarefa.EM_ANDAMENTO)
-                .filter(t -> t.getAssistenteSocialId() != null)
-                .toList();
-        
+    private void enviarLembreteAssistenteSocial(Cirurgia cirurgia, Paciente paciente,
+                                                List<TarefaAssistenteSocial> tarefas,
+                                                Map<UUID, AssistenteSocial> assistentes) {
         if (tarefas.isEmpty()) {
             logger.info("Nenhuma tarefa pendente/em andamento encontrada para cirurgia {}", cirurgia.getId());
             return;
@@ -107,10 +234,16 @@ public class NotificacaoScheduler {
         logger.info("Encontradas {} tarefas para notificar assistentes sociais sobre cirurgia {}", 
                    tarefas.size(), cirurgia.getId());
         
+        String nomePaciente = paciente != null ? paciente.getNome() : "Paciente ID: " + cirurgia.getPacienteId();
+        String dataCirurgia = cirurgia.getDataCirurgia().format(Formatos.DATA);
+        String horaCirurgia = cirurgia.getHoraCirurgia().format(Formatos.HORA);
+        String local = cirurgia.getLocal();
+        int prioridade = PrioridadeNotificacao.calcular(TipoNotificacao.LEMBRETE_ASSISTENTE_SOCIAL,
+                cirurgia.getDataCirurgia(), cirurgia.getHoraCirurgia());
+        
         for (TarefaAssistenteSocial tarefa : tarefas) {
             try {
-                AssistenteSocial assistente = assistenteSocialRepository.findById(tarefa.getAssistenteSocialId())
-                        .orElse(null);
+                AssistenteSocial assistente = assistentes.get(tarefa.getAssistenteSocialId());
                 
                 if (assistente == null) {
                     logger.warn("Assistente social {} não encontrada para tarefa {}", 
@@ -118,16 +251,11 @@ public class NotificacaoScheduler {
                     continue;
                 }
                 
-                Paciente paciente = pacienteRepository.findById(cirurgia.getPacienteId()).orElse(null);
-                String nomePaciente = paciente != null ? paciente.getNome() : "Paciente ID: " + cirurgia.getPacienteId();
-                String dataCirurgia = cirurgia.getDataCirurgia().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
-                String horaCirurgia = cirurgia.getHoraCirurgia().format(DateTimeFormatter.ofPattern("HH:mm"));
-                String local = cirurgia.getLocal();
-                
                 logger.info("Enviando lembrete para assistente social {} ({}) sobre cirurgia {}", 
                            assistente.getNome(), assistente.getId(), cirurgia.getId());
                 
-                notificacaoService.enviarLembreteAssistenteSocial(assistente, nomePaciente, dataCirurgia, horaCirurgia, local);
+                notificacaoService.enviarLembreteAssistenteSocial(assistente, cirurgia.getId(), nomePaciente,
+                        dataCirurgia, horaCirurgia, local, prioridade);
                 
             } catch (Exception e) {
                 logger.error("Erro ao notificar assistente social sobre tarefa {}: {}", 
@@ -135,11 +263,4 @@ public class NotificacaoScheduler {
             }
         }
     }
-
-    // Método para testes - executa a cada 2 minutos (descomente se quiser testar)
-    // @Scheduled(fixedDelay = 120000)
-    // public void verificarCirurgiasProximasTeste() {
-    //     this.logger.info("Executando verificação de teste...");
-    //     verificarCirurgiasProximas();
-    // }
 }
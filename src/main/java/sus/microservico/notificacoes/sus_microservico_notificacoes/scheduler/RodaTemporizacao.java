@@ -0,0 +1,131 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Roda de temporização (hashed timing wheel). Cada slot cobre um tick e guarda os itens cujo
+ * tick de vencimento, módulo o número de slots, cai nele; a cada tick só o slot atual é
+ * percorrido. Agendar custa O(1) e uma única thread atende qualquer quantidade de itens.
+ * Os itens vencidos no mesmo tick são entregues juntos ao {@code disparo}.
+ */
+public class RodaTemporizacao<T> {
+
+    private final Logger logger = LoggerFactory.getLogger(RodaTemporizacao.class);
+    private final long tickNanos;
+    private final List<List<Entrada<T>>> slots;
+    private final Consumer<List<T>> disparo;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Thread thread;
+    private final long inicioNanos;
+    private long tickAtual;
+    private int tamanho;
+    private volatile boolean ativa = true;
+
+    public RodaTemporizacao(String nome, Duration tick, int numeroSlots, Consumer<List<T>> disparo) {
+        this.tickNanos = tick.toNanos();
+        this.slots = new ArrayList<>(numeroSlots);
+        for (int i = 0; i < numeroSlots; i++) {
+            slots.add(new ArrayList<>());
+        }
+        this.disparo = disparo;
+        this.inicioNanos = System.nanoTime();
+        this.thread = Thread.ofPlatform().daemon().name(nome).start(this::girar);
+    }
+
+    /**
+     * Agenda o item para o instante informado; um instante já passado dispara no próximo tick.
+     */
+    public void agendar(T item, Instant quando) {
+        long atrasoNanos = Math.max(0, Duration.between(Instant.now(), quando).toNanos());
+        long tickAlvo = (System.nanoTime() - inicioNanos + atrasoNanos + tickNanos - 1) / tickNanos;
+        lock.lock();
+        try {
+            long alvo = Math.max(tickAlvo, tickAtual + 1);
+            slots.get((int) (alvo % slots.size())).add(new Entrada<>(item, alvo));
+            tamanho++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int tamanho() {
+        lock.lock();
+        try {
+            return tamanho;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Para a roda e devolve os itens que ainda não dispararam.
+     */
+    public List<T> parar() {
+        ativa = false;
+        thread.interrupt();
+        lock.lock();
+        try {
+            List<T> restantes = new ArrayList<>(tamanho);
+            for (List<Entrada<T>> slot : slots) {
+                slot.forEach(entrada -> restantes.add(entrada.item()));
+                slot.clear();
+            }
+            tamanho = 0;
+            return restantes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void girar() {
+        while (ativa) {
+            long espera = inicioNanos + (tickAtual + 1) * tickNanos - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+                continue;
+            }
+            List<T> vencidos = avancar();
+            if (!vencidos.isEmpty()) {
+                try {
+                    disparo.accept(vencidos);
+                } catch (RuntimeException e) {
+                    logger.error("Erro ao disparar {} item(ns) da roda de temporização: {}", vencidos.size(), e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private List<T> avancar() {
+        lock.lock();
+        try {
+            tickAtual++;
+            List<T> vencidos = new ArrayList<>();
+            Iterator<Entrada<T>> iterador = slots.get((int) (tickAtual % slots.size())).iterator();
+            while (iterador.hasNext()) {
+                Entrada<T> entrada = iterador.next();
+                // Entradas de voltas futuras compartilham o slot e continuam nele
+                if (entrada.tick() <= tickAtual) {
+                    vencidos.add(entrada.item());
+                    iterador.remove();
+                }
+            }
+            tamanho -= vencidos.size();
+            return vencidos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Entrada<T>(T item, long tick) {
+    }
+}
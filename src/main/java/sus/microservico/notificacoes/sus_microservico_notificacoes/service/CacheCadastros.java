@@ -0,0 +1,130 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.AssistenteSocial;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.Medico;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.Paciente;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.AssistenteSocialRepository;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.MedicoRepository;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.PacienteRepository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cache read-through dos cadastros de pacientes, assistentes sociais e médicos. Essas tabelas
+ * pertencem ao serviço principal e mudam pouco; o TTL limita por quanto tempo um contato
+ * desatualizado pode ser usado caso o evento de invalidação se perca. Registros inexistentes
+ * não são guardados, para que um cadastro novo apareça na próxima consulta.
+ */
+@Service
+public class CacheCadastros {
+
+    public static final String PACIENTE = "paciente";
+    public static final String ASSISTENTE_SOCIAL = "assistente-social";
+    public static final String MEDICO = "medico";
+
+    private final Logger logger = LoggerFactory.getLogger(CacheCadastros.class);
+    private final LoadingCache<UUID, Paciente> pacientes;
+    private final LoadingCache<UUID, AssistenteSocial> assistentesSociais;
+    private final LoadingCache<UUID, Medico> medicos;
+
+    public CacheCadastros(PacienteRepository pacienteRepository,
+                          AssistenteSocialRepository assistenteSocialRepository,
+                          MedicoRepository medicoRepository,
+                          NotificacaoMetricas metricas,
+                          @Value("${notificacao.cache.cadastros.tamanho:10000}") int tamanho,
+                          @Value("${notificacao.cache.cadastros.ttl:PT10M}") Duration ttl) {
+        this.pacientes = criar(pacienteRepository, Paciente::getId, tamanho, ttl);
+        this.assistentesSociais = criar(assistenteSocialRepository, AssistenteSocial::getId, tamanho, ttl);
+        this.medicos = criar(medicoRepository, Medico::getId, tamanho, ttl);
+        metricas.monitorarCache(PACIENTE, pacientes);
+        metricas.monitorarCache(ASSISTENTE_SOCIAL, assistentesSociais);
+        metricas.monitorarCache(MEDICO, medicos);
+        logger.info("Cache de cadastros iniciado (tamanho {}, TTL {})", tamanho, ttl);
+    }
+
+    public Optional<Paciente> buscarPaciente(UUID id) {
+        return buscar(pacientes, id);
+    }
+
+    public Map<UUID, Paciente> buscarPacientes(Collection<UUID> ids) {
+        return buscarTodos(pacientes, ids);
+    }
+
+    public Optional<AssistenteSocial> buscarAssistenteSocial(UUID id) {
+        return buscar(assistentesSociais, id);
+    }
+
+    public Map<UUID, AssistenteSocial> buscarAssistentesSociais(Collection<UUID> ids) {
+        return buscarTodos(assistentesSociais, ids);
+    }
+
+    public Optional<Medico> buscarMedico(UUID id) {
+        return buscar(medicos, id);
+    }
+
+    /**
+     * Descarta um registro do cache; sem {@code id}, descarta todos os registros do cadastro.
+     */
+    public void invalidar(String cadastro, UUID id) {
+        LoadingCache<UUID, ?> cache = switch (cadastro) {
+            case PACIENTE -> pacientes;
+            case ASSISTENTE_SOCIAL -> assistentesSociais;
+            case MEDICO -> medicos;
+            default -> throw new IllegalArgumentException("Cadastro desconhecido: " + cadastro);
+        };
+        if (id == null) {
+            cache.invalidateAll();
+            logger.info("Cache de {} invalidado por completo", cadastro);
+        } else {
+            cache.invalidate(id);
+            logger.debug("Cache de {} invalidado para {}", cadastro, id);
+        }
+    }
+
+    private static <T> Optional<T> buscar(LoadingCache<UUID, T> cache, UUID id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(cache.get(id));
+    }
+
+    private static <T> Map<UUID, T> buscarTodos(LoadingCache<UUID, T> cache, Collection<UUID> ids) {
+        Set<UUID> chaves = ids.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        // Os ausentes do cache são carregados em uma única consulta (findAllById)
+        return chaves.isEmpty() ? Map.of() : cache.getAll(chaves);
+    }
+
+    private static <T> LoadingCache<UUID, T> criar(JpaRepository<T, UUID> repository, Function<T, UUID> id,
+                                                   int tamanho, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(tamanho)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(new CacheLoader<UUID, T>() {
+                    @Override
+                    public T load(UUID chave) {
+                        return repository.findById(chave).orElse(null);
+                    }
+
+                    @Override
+                    public Map<UUID, T> loadAll(Set<? extends UUID> chaves) {
+                        return repository.findAllById(List.copyOf(chaves)).stream()
+                                .collect(Collectors.toMap(id, Function.identity()));
+                    }
+                });
+    }
+}
@@ -0,0 +1,143 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.event.NotificacaoCirurgiaEvent;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.TipoNotificacao;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.EventoProcessadoRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Descarta eventos reentregues. Um cache LRU em memória, limitado em tamanho e com TTL,
+ * responde aos duplicados recentes sem ir ao banco; a tabela {@code tb_evento_processado}
+ * garante a deduplicação entre réplicas e após reinícios.
+ */
+@Service
+public class DeduplicacaoEventos {
+
+    private final Logger logger = LoggerFactory.getLogger(DeduplicacaoEventos.class);
+    private final EventoProcessadoRepository eventoRepository;
+    private final NotificacaoMetricas metricas;
+    private final int tamanhoCache;
+    private final long ttlCacheNanos;
+    private final Duration retencao;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Long> recentes;
+
+    public DeduplicacaoEventos(EventoProcessadoRepository eventoRepository,
+                               NotificacaoMetricas metricas,
+                               @Value("${notificacao.deduplicacao.cache.tamanho:100000}") int tamanhoCache,
+                               @Value("${notificacao.deduplicacao.cache.ttl:PT1H}") Duration ttlCache,
+                               @Value("${notificacao.deduplicacao.retencao:P30D}") Duration retencao) {
+        this.eventoRepository = eventoRepository;
+        this.metricas = metricas;
+        this.tamanhoCache = tamanhoCache;
+        this.ttlCacheNanos = ttlCache.toNanos();
+        this.retencao = retencao;
+        // accessOrder = true: a entrada mais antiga é a menos usada recentemente
+        this.recentes = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> maisAntiga) {
+                return size() > DeduplicacaoEventos.this.tamanhoCache;
+            }
+        };
+    }
+
+    /**
+     * Registra o evento como processado na transação atual.
+     *
+     * @return {@code false} se o evento já havia sido processado e deve ser descartado
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean registrar(NotificacaoCirurgiaEvent evento, TipoNotificacao tipo) {
+        String chave = chave(evento, tipo);
+        if (emCache(chave)) {
+            logger.info("Evento {} da cirurgia {} já processado (cache), descartando", tipo, evento.cirurgiaId());
+            metricas.registrarEventoDuplicado(tipo, "cache");
+            return false;
+        }
+        
+        boolean novo = eventoRepository.registrar(chave, tipo.name(), evento.cirurgiaId(), LocalDateTime.now()) > 0;
+        if (!novo) {
+            logger.info("Evento {} da cirurgia {} já processado, descartando", tipo, evento.cirurgiaId());
+            metricas.registrarEventoDuplicado(tipo, "banco");
+        }
+        
+        // Só entra no cache depois do commit: se a transação falhar, a reentrega precisa ser processada
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lembrar(chave);
+            }
+        });
+        return novo;
+    }
+
+    @Transactional
+    @Scheduled(cron = "${notificacao.deduplicacao.limpeza:0 45 3 * * *}")
+    public void removerAntigos() {
+        int removidos = eventoRepository.removerAntesDe(LocalDateTime.now().minus(retencao));
+        if (removidos > 0) {
+            logger.info("{} evento(s) processado(s) removido(s) da deduplicação", removidos);
+        }
+    }
+
+    static String chave(NotificacaoCirurgiaEvent evento, TipoNotificacao tipo) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(tipo.name().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '|');
+            digest.update(String.valueOf(evento.cirurgiaId()).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '|');
+            // Com o id do publicador, uma remarcação A→B→A gera chaves distintas; sem ele, o evento
+            // é identificado pelo conteúdo (toString de record é determinístico e inclui todos os campos)
+            String identificador = evento.eventoId() != null ? evento.eventoId().toString() : evento.toString();
+            digest.update(identificador.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private boolean emCache(String chave) {
+        lock.lock();
+        try {
+            Long expiracao = recentes.get(chave);
+            if (expiracao == null) {
+                return false;
+            }
+            if (expiracao - System.nanoTime() <= 0) {
+                recentes.remove(chave);
+                return false;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void lembrar(String chave) {
+        lock.lock();
+        try {
+            recentes.put(chave, System.nanoTime() + ttlCacheNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Circuit breaker de um canal de envio. Fechado, registra o resultado das últimas
+ * {@code janela} chamadas; com pelo menos {@code minimoChamadas} e taxa de falhas acima de
+ * {@code taxaFalhas}, abre e recusa chamadas por {@code tempoAberto}. Depois disso fica
+ * semiaberto: libera {@code chamadasTeste} chamadas de teste e fecha se todas tiverem sucesso,
+ * ou reabre na primeira falha. Cada chamada liberada leva a geração (contador de mudanças de
+ * estado) em que foi admitida, e resultados que chegam depois de uma mudança são ignorados.
+ */
+public class Disjuntor {
+
+    public enum Estado {
+        FECHADO, ABERTO, SEMIABERTO
+    }
+
+    /** Chamada liberada por {@link #permitir()}; a geração identifica o estado que a admitiu. */
+    public record Permissao(long geracao) {
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(Disjuntor.class);
+    private final String nome;
+    private final boolean[] falhas;
+    private final int minimoChamadas;
+    private final double taxaFalhas;
+    private final long tempoAbertoNanos;
+    private final int chamadasTeste;
+    private final ReentrantLock lock = new ReentrantLock();
+    private Estado estado = Estado.FECHADO;
+    private long geracao;
+    private int posicao;
+    private int registradas;
+    private int falhasNaJanela;
+    private long abertoAte;
+    private int testesLiberados;
+    private int testesComSucesso;
+
+    public Disjuntor(String nome, int janela, int minimoChamadas, double taxaFalhas, Duration tempoAberto, int chamadasTeste) {
+        if (janela < 1 || minimoChamadas < 1 || chamadasTeste < 1 || taxaFalhas <= 0 || taxaFalhas > 1) {
+            throw new IllegalArgumentException("Configuração inválida para o disjuntor " + nome);
+        }
+        this.nome = nome;
+        this.falhas = new boolean[janela];
+        this.minimoChamadas = Math.min(minimoChamadas, janela);
+        this.taxaFalhas = taxaFalhas;
+        this.tempoAbertoNanos = tempoAberto.toNanos();
+        this.chamadasTeste = chamadasTeste;
+    }
+
+    /**
+     * @return vazio se a chamada deve ser recusada sem acessar o provedor; senão a permissão a
+     * devolver em {@link #registrar} ou {@link #liberar}
+     */
+    public Optional<Permissao> permitir() {
+        lock.lock();
+        try {
+            return switch (estado) {
+                case FECHADO -> Optional.of(new Permissao(geracao));
+                case ABERTO -> {
+                    if (System.nanoTime() - abertoAte < 0) {
+                        yield Optional.empty();
+                    }
+                    mudarPara(Estado.SEMIABERTO);
+                    testesLiberados = 1;
+                    testesComSucesso = 0;
+                    yield Optional.of(new Permissao(geracao));
+                }
+                case SEMIABERTO -> {
+                    if (testesLiberados >= chamadasTeste) {
+                        yield Optional.empty();
+                    }
+                    testesLiberados++;
+                    yield Optional.of(new Permissao(geracao));
+                }
+            };
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Consulta sem reservar chamada de teste: {@code true} enquanto o disjuntor estiver aberto
+     * e o {@code tempoAberto} não tiver passado.
+     */
+    public boolean recusando() {
+        lock.lock();
+        try {
+            return estado == Estado.ABERTO && System.nanoTime() - abertoAte < 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Registra a resposta do provedor a uma chamada liberada por {@link #permitir()}. Só conta
+     * se o disjuntor ainda estiver na geração que a liberou: um envio lento admitido com o
+     * disjuntor fechado não fecha nem reabre o estado semiaberto de agora.
+     */
+    public void registrar(Permissao permissao, boolean sucesso) {
+        lock.lock();
+        try {
+            if (permissao.geracao() != geracao) {
+                return;
+            }
+            switch (estado) {
+                case FECHADO -> registrarNaJanela(sucesso);
+                case SEMIABERTO -> {
+                    if (!sucesso) {
+                        abrir();
+                    } else if (++testesComSucesso >= chamadasTeste) {
+                        limparJanela();
+                        mudarPara(Estado.FECHADO);
+                    }
+                }
+                // Nenhuma chamada é liberada com o disjuntor aberto
+                case ABERTO -> {
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Devolve uma permissão que não chegou ao provedor (envio adiado pelo próprio serviço):
+     * no estado semiaberto, a vaga de teste volta a ficar livre.
+     */
+    public void liberar(Permissao permissao) {
+        lock.lock();
+        try {
+            if (permissao.geracao() == geracao && estado == Estado.SEMIABERTO && testesLiberados > 0) {
+                testesLiberados--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Estado getEstado() {
+        lock.lock();
+        try {
+            return estado;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    private void registrarNaJanela(boolean sucesso) {
+        if (registradas == falhas.length && falhas[posicao]) {
+            falhasNaJanela--;
+        }
+        falhas[posicao] = !sucesso;
+        if (!sucesso) {
+            falhasNaJanela++;
+        }
+        posicao = (posicao + 1) % falhas.length;
+        registradas = Math.min(registradas + 1, falhas.length);
+
+        if (registradas >= minimoChamadas && falhasNaJanela >= taxaFalhas * registradas) {
+            abrir();
+        }
+    }
+
+    private void abrir() {
+        abertoAte = System.nanoTime() + tempoAbertoNanos;
+        limparJanela();
+        mudarPara(Estado.ABERTO);
+    }
+
+    private void limparJanela() {
+        Arrays.fill(falhas, false);
+        posicao = 0;
+        registradas = 0;
+        falhasNaJanela = 0;
+    }
+
+    private void mudarPara(Estado novo) {
+        if (estado != novo) {
+            logger.warn("Disjuntor do canal {}: {} -> {}", nome, estado, novo);
+            estado = novo;
+            geracao++;
+        }
+    }
+}
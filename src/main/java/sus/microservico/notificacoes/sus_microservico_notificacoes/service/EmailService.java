@@ -0,0 +1,104 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.ResultadoEnvio;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class EmailService {
+
+    private final Logger logger = LoggerFactory.getLogger(EmailService.class);
+    private final JavaMailSender mailSender;
+    private final EnvioEmailLote envioLote;
+    private final LimitesConcorrencia limites;
+    private final Duration tempoMaximoEnvio;
+    
+    @Value("${spring.mail.username}")
+    private String emailFrom;
+    
+    public EmailService(JavaMailSender mailSender,
+                        EnvioEmailLote envioLote,
+                        LimitesConcorrencia limites,
+                        @Value("${notificacao.email.tempo-maximo-envio:PT60S}") Duration tempoMaximoEnvio) {
+        this.mailSender = mailSender;
+        this.envioLote = envioLote;
+        this.limites = limites;
+        this.tempoMaximoEnvio = tempoMaximoEnvio;
+    }
+
+    /**
+     * @return {@link ResultadoEnvio#ADIADO} quando o e-mail nem chegou ao servidor SMTP (remetente
+     * não configurado ou limite local de envios simultâneos): a tentativa é devolvida ao outbox
+     */
+    public ResultadoEnvio enviarEmail(String email, String assunto, String mensagem) {
+        try {
+            if (emailFrom == null || emailFrom.isBlank()) {
+                logger.error("E-mail de origem não configurado: verifique a variável MAIL_USERNAME no .env");
+                return ResultadoEnvio.ADIADO;
+            }
+            
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+            helper.setFrom(emailFrom);
+            helper.setTo(email);
+            helper.setSubject("SusTech - " + assunto);
+            helper.setText(mensagem);
+            
+            // Sem permissão do limitador, o outbox reagenda em vez de acumular threads na fila do lote
+            LimitadorConcorrencia limitador = limites.smtp();
+            if (!limitador.adquirir()) {
+                logger.warn("Limite de envios SMTP simultâneos atingido, envio para {} será reagendado", email);
+                return ResultadoEnvio.ADIADO;
+            }
+            
+            // O envio acontece nas conexões mantidas pelo pool, junto com os demais e-mails da fila
+            EnvioCancelavel<Void> envio;
+            try {
+                envio = envioLote.enviar(message);
+            } catch (InterruptedException | RuntimeException e) {
+                limitador.liberar();
+                throw e;
+            }
+            // A permissão só volta quando o e-mail sai da fila do lote (enviado, recusado ou
+            // cancelado), nunca enquanto ainda pode estar a caminho do servidor
+            envio.whenComplete((resultado, erro) -> limitador.liberar());
+            try {
+                try {
+                    envio.get(tempoMaximoEnvio.toMillis(), TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    if (envio.cancel(false)) {
+                        logger.warn("E-mail para {} não saiu da fila do lote em {}, envio será reagendado", email, tempoMaximoEnvio);
+                        return ResultadoEnvio.ADIADO;
+                    }
+                    // Já está na sessão SMTP: reenviar poderia duplicar o e-mail, então aguarda o
+                    // resultado real, limitado pelos timeouts de socket do JavaMail
+                    envio.get();
+                }
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception causa ? causa : e;
+            }
+            
+            logger.debug("E-mail enviado para {} (assunto: {})", email, assunto);
+            return ResultadoEnvio.ENVIADO;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            // Credenciais do Gmail, senha de app ou acesso a smtp.gmail.com:587 são as causas comuns
+            logger.error("Erro ao enviar e-mail para {} ({}): {}", email, e.getClass().getSimpleName(), e.getMessage());
+            logger.debug("Detalhes do erro de envio de e-mail", e);
+            return ResultadoEnvio.FALHA;
+        }
+    }
+}
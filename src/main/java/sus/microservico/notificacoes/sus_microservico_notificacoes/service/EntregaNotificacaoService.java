@@ -0,0 +1,175 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.EntregaNotificacao;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.CanalNotificacao;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.FaixaEnvio;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.StatusEntrega;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.TipoNotificacao;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.EntregaNotificacaoRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Operações transacionais sobre o outbox de notificações ({@code tb_entrega_notificacao}).
+ */
+@Service
+public class EntregaNotificacaoService {
+
+    private final Logger logger = LoggerFactory.getLogger(EntregaNotificacaoService.class);
+    private final EntregaNotificacaoRepository entregaRepository;
+    private final int maxTentativas;
+    private final Duration backoffInicial;
+    private final Duration backoffMaximo;
+    private final Duration visibilidade;
+    private final Duration adiamento;
+
+    public EntregaNotificacaoService(EntregaNotificacaoRepository entregaRepository,
+                                     @Value("${notificacao.outbox.max-tentativas:6}") int maxTentativas,
+                                     @Value("${notificacao.outbox.backoff-inicial:PT30S}") Duration backoffInicial,
+                                     @Value("${notificacao.outbox.backoff-maximo:PT30M}") Duration backoffMaximo,
+                                     @Value("${notificacao.outbox.visibilidade:PT5M}") Duration visibilidade,
+                                     @Value("${notificacao.envio.disjuntor.tempo-aberto:PT30S}") Duration adiamento) {
+        this.entregaRepository = entregaRepository;
+        this.maxTentativas = maxTentativas;
+        this.backoffInicial = backoffInicial;
+        this.backoffMaximo = backoffMaximo;
+        this.visibilidade = visibilidade;
+        this.adiamento = adiamento;
+    }
+
+    public static EntregaNotificacao nova(UUID grupoId, TipoNotificacao tipo, CanalNotificacao canal, String destinatario,
+                                          UUID pacienteId, UUID cirurgiaId, String assunto, String mensagem) {
+        LocalDateTime agora = LocalDateTime.now();
+        EntregaNotificacao entrega = new EntregaNotificacao();
+        entrega.setGrupoId(grupoId);
+        entrega.setTipo(tipo);
+        entrega.setCanal(canal);
+        entrega.setDestinatario(destinatario);
+        entrega.setPacienteId(pacienteId);
+        entrega.setCirurgiaId(cirurgiaId);
+        entrega.setAssunto(assunto);
+        entrega.setMensagem(mensagem);
+        entrega.setStatus(StatusEntrega.PENDENTE);
+        entrega.setProximaTentativa(agora);
+        entrega.setDataCriacao(agora);
+        return entrega;
+    }
+
+    @Transactional
+    public void enfileirar(List<EntregaNotificacao> entregas) {
+        if (!entregas.isEmpty()) {
+            entregaRepository.saveAll(entregas);
+        }
+    }
+
+    /**
+     * Reserva um lote de entregas vencidas da faixa. A próxima tentativa é adiada pelo tempo de
+     * visibilidade: se a instância cair durante o envio, a entrega volta a ficar disponível
+     * depois desse prazo.
+     */
+    @Transactional
+    public List<EntregaNotificacao> reservar(FaixaEnvio faixa, int limite) {
+        LocalDateTime agora = LocalDateTime.now();
+        List<EntregaNotificacao> entregas = entregaRepository.bloquearPendentes(agora,
+                PrioridadeNotificacao.minima(faixa), PrioridadeNotificacao.maxima(faixa), limite);
+        for (EntregaNotificacao entrega : entregas) {
+            entrega.setTentativas(entrega.getTentativas() + 1);
+            entrega.setProximaTentativa(agora.plus(visibilidade));
+        }
+        return entregas;
+    }
+
+    /**
+     * Grava o resultado dos envios de um lote. Entregas com falha são reagendadas com backoff
+     * exponencial até {@code max-tentativas}; depois disso ficam como {@code FALHA}. Entregas
+     * adiadas pelo canal voltam depois do tempo de abertura do disjuntor, sem consumir tentativa.
+     *
+     * @param erros mensagem de erro por id de entrega; ids ausentes foram enviados com sucesso
+     * @param adiadas ids recusados pelo canal sem chamar o provedor
+     * @return entregas que falharam definitivamente nesta rodada
+     */
+    @Transactional
+    public List<EntregaNotificacao> registrarResultados(Set<UUID> ids, Map<UUID, String> erros, Set<UUID> adiadas) {
+        LocalDateTime agora = LocalDateTime.now();
+        List<EntregaNotificacao> falhasDefinitivas = new ArrayList<>();
+        
+        for (EntregaNotificacao entrega : entregaRepository.findAllById(ids)) {
+            if (adiadas.contains(entrega.getId())) {
+                if (entrega.getStatus() == StatusEntrega.PENDENTE) {
+                    entrega.setTentativas(entrega.getTentativas() - 1);
+                    entrega.setProximaTentativa(agora.plus(adiamento));
+                    entrega.setUltimoErro("Canal " + entrega.getCanal() + " indisponível; envio adiado");
+                }
+                continue;
+            }
+            String erro = erros.get(entrega.getId());
+            if (erro != null && entrega.getStatus() == StatusEntrega.SUBSTITUIDA) {
+                // Substituída durante o envio: a versão mais recente já está no outbox
+                continue;
+            }
+            if (erro == null) {
+                entrega.setStatus(StatusEntrega.ENVIADA);
+                entrega.setDataEnvio(agora);
+                entrega.setUltimoErro(null);
+                continue;
+            }
+            
+            entrega.setUltimoErro(erro.length() > 500 ? erro.substring(0, 500) : erro);
+            if (entrega.getTentativas() >= maxTentativas) {
+                entrega.setStatus(StatusEntrega.FALHA);
+                falhasDefinitivas.add(entrega);
+                logger.warn("Entrega {} ({}) falhou após {} tentativa(s): {}",
+                        entrega.getId(), entrega.getCanal(), entrega.getTentativas(), erro);
+            } else {
+                entrega.setProximaTentativa(agora.plus(backoff(entrega.getTentativas())));
+            }
+        }
+        return falhasDefinitivas;
+    }
+
+    /**
+     * @return {@code true} se todas as entregas do grupo falharam e esta chamada foi a
+     * primeira a registrar o fallback
+     */
+    @Transactional
+    public boolean registrarFallback(UUID grupoId) {
+        return entregaRepository.registrarFallback(grupoId) > 0;
+    }
+
+    /**
+     * Marca como substituídas as atualizações pendentes da cirurgia. Uma entrega que já está
+     * em envio não é interrompida, mas não será reenviada se falhar.
+     *
+     * @return quantidade de entregas descartadas
+     */
+    @Transactional
+    public int substituirAtualizacoesPendentes(UUID cirurgiaId) {
+        if (cirurgiaId == null) {
+            return 0;
+        }
+        return entregaRepository.substituirPendentes(cirurgiaId, TipoNotificacao.ATUALIZACAO,
+                StatusEntrega.PENDENTE, StatusEntrega.SUBSTITUIDA);
+    }
+
+    @Transactional
+    public int removerFinalizadasAntesDe(LocalDateTime limite) {
+        return entregaRepository.removerFinalizadasAntesDe(
+                Set.of(StatusEntrega.ENVIADA, StatusEntrega.FALHA, StatusEntrega.SUBSTITUIDA), limite);
+    }
+
+    private Duration backoff(int tentativas) {
+        Duration atraso = backoffInicial.multipliedBy(1L << Math.min(tentativas - 1, 20));
+        return atraso.compareTo(backoffMaximo) > 0 ? backoffMaximo : atraso;
+    }
+}
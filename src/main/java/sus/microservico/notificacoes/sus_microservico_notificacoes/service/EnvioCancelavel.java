@@ -0,0 +1,31 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Futuro de um envio que só pode ser cancelado enquanto ainda não começou. Quem executa o
+ * envio o reserva com {@link #iniciar()}; a partir daí {@code cancel} devolve {@code false} e
+ * o resultado passa a ser o do provedor. Assim, quem desiste de esperar por timeout sabe se
+ * pode reagendar a mensagem sem risco de ela ser entregue em dobro.
+ */
+public class EnvioCancelavel<T> extends CompletableFuture<T> {
+
+    private final AtomicBoolean reservado = new AtomicBoolean();
+
+    /**
+     * @return {@code false} se o envio já foi cancelado e não deve ser feito
+     */
+    public boolean iniciar() {
+        return reservado.compareAndSet(false, true);
+    }
+
+    /**
+     * Cancela o envio se ele ainda não tiver sido iniciado; o parâmetro é ignorado, pois um
+     * envio em andamento nunca é interrompido.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return reservado.compareAndSet(false, true) && super.cancel(false);
+    }
+}
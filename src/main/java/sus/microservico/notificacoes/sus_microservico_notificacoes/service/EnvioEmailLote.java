@@ -0,0 +1,156 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agrupa os e-mails enfileirados e os envia em lotes pelas conexões do {@link PoolConexoesSmtp}.
+ * Há um remetente por conexão do pool; cada um pega o próximo e-mail da fila mais o que já
+ * estiver esperando (até {@code tamanho-lote}), sem aguardar o lote encher.
+ */
+@Component
+public class EnvioEmailLote {
+
+    private final Logger logger = LoggerFactory.getLogger(EnvioEmailLote.class);
+    private final PoolConexoesSmtp pool;
+    private final int tamanhoLote;
+    private final BlockingQueue<EmailPendente> fila;
+    private final List<Thread> remetentes = new ArrayList<>();
+    private volatile boolean ativo;
+
+    public EnvioEmailLote(PoolConexoesSmtp pool,
+                          @Value("${notificacao.email.lote.tamanho:50}") int tamanhoLote,
+                          @Value("${notificacao.email.lote.fila:1000}") int capacidadeFila) {
+        this.pool = pool;
+        this.tamanhoLote = tamanhoLote;
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        ativo = true;
+        for (int i = 0; i < pool.getTamanho(); i++) {
+            remetentes.add(Thread.ofVirtual().name("smtp-lote-" + i).start(this::executar));
+        }
+        logger.info("Envio de e-mail em lote iniciado ({} remetente(s), lote de até {})", remetentes.size(), tamanhoLote);
+    }
+
+    /**
+     * Enfileira o e-mail; bloqueia se a fila estiver cheia.
+     *
+     * @return futuro concluído quando o servidor SMTP aceitar a mensagem; enquanto o e-mail
+     * ainda estiver na fila, cancelá-lo impede o envio
+     */
+    public EnvioCancelavel<Void> enviar(MimeMessage mensagem) throws InterruptedException {
+        EnvioCancelavel<Void> resultado = new EnvioCancelavel<>();
+        if (!ativo) {
+            resultado.completeExceptionally(new IllegalStateException("Envio de e-mail encerrado"));
+            return resultado;
+        }
+        EmailPendente pendente = new EmailPendente(mensagem, resultado);
+        fila.put(pendente);
+        return pendente.resultado();
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        ativo = false;
+        for (Thread remetente : remetentes) {
+            remetente.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        EmailPendente pendente;
+        while ((pendente = fila.poll()) != null) {
+            pendente.resultado().completeExceptionally(new IllegalStateException("Envio de e-mail encerrado"));
+        }
+    }
+
+    private void executar() {
+        List<EmailPendente> lote = new ArrayList<>(tamanhoLote);
+        while (ativo || !fila.isEmpty()) {
+            try {
+                EmailPendente primeiro = fila.poll(1, TimeUnit.SECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                lote.add(primeiro);
+                fila.drainTo(lote, tamanhoLote - 1);
+                enviarLote(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void enviarLote(List<EmailPendente> lote) throws InterruptedException {
+        int indice = 0;
+        while (indice < lote.size()) {
+            PoolConexoesSmtp.ConexaoSmtp conexao;
+            try {
+                conexao = pool.emprestar();
+            } catch (MessagingException e) {
+                logger.error("Não foi possível obter conexão SMTP: {}", e.getMessage());
+                lote.subList(indice, lote.size()).forEach(pendente -> pendente.resultado().completeExceptionally(e));
+                return;
+            }
+            
+            boolean valida = true;
+            try {
+                // Segue na mesma conexão até o lote acabar, a conexão cair ou atingir o limite de mensagens
+                while (indice < lote.size() && valida && !pool.esgotada(conexao)) {
+                    EmailPendente pendente = lote.get(indice++);
+                    valida = enviar(conexao, pendente);
+                }
+            } finally {
+                pool.devolver(conexao, valida);
+            }
+        }
+    }
+
+    /**
+     * @return {@code false} se a conexão não deve mais ser usada
+     */
+    private boolean enviar(PoolConexoesSmtp.ConexaoSmtp conexao, EmailPendente pendente) {
+        // Cancelado por timeout de quem aguardava enquanto ainda estava na fila
+        if (!pendente.resultado().iniciar()) {
+            return true;
+        }
+        MimeMessage mensagem = pendente.mensagem();
+        try {
+            if (mensagem.getSentDate() == null) {
+                mensagem.setSentDate(new Date());
+            }
+            mensagem.saveChanges();
+            conexao.getTransport().sendMessage(mensagem, mensagem.getAllRecipients());
+            conexao.registrarEnvio();
+            pendente.resultado().complete(null);
+            return true;
+        } catch (SendFailedException e) {
+            // Destinatário recusado: a sessão continua válida
+            pendente.resultado().completeExceptionally(e);
+            return true;
+        } catch (MessagingException | RuntimeException e) {
+            pendente.resultado().completeExceptionally(e);
+            return false;
+        }
+    }
+
+    private record EmailPendente(MimeMessage mensagem, EnvioCancelavel<Void> resultado) {
+    }
+}
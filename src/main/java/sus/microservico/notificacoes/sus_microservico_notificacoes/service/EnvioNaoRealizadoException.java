@@ -0,0 +1,16 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+/**
+ * O gateway desistiu do envio antes de chamar o provedor (sem permissão de concorrência, executor
+ * encerrado). Nada foi entregue, então a tentativa pode ser adiada sem risco de duplicar a mensagem.
+ */
+public class EnvioNaoRealizadoException extends RuntimeException {
+
+    public EnvioNaoRealizadoException(String mensagem) {
+        super(mensagem);
+    }
+
+    public EnvioNaoRealizadoException(String mensagem, Throwable causa) {
+        super(mensagem, causa);
+    }
+}
@@ -0,0 +1,59 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gateway local para testes de carga: não acessa a rede, apenas simula a latência do
+ * provedor e, opcionalmente, uma fração de falhas.
+ */
+@Component
+@ConditionalOnProperty(name = "notificacao.sms.gateway", havingValue = "fake")
+public class FakeSmsGateway implements SmsGateway {
+
+    private final Logger logger = LoggerFactory.getLogger(FakeSmsGateway.class);
+    private final Duration latencia;
+    private final double taxaFalhas;
+
+    public FakeSmsGateway(@Value("${notificacao.sms.fake.latencia:PT0.2S}") Duration latencia,
+                          @Value("${notificacao.sms.fake.taxa-falhas:0}") double taxaFalhas) {
+        this.latencia = latencia;
+        this.taxaFalhas = taxaFalhas;
+        logger.warn("Gateway de SMS FAKE ativo: nenhuma mensagem será entregue (latência {}, falhas {})",
+                latencia, taxaFalhas);
+    }
+
+    @Override
+    public boolean configurado() {
+        return true;
+    }
+
+    /**
+     * Sem fila própria, a chamada começa na hora: toda a latência simulada é do provedor e o
+     * envio não pode mais ser cancelado.
+     */
+    @Override
+    public EnvioCancelavel<String> enviar(String telefone, String mensagem) {
+        EnvioCancelavel<String> envio = new EnvioCancelavel<>();
+        envio.iniciar();
+        Executor atrasado = CompletableFuture.delayedExecutor(latencia.toNanos(), TimeUnit.NANOSECONDS);
+        atrasado.execute(() -> {
+            if (ThreadLocalRandom.current().nextDouble() < taxaFalhas) {
+                envio.completeExceptionally(new IllegalStateException("Falha simulada pelo gateway fake"));
+            } else {
+                envio.complete("FAKE-" + UUID.randomUUID());
+            }
+        });
+        return envio;
+    }
+}
@@ -0,0 +1,177 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.AssistenteSocial;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.StatusTarefa;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.AssistenteSocialRepository;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.CargaAssistenteSocial;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.TarefaAssistenteSocialRepository;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Índice em memória da carga (tarefas ativas) de cada assistente social, ordenado da menos
+ * para a mais ocupada. É carregado com uma única consulta GROUP BY, atualizado a cada
+ * criação, atribuição e conclusão de tarefa e reconciliado periodicamente com o banco.
+ * Tarefas ainda não confirmadas contam como reservas, que a reconciliação preserva.
+ */
+@Component
+public class IndiceCargaAssistenteSocial {
+
+    private static final Comparator<Carga> ORDEM = Comparator
+            .comparingLong(Carga::carga)
+            .thenComparing(c -> c.assistente.getId());
+
+    private final Logger logger = LoggerFactory.getLogger(IndiceCargaAssistenteSocial.class);
+    private final AssistenteSocialRepository assistenteSocialRepository;
+    private final TarefaAssistenteSocialRepository tarefaRepository;
+
+    private final Object lock = new Object();
+    private final TreeSet<Carga> ordenadas = new TreeSet<>(ORDEM);
+    private final Map<UUID, Carga> porId = new HashMap<>();
+    private volatile boolean carregado = false;
+
+    public IndiceCargaAssistenteSocial(AssistenteSocialRepository assistenteSocialRepository,
+                                       TarefaAssistenteSocialRepository tarefaRepository) {
+        this.assistenteSocialRepository = assistenteSocialRepository;
+        this.tarefaRepository = tarefaRepository;
+    }
+
+    /**
+     * Seleciona a assistente social com menos tarefas ativas e já reserva a nova tarefa, de
+     * forma atômica, para que seleções concorrentes não escolham todas a mesma pessoa. A
+     * reserva deve terminar em {@link #confirmarReserva} ou {@link #liberarReserva}.
+     */
+    public Optional<AssistenteSocial> reservarMenosOcupada() {
+        garantirCarregado();
+        synchronized (lock) {
+            Carga menosOcupada = ordenadas.pollFirst();
+            if (menosOcupada == null) {
+                return Optional.empty();
+            }
+            menosOcupada.reservadas++;
+            ordenadas.add(menosOcupada);
+            logger.info("Assistente selecionada: {} (agora com {} tarefa(s) ativa(s) e {} reservada(s))",
+                    menosOcupada.assistente.getNome(), menosOcupada.tarefasAtivas, menosOcupada.reservadas);
+            return Optional.of(menosOcupada.assistente);
+        }
+    }
+
+    /** A tarefa reservada foi gravada: a reserva passa a contar como tarefa ativa. */
+    public void confirmarReserva(UUID assistenteSocialId) {
+        ajustar(assistenteSocialId, carga -> {
+            carga.reservadas = Math.max(0, carga.reservadas - 1);
+            carga.tarefasAtivas++;
+        });
+    }
+
+    /** A tarefa reservada não foi gravada. */
+    public void liberarReserva(UUID assistenteSocialId) {
+        ajustar(assistenteSocialId, carga -> carga.reservadas = Math.max(0, carga.reservadas - 1));
+    }
+
+    public void incrementar(UUID assistenteSocialId) {
+        ajustar(assistenteSocialId, carga -> carga.tarefasAtivas++);
+    }
+
+    public void decrementar(UUID assistenteSocialId) {
+        ajustar(assistenteSocialId, carga -> carga.tarefasAtivas = Math.max(0, carga.tarefasAtivas - 1));
+    }
+
+    public long tarefasAtivas(UUID assistenteSocialId) {
+        synchronized (lock) {
+            Carga carga = porId.get(assistenteSocialId);
+            return carga != null ? carga.tarefasAtivas : 0;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notificacao.carga-assistentes.reconciliacao:PT5M}")
+    public void reconciliar() {
+        try {
+            List<AssistenteSocial> assistentes = assistenteSocialRepository.findAll();
+            Map<UUID, Long> contagens = tarefaRepository.contarTarefasPorAssistente(StatusTarefa.ATIVOS).stream()
+                    .collect(Collectors.toMap(CargaAssistenteSocial::getAssistenteSocialId, CargaAssistenteSocial::getTarefasAtivas));
+            
+            int divergentes = 0;
+            synchronized (lock) {
+                for (AssistenteSocial assistente : assistentes) {
+                    Carga anterior = porId.get(assistente.getId());
+                    long real = contagens.getOrDefault(assistente.getId(), 0L);
+                    if (carregado && anterior != null && anterior.tarefasAtivas != real) {
+                        divergentes++;
+                    }
+                }
+                Map<UUID, Long> reservadas = porId.values().stream()
+                        .collect(Collectors.toMap(carga -> carga.assistente.getId(), carga -> carga.reservadas));
+                ordenadas.clear();
+                porId.clear();
+                for (AssistenteSocial assistente : assistentes) {
+                    // Reservas ainda não confirmadas não aparecem na contagem do banco
+                    Carga carga = new Carga(assistente, contagens.getOrDefault(assistente.getId(), 0L));
+                    carga.reservadas = reservadas.getOrDefault(assistente.getId(), 0L);
+                    porId.put(assistente.getId(), carga);
+                    ordenadas.add(carga);
+                }
+                carregado = true;
+            }
+            
+            logger.info("Índice de carga reconciliado: {} assistente(s) social(is), {} divergência(s) corrigida(s)",
+                    assistentes.size(), divergentes);
+        } catch (Exception e) {
+            logger.error("Erro ao reconciliar índice de carga das assistentes sociais: {}", e.getMessage());
+        }
+    }
+
+    private void ajustar(UUID assistenteSocialId, Consumer<Carga> ajuste) {
+        if (assistenteSocialId == null) {
+            return;
+        }
+        garantirCarregado();
+        synchronized (lock) {
+            Carga carga = porId.get(assistenteSocialId);
+            if (carga == null) {
+                // Assistente ainda não conhecida pelo índice: a próxima reconciliação a inclui
+                return;
+            }
+            ordenadas.remove(carga);
+            ajuste.accept(carga);
+            ordenadas.add(carga);
+        }
+    }
+
+    private void garantirCarregado() {
+        if (!carregado) {
+            synchronized (this) {
+                if (!carregado) {
+                    reconciliar();
+                }
+            }
+        }
+    }
+
+    private static final class Carga {
+        private final AssistenteSocial assistente;
+        private long tarefasAtivas;
+        private long reservadas;
+
+        private Carga(AssistenteSocial assistente, long tarefasAtivas) {
+            this.assistente = assistente;
+            this.tarefasAtivas = tarefasAtivas;
+        }
+
+        private long carga() {
+            return tarefasAtivas + reservadas;
+        }
+    }
+}
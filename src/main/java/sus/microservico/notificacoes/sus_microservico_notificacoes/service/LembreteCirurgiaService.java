@@ -0,0 +1,264 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.Cirurgia;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.LembreteCirurgia;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.StatusCirurgia;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.StatusLembrete;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.CirurgiaRepository;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.LeaseAgendamentoRepository;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.LembreteCirurgiaRepository;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Controla os lembretes de cirurgia por horizonte de antecedência. A réplica que detém o lease
+ * de planejamento cria os lembretes que vencem em breve; cada réplica reserva os próximos
+ * lembretes para a sua roda de temporização e os confirma ao enviá-los.
+ */
+@Service
+public class LembreteCirurgiaService {
+
+    public static final String LEASE_PLANEJAMENTO = "lembrete-cirurgias";
+    private static final UUID INICIO_PAGINACAO = new UUID(0L, 0L);
+    private static final List<StatusLembrete> NAO_ENVIADOS = List.of(StatusLembrete.PENDENTE, StatusLembrete.AGENDADO);
+
+    private final Logger logger = LoggerFactory.getLogger(LembreteCirurgiaService.class);
+    private final LembreteCirurgiaRepository lembreteRepository;
+    private final LeaseAgendamentoRepository leaseRepository;
+    private final CirurgiaRepository cirurgiaRepository;
+    private final String instancia;
+    private final List<Duration> horizontes;
+    private final Duration antecipacao;
+    private final Duration tolerancia;
+    private final Duration espalhamento;
+    private final Duration reserva;
+    private final Duration lease;
+    private final int tamanhoPagina;
+    private final Duration retencao;
+
+    public LembreteCirurgiaService(LembreteCirurgiaRepository lembreteRepository,
+                                   LeaseAgendamentoRepository leaseRepository,
+                                   CirurgiaRepository cirurgiaRepository,
+                                   @Value("${notificacao.instancia:}") String instancia,
+                                   @Value("${notificacao.lembrete.horizontes:P10D,P7D,PT24H,PT2H}") List<Duration> horizontes,
+                                   @Value("${notificacao.lembrete.antecipacao:PT6H}") Duration antecipacao,
+                                   @Value("${notificacao.lembrete.tolerancia:PT30M}") Duration tolerancia,
+                                   @Value("${notificacao.lembrete.espalhamento:PT30M}") Duration espalhamento,
+                                   @Value("${notificacao.lembrete.reserva:PT5M}") Duration reserva,
+                                   @Value("${notificacao.lembrete.planejamento:PT5M}") Duration planejamento,
+                                   @Value("${notificacao.lembrete.tamanho-pagina:200}") int tamanhoPagina,
+                                   @Value("${notificacao.lembrete.retencao:P30D}") Duration retencao) {
+        this.lembreteRepository = lembreteRepository;
+        this.leaseRepository = leaseRepository;
+        this.cirurgiaRepository = cirurgiaRepository;
+        // pid@host identifica a réplica quando nenhum nome é configurado
+        this.instancia = instancia == null || instancia.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : instancia;
+        this.horizontes = List.copyOf(horizontes);
+        this.antecipacao = antecipacao;
+        this.tolerancia = tolerancia;
+        this.espalhamento = espalhamento;
+        this.reserva = reserva;
+        // O coordenador renova o lease a cada planejamento; outra réplica só assume se ele parar
+        this.lease = planejamento.multipliedBy(2);
+        this.tamanhoPagina = tamanhoPagina;
+        this.retencao = retencao;
+        logger.info("Lembretes de cirurgia com antecedência de {} (espalhamento {})", this.horizontes, espalhamento);
+    }
+
+    public String getInstancia() {
+        return instancia;
+    }
+
+    /**
+     * Cria, para cada horizonte, os lembretes com envio nas próximas {@code antecipacao} horas,
+     * se esta réplica detiver o lease de planejamento. Um lembrete atrasado em mais de
+     * {@code tolerancia} (cirurgia cadastrada depois do horizonte) não é criado.
+     *
+     * @return número de lembretes criados
+     */
+    @Transactional
+    public int planejar() {
+        LocalDateTime agora = LocalDateTime.now();
+        if (leaseRepository.adquirir(LEASE_PLANEJAMENTO, instancia, agora, agora.plus(lease)) == 0) {
+            return 0;
+        }
+
+        LocalDateTime inicio = agora.minus(tolerancia);
+        LocalDateTime fim = agora.plus(antecipacao);
+        int criados = 0;
+        for (Duration horizonte : horizontes) {
+            criados += planejarHorizonte(horizonte, inicio, fim, agora);
+        }
+        if (criados > 0) {
+            logger.info("{} lembrete(s) de cirurgia planejado(s) até {}", criados, fim);
+        }
+        return criados;
+    }
+
+    private int planejarHorizonte(Duration horizonte, LocalDateTime inicio, LocalDateTime fim, LocalDateTime agora) {
+        int antecedencia = (int) horizonte.toMinutes();
+        UUID ultimoId = INICIO_PAGINACAO;
+        int criados = 0;
+        while (true) {
+            List<Cirurgia> pagina = cirurgiaRepository.buscarSemLembrete(
+                    inicio.plus(horizonte).toLocalDate(), fim.plus(horizonte).toLocalDate(),
+                    antecedencia, StatusCirurgia.CANCELADA, ultimoId, Limit.of(tamanhoPagina));
+
+            List<LembreteCirurgia> lembretes = new ArrayList<>();
+            for (Cirurgia cirurgia : pagina) {
+                if (cirurgia.getDataCirurgia() == null || cirurgia.getHoraCirurgia() == null) {
+                    continue;
+                }
+                LocalDateTime envio = cirurgia.getDataCirurgia().atTime(cirurgia.getHoraCirurgia()).minus(horizonte);
+                if (envio.isBefore(inicio) || envio.isAfter(fim)) {
+                    continue;
+                }
+                lembretes.add(novo(cirurgia.getId(), antecedencia, envio.minus(deslocamento(cirurgia.getId(), antecedencia)), agora));
+            }
+            lembreteRepository.saveAll(lembretes);
+            criados += lembretes.size();
+
+            if (pagina.size() < tamanhoPagina) {
+                return criados;
+            }
+            ultimoId = pagina.get(pagina.size() - 1).getId();
+        }
+    }
+
+    /**
+     * Antecipa o envio de forma determinística dentro do espalhamento: cirurgias no mesmo
+     * horário não geram todas o lembrete no mesmo segundo.
+     */
+    private Duration deslocamento(UUID cirurgiaId, int antecedencia) {
+        long segundos = espalhamento.toSeconds();
+        if (segundos <= 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofSeconds(Math.floorMod(cirurgiaId.hashCode() * 31L + antecedencia, segundos));
+    }
+
+    /**
+     * Reserva para esta réplica os lembretes que vencem até {@code ate}, incluindo os de uma
+     * réplica que caiu. A reserva vale até o envio previsto mais {@code reserva}.
+     */
+    @Transactional
+    public List<LembreteCirurgia> reservar(LocalDateTime ate, int limite) {
+        LocalDateTime agora = LocalDateTime.now();
+        List<LembreteCirurgia> lembretes = lembreteRepository.bloquearProximos(ate, agora, limite);
+        for (LembreteCirurgia lembrete : lembretes) {
+            if (lembrete.getStatus() == StatusLembrete.AGENDADO) {
+                logger.warn("Reassumindo lembrete {} da cirurgia {} (reserva de {} expirada)",
+                        lembrete.getId(), lembrete.getCirurgiaId(), lembrete.getInstancia());
+            }
+            LocalDateTime base = lembrete.getEnvioPrevisto().isAfter(agora) ? lembrete.getEnvioPrevisto() : agora;
+            lembrete.setStatus(StatusLembrete.AGENDADO);
+            lembrete.setInstancia(instancia);
+            lembrete.setTentativas(lembrete.getTentativas() + 1);
+            lembrete.setReservadoAte(base.plus(reserva));
+        }
+        return lembretes;
+    }
+
+    /**
+     * Bloqueia, na transação do envio, os lembretes que ainda pertencem a esta reserva.
+     * Lembretes descartados (cirurgia alterada ou cancelada) ou reassumidos ficam de fora.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<LembreteCirurgia> confirmarReserva(Collection<LembreteCirurgia> lembretes) {
+        Map<UUID, Integer> tentativas = lembretes.stream()
+                .collect(Collectors.toMap(LembreteCirurgia::getId, LembreteCirurgia::getTentativas));
+        return lembreteRepository.bloquearReservados(tentativas.keySet(), StatusLembrete.AGENDADO, instancia).stream()
+                .filter(lembrete -> tentativas.get(lembrete.getId()) == lembrete.getTentativas())
+                .toList();
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void marcarEnviados(Collection<LembreteCirurgia> lembretes) {
+        LocalDateTime agora = LocalDateTime.now();
+        for (LembreteCirurgia lembrete : lembretes) {
+            lembrete.setStatus(StatusLembrete.ENVIADO);
+            lembrete.setDataEnvio(agora);
+            lembrete.setReservadoAte(null);
+        }
+    }
+
+    /**
+     * Devolve lembretes que não serão enviados por esta réplica (ex.: no desligamento), para que
+     * outra os reserve sem esperar a reserva expirar.
+     */
+    @Transactional
+    public int liberar(Collection<LembreteCirurgia> lembretes) {
+        if (lembretes.isEmpty()) {
+            return 0;
+        }
+        return lembreteRepository.liberar(lembretes.stream().map(LembreteCirurgia::getId).toList(),
+                instancia, StatusLembrete.AGENDADO, StatusLembrete.PENDENTE);
+    }
+
+    /**
+     * Descarta os lembretes ainda não enviados de uma cirurgia cancelada.
+     */
+    @Transactional
+    public int descartarPendentes(UUID cirurgiaId) {
+        return lembreteRepository.removerDaCirurgia(cirurgiaId, NAO_ENVIADOS);
+    }
+
+    /**
+     * Descarta os lembretes de uma cirurgia alterada para que o próximo planejamento os recrie
+     * com o novo horário. Um lembrete já enviado também é descartado se o seu horizonte ainda
+     * não passou no novo horário; os de horizontes já vencidos ficam, e não são reenviados.
+     * Sem data ou hora, todos são descartados.
+     *
+     * @return quantidade de lembretes descartados
+     */
+    @Transactional
+    public int reagendar(UUID cirurgiaId, LocalDate dataCirurgia, LocalTime horaCirurgia) {
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime cirurgia = dataCirurgia != null && horaCirurgia != null ? dataCirurgia.atTime(horaCirurgia) : null;
+        List<LembreteCirurgia> descartados = lembreteRepository.findByCirurgiaId(cirurgiaId).stream()
+                .filter(lembrete -> lembrete.getStatus() != StatusLembrete.ENVIADO || cirurgia == null
+                        || cirurgia.minusMinutes(lembrete.getAntecedenciaMinutos()).isAfter(agora))
+                .toList();
+        if (!descartados.isEmpty()) {
+            lembreteRepository.deleteAllInBatch(descartados);
+        }
+        return descartados.size();
+    }
+
+    @Transactional
+    @Scheduled(cron = "${notificacao.lembrete.limpeza:0 30 3 * * *}")
+    public void removerAntigos() {
+        int removidos = lembreteRepository.removerEnviadosAntesDe(StatusLembrete.ENVIADO, LocalDateTime.now().minus(retencao));
+        if (removidos > 0) {
+            logger.info("{} lembrete(s) enviado(s) removido(s)", removidos);
+        }
+    }
+
+    private static LembreteCirurgia novo(UUID cirurgiaId, int antecedencia, LocalDateTime envioPrevisto, LocalDateTime agora) {
+        LembreteCirurgia lembrete = new LembreteCirurgia();
+        lembrete.setCirurgiaId(cirurgiaId);
+        lembrete.setAntecedenciaMinutos(antecedencia);
+        lembrete.setEnvioPrevisto(envioPrevisto);
+        lembrete.setStatus(StatusLembrete.PENDENTE);
+        lembrete.setDataCriacao(agora);
+        return lembrete;
+    }
+}
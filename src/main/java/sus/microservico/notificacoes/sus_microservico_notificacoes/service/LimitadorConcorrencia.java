@@ -0,0 +1,86 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Limita quantas chamadas usam ao mesmo tempo uma dependência externa (banco, SMTP, Twilio).
+ * Com threads virtuais o número de threads deixa de ser o limite: sem este controle, milhares
+ * de tarefas ficariam presas no pool de conexões até estourar o tempo de espera dele. A fila é
+ * justa (FIFO) e quem não consegue permissão dentro de {@code esperaMaxima} desiste.
+ */
+public class LimitadorConcorrencia {
+
+    private final String nome;
+    private final int limite;
+    private final Duration esperaMaxima;
+    private final Semaphore permissoes;
+
+    public LimitadorConcorrencia(String nome, int limite, Duration esperaMaxima) {
+        if (limite < 1) {
+            throw new IllegalArgumentException("Limite de concorrência de " + nome + " deve ser positivo");
+        }
+        this.nome = nome;
+        this.limite = limite;
+        this.esperaMaxima = esperaMaxima;
+        this.permissoes = new Semaphore(limite, true);
+    }
+
+    /**
+     * @return {@code false} se nenhuma permissão foi liberada dentro de {@code esperaMaxima}
+     */
+    public boolean adquirir() throws InterruptedException {
+        return permissoes.tryAcquire(esperaMaxima.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public void liberar() {
+        permissoes.release();
+    }
+
+    /**
+     * Executa a chamada com uma permissão.
+     *
+     * @throws IllegalStateException se a espera por permissão passar de {@code esperaMaxima}
+     */
+    public <T> T executar(Supplier<T> chamada) {
+        try {
+            if (!adquirir()) {
+                throw new IllegalStateException("Limite de " + limite + " chamada(s) simultânea(s) a " + nome
+                        + " atingido (espera de " + esperaMaxima + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando permissão de " + nome, e);
+        }
+        try {
+            return chamada.get();
+        } finally {
+            liberar();
+        }
+    }
+
+    public void executar(Runnable chamada) {
+        executar(() -> {
+            chamada.run();
+            return null;
+        });
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    public int emUso() {
+        return limite - permissoes.availablePermits();
+    }
+
+    public int aguardando() {
+        return permissoes.getQueueLength();
+    }
+}
@@ -0,0 +1,75 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket: libera até {@code permissoesPorSegundo} em regime, com rajadas de até
+ * {@code capacidade}. Quem chega sem token disponível reserva o próximo e espera a sua vez,
+ * o que distribui as rajadas no tempo em vez de rejeitá-las.
+ */
+public class LimitadorTaxa {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final double capacidade;
+    private final double nanosPorPermissao;
+    private double tokens;
+    private long ultimaReposicao;
+
+    public LimitadorTaxa(double permissoesPorSegundo, int capacidade) {
+        if (permissoesPorSegundo <= 0 || capacidade < 1) {
+            throw new IllegalArgumentException("Taxa e capacidade devem ser positivas");
+        }
+        this.capacidade = capacidade;
+        this.nanosPorPermissao = TimeUnit.SECONDS.toNanos(1) / permissoesPorSegundo;
+        this.tokens = capacidade;
+        this.ultimaReposicao = System.nanoTime();
+    }
+
+    /**
+     * Aguarda uma permissão, desde que a espera não passe de {@code esperaMaxima}.
+     *
+     * @return {@code false} se a fila de espera já é maior que o permitido; nesse caso
+     * nenhuma permissão é consumida
+     * @throws InterruptedException se interrompido durante a espera; a permissão reservada é devolvida
+     */
+    public boolean adquirir(Duration esperaMaxima) throws InterruptedException {
+        long espera;
+        lock.lock();
+        try {
+            long agora = System.nanoTime();
+            tokens = Math.min(capacidade, tokens + (agora - ultimaReposicao) / nanosPorPermissao);
+            ultimaReposicao = agora;
+            
+            // Tokens negativos representam permissões já reservadas por quem está esperando
+            espera = tokens >= 1 ? 0 : (long) ((1 - tokens) * nanosPorPermissao);
+            if (espera > esperaMaxima.toNanos()) {
+                return false;
+            }
+            tokens -= 1;
+        } finally {
+            lock.unlock();
+        }
+        
+        if (espera > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(espera);
+            } catch (InterruptedException e) {
+                devolver();
+                throw e;
+            }
+        }
+        return true;
+    }
+
+    /** Devolve o token reservado por quem desistiu de esperar, para que os seguintes não paguem por ele. */
+    private void devolver() {
+        lock.lock();
+        try {
+            tokens = Math.min(capacidade, tokens + 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
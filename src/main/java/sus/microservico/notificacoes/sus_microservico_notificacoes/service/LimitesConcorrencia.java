@@ -0,0 +1,59 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Um limitador por dependência externa. O do banco fica abaixo do tamanho do pool do Hikari,
+ * reservando conexões para o outbox e os lembretes; os de SMTP e Twilio acompanham as
+ * conexões que os respectivos pools mantêm abertas.
+ */
+@Component
+public class LimitesConcorrencia {
+
+    public static final String BANCO = "banco";
+    public static final String SMTP = "smtp";
+    public static final String TWILIO = "twilio";
+
+    private final Logger logger = LoggerFactory.getLogger(LimitesConcorrencia.class);
+    private final LimitadorConcorrencia banco;
+    private final LimitadorConcorrencia smtp;
+    private final LimitadorConcorrencia twilio;
+
+    public LimitesConcorrencia(NotificacaoMetricas metricas,
+                               @Value("${spring.datasource.hikari.maximum-pool-size:10}") int conexoesBanco,
+                               @Value("${notificacao.limites.banco.reserva:2}") int reservaBanco,
+                               @Value("${notificacao.limites.banco.espera:PT30S}") Duration esperaBanco,
+                               @Value("${notificacao.limites.smtp.concorrencia:200}") int concorrenciaSmtp,
+                               @Value("${notificacao.limites.smtp.espera:PT60S}") Duration esperaSmtp,
+                               @Value("${notificacao.sms.twilio.max-conexoes:20}") int conexoesTwilio,
+                               @Value("${notificacao.limites.twilio.espera:PT30S}") Duration esperaTwilio) {
+        this.banco = new LimitadorConcorrencia(BANCO, Math.max(1, conexoesBanco - reservaBanco), esperaBanco);
+        this.smtp = new LimitadorConcorrencia(SMTP, concorrenciaSmtp, esperaSmtp);
+        this.twilio = new LimitadorConcorrencia(TWILIO, conexoesTwilio, esperaTwilio);
+        for (LimitadorConcorrencia limitador : new LimitadorConcorrencia[]{banco, smtp, twilio}) {
+            metricas.monitorarLimitador(limitador);
+        }
+        logger.info("Concorrência máxima por dependência: banco {}, SMTP {}, Twilio {}",
+                banco.getLimite(), smtp.getLimite(), twilio.getLimite());
+    }
+
+    /**
+     * Consumidores de eventos e requisições HTTP; o outbox e os lembretes usam as conexões reservadas.
+     */
+    public LimitadorConcorrencia banco() {
+        return banco;
+    }
+
+    public LimitadorConcorrencia smtp() {
+        return smtp;
+    }
+
+    public LimitadorConcorrencia twilio() {
+        return twilio;
+    }
+}
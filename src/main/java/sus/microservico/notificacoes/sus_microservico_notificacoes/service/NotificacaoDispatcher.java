@@ -0,0 +1,213 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.EntregaNotificacao;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.FaixaEnvio;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.ResultadoEnvio;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Estágio de despacho das notificações: cada canal (e-mail e SMS) possui seu próprio
+ * executor limitado (bulkhead) e seu próprio {@link Disjuntor}, usados pelo worker do outbox
+ * para enviar as entregas em paralelo. Um canal degradado não prende o outro: com o disjuntor
+ * aberto ou a fila do executor cheia, a entrega é recusada na hora como
+ * {@link ResultadoEnvio#ADIADO} e volta ao outbox, em vez de esperar os timeouts do provedor.
+ * Cada canal reserva ainda um executor à parte para a faixa urgente, que não disputa threads
+ * nem fila com os envios da faixa normal.
+ */
+@Component
+public class NotificacaoDispatcher {
+
+    private final Logger logger = LoggerFactory.getLogger(NotificacaoDispatcher.class);
+    private final EmailService emailService;
+    private final SmsService smsService;
+    private final NotificacaoMetricas metricas;
+    private final ThreadPoolExecutor emailExecutor;
+    private final ThreadPoolExecutor smsExecutor;
+    private final ThreadPoolExecutor emailUrgenteExecutor;
+    private final ThreadPoolExecutor smsUrgenteExecutor;
+    private final Disjuntor emailDisjuntor;
+    private final Disjuntor smsDisjuntor;
+
+    public NotificacaoDispatcher(EmailService emailService,
+                                 SmsService smsService,
+                                 NotificacaoMetricas metricas,
+                                 @Value("${notificacao.envio.email.threads:16}") int emailThreads,
+                                 @Value("${notificacao.envio.email.fila:500}") int emailFila,
+                                 @Value("${notificacao.envio.sms.threads:8}") int smsThreads,
+                                 @Value("${notificacao.envio.sms.fila:500}") int smsFila,
+                                 @Value("${notificacao.envio.urgente.threads:4}") int urgenteThreads,
+                                 @Value("${notificacao.envio.urgente.fila:100}") int urgenteFila,
+                                 @Value("${notificacao.envio.disjuntor.janela:20}") int janela,
+                                 @Value("${notificacao.envio.disjuntor.minimo-chamadas:10}") int minimoChamadas,
+                                 @Value("${notificacao.envio.disjuntor.taxa-falhas:0.5}") double taxaFalhas,
+                                 @Value("${notificacao.envio.disjuntor.tempo-aberto:PT30S}") Duration tempoAberto,
+                                 @Value("${notificacao.envio.disjuntor.chamadas-teste:3}") int chamadasTeste) {
+        this.emailService = emailService;
+        this.smsService = smsService;
+        this.metricas = metricas;
+        this.emailExecutor = criarExecutor("envio-email-", emailThreads, emailFila);
+        this.smsExecutor = criarExecutor("envio-sms-", smsThreads, smsFila);
+        this.emailUrgenteExecutor = criarExecutor("envio-email-urgente-", urgenteThreads, urgenteFila);
+        this.smsUrgenteExecutor = criarExecutor("envio-sms-urgente-", urgenteThreads, urgenteFila);
+        metricas.monitorarExecutor(NotificacaoMetricas.CANAL_EMAIL, FaixaEnvio.NORMAL, emailExecutor);
+        metricas.monitorarExecutor(NotificacaoMetricas.CANAL_SMS, FaixaEnvio.NORMAL, smsExecutor);
+        metricas.monitorarExecutor(NotificacaoMetricas.CANAL_EMAIL, FaixaEnvio.URGENTE, emailUrgenteExecutor);
+        metricas.monitorarExecutor(NotificacaoMetricas.CANAL_SMS, FaixaEnvio.URGENTE, smsUrgenteExecutor);
+        this.emailDisjuntor = new Disjuntor(NotificacaoMetricas.CANAL_EMAIL, janela, minimoChamadas, taxaFalhas, tempoAberto, chamadasTeste);
+        this.smsDisjuntor = new Disjuntor(NotificacaoMetricas.CANAL_SMS, janela, minimoChamadas, taxaFalhas, tempoAberto, chamadasTeste);
+        metricas.monitorarDisjuntor(emailDisjuntor);
+        metricas.monitorarDisjuntor(smsDisjuntor);
+        logger.info("Dispatcher de notificações iniciado (e-mail: {} threads/fila {}, SMS: {} threads/fila {}, "
+                        + "urgentes: {} threads/fila {} por canal)",
+                emailThreads, emailFila, smsThreads, smsFila, urgenteThreads, urgenteFila);
+    }
+
+    /**
+     * Envia uma entrega do outbox no executor do seu canal e da sua faixa de prioridade.
+     *
+     * @return futuro concluído com {@link ResultadoEnvio#ENVIADO} se o provedor aceitou a mensagem,
+     * ou {@link ResultadoEnvio#ADIADO} se a entrega foi recusada sem chegar ao provedor (disjuntor,
+     * executor cheio, limitador local ou canal não configurado)
+     */
+    public CompletableFuture<ResultadoEnvio> enviar(EntregaNotificacao entrega) {
+        boolean urgente = PrioridadeNotificacao.faixa(entrega.getPrioridade()) == FaixaEnvio.URGENTE;
+        return switch (entrega.getCanal()) {
+            case EMAIL -> enviar(NotificacaoMetricas.CANAL_EMAIL, entrega, urgente ? emailUrgenteExecutor : emailExecutor,
+                    emailDisjuntor,
+                    () -> emailService.enviarEmail(entrega.getDestinatario(), entrega.getAssunto(), entrega.getMensagem()));
+            case SMS -> enviar(NotificacaoMetricas.CANAL_SMS, entrega, urgente ? smsUrgenteExecutor : smsExecutor,
+                    smsDisjuntor,
+                    () -> smsService.enviarSMS(entrega.getDestinatario(), entrega.getMensagem()));
+        };
+    }
+
+    private CompletableFuture<ResultadoEnvio> enviar(String canal, EntregaNotificacao entrega, ThreadPoolExecutor executor,
+                                                     Disjuntor disjuntor, Supplier<ResultadoEnvio> envio) {
+        // Com o disjuntor aberto, nem entra na fila atrás dos envios lentos que ainda estão em andamento
+        if (disjuntor.recusando()) {
+            return CompletableFuture.completedFuture(adiar(canal, entrega, NotificacaoMetricas.MOTIVO_DISJUNTOR));
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                Optional<Disjuntor.Permissao> permissao = disjuntor.permitir();
+                if (permissao.isEmpty()) {
+                    return adiar(canal, entrega, NotificacaoMetricas.MOTIVO_DISJUNTOR);
+                }
+                ResultadoEnvio resultado = ResultadoEnvio.FALHA;
+                try {
+                    resultado = medir(canal, entrega, envio);
+                } finally {
+                    // Recusas locais (limitador, canal não configurado) não dizem nada sobre o provedor
+                    if (resultado == ResultadoEnvio.ADIADO) {
+                        disjuntor.liberar(permissao.get());
+                    } else {
+                        disjuntor.registrar(permissao.get(), resultado == ResultadoEnvio.ENVIADO);
+                    }
+                }
+                if (resultado == ResultadoEnvio.ENVIADO) {
+                    metricas.registrarLatenciaEntrega(PrioridadeNotificacao.faixa(entrega.getPrioridade()), entrega.getDataCriacao());
+                }
+                return resultado;
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            if (executor.isShutdown()) {
+                throw e;
+            }
+            return CompletableFuture.completedFuture(adiar(canal, entrega, NotificacaoMetricas.MOTIVO_BULKHEAD));
+        }
+    }
+
+    private ResultadoEnvio adiar(String canal, EntregaNotificacao entrega, String motivo) {
+        metricas.registrarEnvioAdiado(canal, motivo);
+        logger.atDebug()
+                .addKeyValue("canal", canal)
+                .addKeyValue("entregaId", entrega.getId())
+                .addKeyValue("motivo", motivo)
+                .log("Entrega de notificação adiada");
+        return ResultadoEnvio.ADIADO;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        List<ThreadPoolExecutor> executores = List.of(emailUrgenteExecutor, smsUrgenteExecutor, emailExecutor, smsExecutor);
+        executores.forEach(ThreadPoolExecutor::shutdown);
+        try {
+            for (ThreadPoolExecutor executor : executores) {
+                if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            executores.forEach(ThreadPoolExecutor::shutdownNow);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ResultadoEnvio medir(String canal, EntregaNotificacao entrega, Supplier<ResultadoEnvio> envio) {
+        AtomicInteger emAndamento = metricas.enviosEmAndamento(canal);
+        var amostra = metricas.iniciar();
+        long inicio = System.nanoTime();
+        emAndamento.incrementAndGet();
+        ResultadoEnvio resultado = ResultadoEnvio.FALHA;
+        try {
+            resultado = envio.get();
+            return resultado;
+        } finally {
+            emAndamento.decrementAndGet();
+            if (resultado == ResultadoEnvio.ADIADO) {
+                metricas.registrarEnvioAdiado(canal, NotificacaoMetricas.MOTIVO_LIMITE);
+            } else {
+                metricas.registrarEnvio(amostra, canal, entrega.getTipo(), resultado == ResultadoEnvio.ENVIADO);
+            }
+            registrarResultado(canal, entrega, resultado, inicio);
+        }
+    }
+
+    /**
+     * Uma linha por envio, com o resultado do canal; o {@code grupoId} liga as entregas de
+     * e-mail e SMS da mesma notificação.
+     */
+    private void registrarResultado(String canal, EntregaNotificacao entrega, ResultadoEnvio resultado, long inicio) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        logger.atInfo()
+                .addKeyValue("canal", canal)
+                .addKeyValue("tipo", entrega.getTipo())
+                .addKeyValue("entregaId", entrega.getId())
+                .addKeyValue("grupoId", entrega.getGrupoId())
+                .addKeyValue("cirurgiaId", entrega.getCirurgiaId())
+                .addKeyValue("pacienteId", entrega.getPacienteId())
+                .addKeyValue("tentativa", entrega.getTentativas())
+                .addKeyValue("resultado", resultado)
+                .addKeyValue("duracaoMs", (System.nanoTime() - inicio) / 1_000_000)
+                .log("Entrega de notificação processada");
+    }
+
+    private static ThreadPoolExecutor criarExecutor(String prefixo, int threads, int fila) {
+        return new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fila),
+                Thread.ofVirtual().name(prefixo, 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+}
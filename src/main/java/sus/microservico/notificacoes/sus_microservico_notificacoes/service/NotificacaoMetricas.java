@@ -0,0 +1,257 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.config.RabbitMQConfig;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.FaixaEnvio;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.TipoNotificacao;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Métricas do caminho de notificação, expostas em {@code /actuator/prometheus}.
+ */
+@Component
+public class NotificacaoMetricas {
+
+    public static final String CANAL_EMAIL = "email";
+    public static final String CANAL_SMS = "sms";
+    public static final String MOTIVO_DISJUNTOR = "disjuntor";
+    public static final String MOTIVO_BULKHEAD = "bulkhead";
+    /** Recusa do próprio serviço de envio: limitador local esgotado ou canal não configurado. */
+    public static final String MOTIVO_LIMITE = "limite";
+
+    private static final List<String> FILAS = List.of(
+            RabbitMQConfig.CIRURGIA_CRIADA_QUEUE,
+            RabbitMQConfig.CIRURGIA_ATUALIZADA_QUEUE,
+            RabbitMQConfig.CIRURGIA_CANCELADA_QUEUE,
+            RabbitMQConfig.PARKING_LOT_QUEUE
+    );
+
+    private final Logger logger = LoggerFactory.getLogger(NotificacaoMetricas.class);
+    private final MeterRegistry registry;
+    private final AmqpAdmin amqpAdmin;
+    private final Map<String, AtomicInteger> enviosEmAndamento = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> profundidadeFilas = new ConcurrentHashMap<>();
+
+    public NotificacaoMetricas(MeterRegistry registry, AmqpAdmin amqpAdmin) {
+        this.registry = registry;
+        this.amqpAdmin = amqpAdmin;
+        
+        for (String canal : List.of(CANAL_EMAIL, CANAL_SMS)) {
+            AtomicInteger emAndamento = new AtomicInteger();
+            enviosEmAndamento.put(canal, emAndamento);
+            Gauge.builder("notificacao.envio.em_andamento", emAndamento, AtomicInteger::get)
+                    .description("Envios em andamento no provedor")
+                    .tag("canal", canal)
+                    .register(registry);
+        }
+        
+        for (String fila : FILAS) {
+            AtomicLong profundidade = new AtomicLong();
+            profundidadeFilas.put(fila, profundidade);
+            Gauge.builder("notificacao.fila.profundidade", profundidade, AtomicLong::get)
+                    .description("Mensagens aguardando consumo na fila RabbitMQ")
+                    .tag("fila", fila)
+                    .register(registry);
+        }
+    }
+
+    public Timer.Sample iniciar() {
+        return Timer.start(registry);
+    }
+
+    public AtomicInteger enviosEmAndamento(String canal) {
+        return enviosEmAndamento.get(canal);
+    }
+
+    public void monitorarExecutor(String canal, FaixaEnvio faixa, ThreadPoolExecutor executor) {
+        Gauge.builder("notificacao.envio.fila", executor, e -> e.getQueue().size())
+                .description("Envios aguardando thread livre no executor do canal")
+                .tag("canal", canal)
+                .tag("faixa", faixa.tag())
+                .register(registry);
+    }
+
+    public void monitorarLimitador(LimitadorConcorrencia limitador) {
+        Gauge.builder("notificacao.limite.em_uso", limitador, LimitadorConcorrencia::emUso)
+                .description("Chamadas em andamento na dependência externa")
+                .tag("dependencia", limitador.getNome())
+                .register(registry);
+        Gauge.builder("notificacao.limite.aguardando", limitador, LimitadorConcorrencia::aguardando)
+                .description("Chamadas aguardando permissão para usar a dependência externa")
+                .tag("dependencia", limitador.getNome())
+                .register(registry);
+    }
+
+    /**
+     * Estado do disjuntor do canal: 0 fechado, 1 aberto, 2 semiaberto.
+     */
+    public void monitorarDisjuntor(Disjuntor disjuntor) {
+        Gauge.builder("notificacao.disjuntor.estado", disjuntor, d -> d.getEstado().ordinal())
+                .description("Estado do disjuntor do canal (0 fechado, 1 aberto, 2 semiaberto)")
+                .tag("canal", disjuntor.getNome())
+                .register(registry);
+    }
+
+    public void registrarEnvioAdiado(String canal, String motivo) {
+        Counter.builder("notificacao.envio.adiado")
+                .description("Entregas recusadas sem chamar o provedor e devolvidas ao outbox")
+                .tag("canal", canal)
+                .tag("motivo", motivo)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Expõe acertos, faltas e remoções do cache como {@code cache.gets}, {@code cache.evictions} etc.
+     */
+    public void monitorarCache(String nome, Cache<?, ?> cache) {
+        CaffeineCacheMetrics.monitor(registry, cache, nome);
+    }
+
+    public void monitorarLembretesAgendados(Supplier<Number> agendados) {
+        Gauge.builder("notificacao.lembrete.agendados", agendados)
+                .description("Lembretes carregados na roda de temporização desta instância")
+                .register(registry);
+    }
+
+    public void registrarEnvio(Timer.Sample amostra, String canal, TipoNotificacao tipo, boolean sucesso) {
+        amostra.stop(Timer.builder("notificacao.envio")
+                .description("Tempo de envio por canal e tipo de notificação")
+                .tag("canal", canal)
+                .tag("tipo", tipo.tag())
+                .tag("resultado", resultado(sucesso))
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    /**
+     * Tempo entre a gravação da entrega no outbox e o envio aceito pelo provedor, por faixa de
+     * prioridade. Os limites de SLO permitem acompanhar a fração de envios urgentes dentro do prazo.
+     */
+    public void registrarLatenciaEntrega(FaixaEnvio faixa, LocalDateTime dataCriacao) {
+        if (dataCriacao == null) {
+            return;
+        }
+        Timer.builder("notificacao.entrega.latencia")
+                .description("Tempo entre a gravação no outbox e o envio da notificação")
+                .tag("faixa", faixa.tag())
+                .serviceLevelObjectives(Duration.ofSeconds(5), Duration.ofSeconds(30), Duration.ofMinutes(5))
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(Duration.between(dataCriacao, LocalDateTime.now()));
+    }
+
+    /**
+     * Mede o processamento de um evento, do recebimento até a gravação no outbox.
+     */
+    public void registrarConsumo(Timer.Sample amostra, String evento, boolean sucesso) {
+        amostra.stop(timerConsumo(evento, sucesso));
+    }
+
+    /**
+     * Consumo em lote: cada mensagem só é confirmada ao fim do lote, então todas são registradas
+     * com a duração do lote inteiro, uma observação por mensagem.
+     */
+    public void registrarConsumoLote(String evento, long duracaoNanos, int sucessos, int falhas) {
+        Timer sucesso = timerConsumo(evento, true);
+        for (int i = 0; i < sucessos; i++) {
+            sucesso.record(duracaoNanos, TimeUnit.NANOSECONDS);
+        }
+        Timer falha = timerConsumo(evento, false);
+        for (int i = 0; i < falhas; i++) {
+            falha.record(duracaoNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timerConsumo(String evento, boolean sucesso) {
+        return Timer.builder("notificacao.consumer")
+                .description("Tempo de processamento de eventos recebidos do RabbitMQ")
+                .tag("evento", evento)
+                .tag("resultado", resultado(sucesso))
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public void registrarFallbackAssistenteSocial(TipoNotificacao tipo) {
+        Counter.builder("notificacao.fallback.assistente_social")
+                .description("Notificações que viraram tarefa para assistente social")
+                .tag("tipo", tipo.tag())
+                .register(registry)
+                .increment();
+    }
+
+    public void registrarRetentativa(String destino) {
+        Counter.builder("notificacao.mensagem.retentativa")
+                .description("Mensagens com erro republicadas com atraso ou enviadas ao parking lot")
+                .tag("destino", destino)
+                .register(registry)
+                .increment();
+    }
+
+    public void registrarEventoDuplicado(TipoNotificacao tipo, String origem) {
+        Counter.builder("notificacao.evento.duplicado")
+                .description("Eventos reentregues descartados pela deduplicação")
+                .tag("tipo", tipo.tag())
+                .tag("origem", origem)
+                .register(registry)
+                .increment();
+    }
+
+    public void registrarAtualizacoesSubstituidas(int quantidade) {
+        registry.counter("notificacao.atualizacao.substituida").increment(quantidade);
+    }
+
+    public void registrarCriacaoTarefa(Timer.Sample amostra, boolean sucesso) {
+        amostra.stop(Timer.builder("notificacao.tarefa.criacao")
+                .description("Tempo de criação de tarefa para assistente social")
+                .tag("resultado", resultado(sucesso))
+                .register(registry));
+    }
+
+    public void registrarExecucaoLembretes(Timer.Sample amostra, int encontradas, int notificadas) {
+        amostra.stop(Timer.builder("notificacao.lembrete.execucao")
+                .description("Duração da execução do job de lembretes")
+                .register(registry));
+        registry.counter("notificacao.lembrete.cirurgias", "resultado", "sucesso").increment(notificadas);
+        registry.counter("notificacao.lembrete.cirurgias", "resultado", "falha").increment(encontradas - notificadas);
+    }
+
+    @Scheduled(fixedDelayString = "${notificacao.metricas.intervalo-filas:PT15S}")
+    public void atualizarProfundidadeFilas() {
+        for (String fila : FILAS) {
+            try {
+                QueueInformation info = amqpAdmin.getQueueInfo(fila);
+                if (info != null) {
+                    profundidadeFilas.get(fila).set(info.getMessageCount());
+                }
+            } catch (Exception e) {
+                logger.debug("Não foi possível consultar a profundidade da fila {}: {}", fila, e.getMessage());
+            }
+        }
+    }
+
+    private static String resultado(boolean sucesso) {
+        return sucesso ? "sucesso" : "falha";
+    }
+}
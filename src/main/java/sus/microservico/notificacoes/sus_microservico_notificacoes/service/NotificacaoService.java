@@ -1,540 +1,416 @@
 package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
 
-import com.twilio.Twilio;
-import com.twilio.rest.api.v2010.account.Message;
-import com.twilio.type.PhoneNumber;
-import jakarta.annotation.PostConstruct;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.event.NotificacaoCirurgiaAtualizadaEvent;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.event.NotificacaoCirurgiaCanceladaEvent;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.event.NotificacaoCirurgiaCriadaEvent;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.event.NotificacaoCirurgiaEvent;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.model.AssistenteSocial;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.EntregaNotificacao;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.model.Paciente;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.model.TarefaAssistenteSocial;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.CanalNotificacao;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.StatusTarefa;
-import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.AssistenteSocialRepository;
-import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.PacienteRepository;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.TipoNotificacao;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.TarefaAssistenteSocialRepository;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.template.Formatos;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.template.TemplateMensagemEngine;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.template.TipoTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
 
 @Service
 public class NotificacaoService {
 
+    private static final String RESULTADO_ENFILEIRADO = "ENFILEIRADO";
+    private static final String RESULTADO_DUPLICADO = "DUPLICADO";
+    private static final String RESULTADO_PACIENTE_NAO_ENCONTRADO = "PACIENTE_NAO_ENCONTRADO";
+    private static final String RESULTADO_SEM_CONTATO = "SEM_CONTATO";
+
     private final Logger logger = LoggerFactory.getLogger(NotificacaoService.class);
-    private final PacienteRepository pacienteRepository;
+    private final CacheCadastros cacheCadastros;
     private final TarefaAssistenteSocialRepository tarefaRepository;
-    private final AssistenteSocialRepository assistenteSocialRepository;
-    private final JavaMailSender mailSender;
-    
-    @Value("${twilio.account.sid}")
-    private String twilioAccountSid;
-    
-    @Value("${twilio.auth.token}")
-    private String twilioAuthToken;
-    
-    @Value("${twilio.phone.number}")
-    private String twilioPhoneNumber;
-    
-    @Value("${spring.mail.username}")
-    private String emailFrom;
+    private final IndiceCargaAssistenteSocial indiceCarga;
+    private final EntregaNotificacaoService entregaService;
+    private final TemplateMensagemEngine templateEngine;
+    private final NotificacaoMetricas metricas;
+    private final DeduplicacaoEventos deduplicacao;
+    private final LembreteCirurgiaService lembreteService;
+    private final Duration janelaCoalescencia;
     
-    public NotificacaoService(PacienteRepository pacienteRepository, 
+    public NotificacaoService(CacheCadastros cacheCadastros,
                              TarefaAssistenteSocialRepository tarefaRepository,
-                             AssistenteSocialRepository assistenteSocialRepository,
-                             JavaMailSender mailSender) {
-        this.pacienteRepository = pacienteRepository;
+                             IndiceCargaAssistenteSocial indiceCarga,
+                             EntregaNotificacaoService entregaService,
+                             TemplateMensagemEngine templateEngine,
+                             NotificacaoMetricas metricas,
+                             DeduplicacaoEventos deduplicacao,
+                             LembreteCirurgiaService lembreteService,
+                             @Value("${notificacao.coalescencia.janela:PT60S}") Duration janelaCoalescencia) {
+        this.cacheCadastros = cacheCadastros;
         this.tarefaRepository = tarefaRepository;
-        this.assistenteSocialRepository = assistenteSocialRepository;
-        this.mailSender = mailSender;
+        this.indiceCarga = indiceCarga;
+        this.entregaService = entregaService;
+        this.templateEngine = templateEngine;
+        this.metricas = metricas;
+        this.deduplicacao = deduplicacao;
+        this.lembreteService = lembreteService;
+        this.janelaCoalescencia = janelaCoalescencia;
     }
-    
-    @PostConstruct
-    public void initTwilio() {
-        if (twilioAccountSid != null && !twilioAccountSid.isBlank() && 
-            twilioAuthToken != null && !twilioAuthToken.isBlank()) {
-            Twilio.init(twilioAccountSid, twilioAuthToken);
-            logger.info("Twilio inicializado com sucesso");
-        } else {
-            logger.warn("Credenciais do Twilio não configuradas - SMS não será enviado");
+
+    @Transactional
+    public void processarNotificacaoCriacao(NotificacaoCirurgiaCriadaEvent evento) {
+        processar(evento, TipoNotificacao.CRIACAO, this::notificarCriacao);
+    }
+
+    @Transactional
+    public void processarNotificacaoAtualizacao(NotificacaoCirurgiaAtualizadaEvent evento) {
+        processar(evento, TipoNotificacao.ATUALIZACAO, this::notificarAtualizacao);
+    }
+
+    @Transactional
+    public void processarNotificacaoCancelamento(NotificacaoCirurgiaCanceladaEvent evento) {
+        processar(evento, TipoNotificacao.CANCELAMENTO, this::notificarCancelamento);
+    }
+
+    /**
+     * O registro do evento na deduplicação e as entregas no outbox são gravados na mesma
+     * transação: uma reentrega do mesmo evento é descartada sem notificar o paciente de novo.
+     */
+    private <E extends NotificacaoCirurgiaEvent> void processar(
+            E evento, TipoNotificacao tipo, BiFunction<E, Paciente, List<EntregaNotificacao>> notificacao) {
+        long inicio = System.nanoTime();
+        if (!deduplicacao.registrar(evento, tipo)) {
+            registrarResultado(evento, tipo, RESULTADO_DUPLICADO, List.of(), inicio);
+            return;
         }
+        
+        Paciente paciente = cacheCadastros.buscarPaciente(evento.pacienteId()).orElse(null);
+        List<EntregaNotificacao> entregas = notificacao.apply(evento, paciente);
+        entregaService.enfileirar(entregas);
+        registrarResultado(evento, tipo, resultado(paciente, entregas), entregas, inicio);
     }
 
-    public void processarNotificacaoCriacao(NotificacaoCirurgiaCriadaEvent evento) {
-        try {
-            logger.info("==========================================================");
-            logger.info("PROCESSANDO NOTIFICAÇÃO DE CRIAÇÃO");
-            logger.info("Cirurgia ID: {}", evento.cirurgiaId());
-            logger.info("Paciente ID: {}", evento.pacienteId());
-            logger.info("==========================================================");
-            
-            Paciente paciente = pacienteRepository.findById(evento.pacienteId()).orElse(null);
-            
-            if (paciente == null) {
-                logger.error("==========================================================");
-                logger.error("PACIENTE NÃO ENCONTRADO");
-                logger.error("Paciente ID: {}", evento.pacienteId());
-                logger.error("Tabela: tb_usuario_paciente");
-                logger.error("Verifique se o paciente foi cadastrado corretamente!");
-                logger.error("==========================================================");
-                return;
+    @Transactional
+    public void processarLoteCriacao(List<NotificacaoCirurgiaCriadaEvent> eventos) {
+        processarLote(eventos, TipoNotificacao.CRIACAO, this::notificarCriacao);
+    }
+
+    @Transactional
+    public void processarLoteAtualizacao(List<NotificacaoCirurgiaAtualizadaEvent> eventos) {
+        processarLote(eventos, TipoNotificacao.ATUALIZACAO, this::notificarAtualizacao);
+    }
+
+    @Transactional
+    public void processarLoteCancelamento(List<NotificacaoCirurgiaCanceladaEvent> eventos) {
+        processarLote(eventos, TipoNotificacao.CANCELAMENTO, this::notificarCancelamento);
+    }
+
+    /**
+     * Carrega todos os pacientes do lote em uma única consulta e grava as entregas de todos os
+     * eventos no outbox em uma única transação. É tudo ou nada: o erro de um evento é propagado
+     * e desfaz o lote inteiro, inclusive a deduplicação dos demais, para que nenhum evento fique
+     * registrado como processado sem as suas entregas. Quem chama refaz os eventos um a um.
+     */
+    private <E extends NotificacaoCirurgiaEvent> void processarLote(
+            List<E> eventos, TipoNotificacao tipo, BiFunction<E, Paciente, List<EntregaNotificacao>> notificacao) {
+        Map<UUID, Paciente> pacientes = carregarPacientes(eventos);
+        logger.info("Processando lote de {} evento(s) ({} paciente(s) encontrado(s))", eventos.size(), pacientes.size());
+        
+        List<EntregaNotificacao> entregas = new ArrayList<>();
+        for (E evento : eventos) {
+            long inicio = System.nanoTime();
+            if (!deduplicacao.registrar(evento, tipo)) {
+                registrarResultado(evento, tipo, RESULTADO_DUPLICADO, List.of(), inicio);
+                continue;
             }
-            
-            logger.info("Paciente encontrado: {}", paciente.getNome());
-            logger.info("E-mail: {}", paciente.getEmail() != null ? paciente.getEmail() : "(não possui)");
-            logger.info("Telefone: {}", paciente.getTelefone() != null ? paciente.getTelefone() : "(não possui)");
-            
-            String assunto = "Confirmação de Agendamento de Cirurgia";
-            String mensagem = criarMensagemAgendamento(paciente.getNome(), evento);
-            
-            enviarNotificacoes(paciente, assunto, mensagem);
-            
-            logger.info("==========================================================");
-            logger.info("✓ NOTIFICAÇÃO PROCESSADA COM SUCESSO");
-            logger.info("==========================================================");
-        } catch (Exception e) {
-            logger.error("==========================================================");
-            logger.error("ERRO AO PROCESSAR NOTIFICAÇÃO DE CRIAÇÃO");
-            logger.error("Cirurgia ID: {}", evento.cirurgiaId());
-            logger.error("Paciente ID: {}", evento.pacienteId());
-            logger.error("Erro: {}", e.getMessage());
-            logger.error("Stack trace:", e);
-            logger.error("==========================================================");
-            throw e;
+            Paciente paciente = pacientes.get(evento.pacienteId());
+            List<EntregaNotificacao> novas = notificacao.apply(evento, paciente);
+            if (tipo == TipoNotificacao.ATUALIZACAO || tipo == TipoNotificacao.CANCELAMENTO) {
+                // Atualizações anteriores da mesma cirurgia no próprio lote ainda não estão no banco
+                entregas.removeIf(entrega -> entrega.getTipo() == TipoNotificacao.ATUALIZACAO
+                        && Objects.equals(entrega.getCirurgiaId(), evento.cirurgiaId()));
+            }
+            entregas.addAll(novas);
+            registrarResultado(evento, tipo, resultado(paciente, novas), novas, inicio);
         }
+        
+        entregaService.enfileirar(entregas);
     }
 
-    public void processarNotificacaoAtualizacao(NotificacaoCirurgiaAtualizadaEvent evento) {
-        logger.info("Processando notificação de atualização para cirurgia {}", evento.cirurgiaId());
+    private Map<UUID, Paciente> carregarPacientes(List<? extends NotificacaoCirurgiaEvent> eventos) {
+        Set<UUID> pacienteIds = eventos.stream()
+                .map(NotificacaoCirurgiaEvent::pacienteId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
         
-        Paciente paciente = pacienteRepository.findById(evento.pacienteId()).orElse(null);
+        return cacheCadastros.buscarPacientes(pacienteIds);
+    }
+
+    private List<EntregaNotificacao> notificarCriacao(NotificacaoCirurgiaCriadaEvent evento, Paciente paciente) {
+        if (paciente == null) {
+            logger.error("Paciente {} não encontrado em tb_usuario_paciente; verifique se foi cadastrado corretamente",
+                    evento.pacienteId());
+            return List.of();
+        }
+        
+        String assunto = "Confirmação de Agendamento de Cirurgia";
+        String mensagem = criarMensagemAgendamento(paciente.getNome(), evento);
+        
+        return prepararEntregas(paciente, evento, TipoNotificacao.CRIACAO, assunto, mensagem);
+    }
+
+    /**
+     * Atualizações ficam retidas no outbox pela janela de coalescência. Se outra atualização
+     * (ou um cancelamento) da mesma cirurgia chegar antes do envio, a anterior é descartada e o
+     * paciente recebe apenas o estado mais recente.
+     */
+    private List<EntregaNotificacao> notificarAtualizacao(NotificacaoCirurgiaAtualizadaEvent evento, Paciente paciente) {
+        int lembretes = lembreteService.reagendar(evento.cirurgiaId(), evento.dataCirurgia(), evento.horaCirurgia());
+        descartarAtualizacoesPendentes(evento.cirurgiaId(), lembretes);
         
         if (paciente == null) {
             logger.warn("Paciente {} não encontrado", evento.pacienteId());
-            return;
+            return List.of();
         }
         
         String assunto = "Atualização no Agendamento da sua Cirurgia";
         String mensagem = criarMensagemAtualizacao(paciente.getNome(), evento);
         
-        enviarNotificacoes(paciente, assunto, mensagem);
+        List<EntregaNotificacao> entregas = prepararEntregas(paciente, evento, TipoNotificacao.ATUALIZACAO, assunto, mensagem);
+        LocalDateTime envio = LocalDateTime.now().plus(janelaCoalescencia);
+        entregas.forEach(entrega -> entrega.setProximaTentativa(envio));
+        return entregas;
     }
 
-    public void processarNotificacaoCancelamento(NotificacaoCirurgiaCanceladaEvent evento) {
-        logger.info("Processando notificação de cancelamento para cirurgia {}", evento.cirurgiaId());
-        
-        Paciente paciente = pacienteRepository.findById(evento.pacienteId()).orElse(null);
+    private List<EntregaNotificacao> notificarCancelamento(NotificacaoCirurgiaCanceladaEvent evento, Paciente paciente) {
+        descartarAtualizacoesPendentes(evento.cirurgiaId(), lembreteService.descartarPendentes(evento.cirurgiaId()));
         
         if (paciente == null) {
             logger.warn("Paciente {} não encontrado", evento.pacienteId());
-            return;
+            return List.of();
         }
         
         String assunto = "Cancelamento de Cirurgia";
         String mensagem = criarMensagemCancelamento(paciente.getNome(), evento);
         
-        enviarNotificacoes(paciente, assunto, mensagem);
+        return prepararEntregas(paciente, evento, TipoNotificacao.CANCELAMENTO, assunto, mensagem);
     }
 
-    private void enviarNotificacoes(Paciente paciente, String tipo, String mensagem) {
-        logger.info("----------------------------------------------------------");
-        logger.info("INICIANDO ENVIO DE NOTIFICAÇÕES");
-        logger.info("Paciente: {}", paciente.getNome());
-        logger.info("----------------------------------------------------------");
-        
-        boolean pacienteNotificado = false;
-        
-        // Notificar paciente por e-mail
-        if (paciente.getEmail() != null && !paciente.getEmail().isBlank()) {
-            logger.info("📧 Paciente possui e-mail. Tentando enviar...");
-            boolean emailEnviado = enviarEmail(paciente.getEmail(), tipo, mensagem);
-            if (emailEnviado) {
-                pacienteNotificado = true;
-                logger.info("E-mail marcado como enviado");
-            } else {
-                logger.warn("E-mail NÃO foi enviado com sucesso");
-            }
-        } else {
-            logger.info("Paciente NÃO possui e-mail cadastrado");
+    /**
+     * Substitui as atualizações ainda não enviadas da cirurgia. Os lembretes já foram
+     * descartados por quem chama: os de uma cirurgia alterada são recriados com o novo horário
+     * no próximo planejamento.
+     */
+    private void descartarAtualizacoesPendentes(UUID cirurgiaId, int lembretes) {
+        if (lembretes > 0) {
+            logger.info("{} lembrete(s) da cirurgia {} descartado(s)", lembretes, cirurgiaId);
         }
         
-        // Notificar paciente por SMS
-        if (paciente.getTelefone() != null && !paciente.getTelefone().isBlank()) {
-            logger.info("📱 Paciente possui telefone. Tentando enviar SMS...");
-            boolean smsEnviado = enviarSMS(paciente.getTelefone(), mensagem);
-            if (smsEnviado) {
-                pacienteNotificado = true;
-                logger.info("✓ SMS marcado como enviado");
-            } else {
-                logger.warn("⚠ SMS NÃO foi enviado com sucesso");
-            }
-        } else {
-            logger.info("ℹ Paciente NÃO possui telefone cadastrado");
+        int descartadas = entregaService.substituirAtualizacoesPendentes(cirurgiaId);
+        if (descartadas > 0) {
+            logger.info("{} entrega(s) de atualização pendente(s) da cirurgia {} substituída(s)", descartadas, cirurgiaId);
+            metricas.registrarAtualizacoesSubstituidas(descartadas);
         }
+    }
+
+    /**
+     * Monta as entregas de e-mail e SMS do paciente para gravação no outbox. O envio e a
+     * decisão de criar tarefa para a assistente social ficam com o worker do outbox; só quando
+     * o paciente não tem nenhum contato a tarefa é criada aqui mesmo.
+     */
+    private List<EntregaNotificacao> prepararEntregas(Paciente paciente, NotificacaoCirurgiaEvent evento, TipoNotificacao tipo,
+                                                      String assunto, String mensagem) {
+        int prioridade = PrioridadeNotificacao.calcular(tipo, evento.dataCirurgia(), evento.horaCirurgia());
+        List<EntregaNotificacao> entregas = montarEntregas(tipo, paciente.getEmail(), paciente.getTelefone(),
+                paciente.getId(), evento.cirurgiaId(), assunto, mensagem, mensagem, prioridade);
         
-        // Se paciente não tem contato, criar tarefa para assistente social
-        if (!pacienteNotificado) {
-            logger.warn("⚠ PACIENTE NÃO FOI NOTIFICADO (sem e-mail e sem telefone)");
-            logger.info("Criando tarefa para Assistente Social...");
-            criarTarefaAssistenteSocial(paciente.getId(), mensagem);
-        } else {
-            logger.info("✓ Paciente foi notificado com sucesso!");
+        if (entregas.isEmpty()) {
+            // Paciente sem nenhum canal de contato: a tarefa para assistente social é criada imediatamente
+            logger.warn("Paciente {} não possui e-mail nem telefone: criando tarefa para assistente social", paciente.getId());
+            criarTarefaAssistenteSocial(paciente.getId(), tipo, mensagem);
         }
-        
-        logger.info("----------------------------------------------------------");
-        logger.info("✓ ENVIO DE NOTIFICAÇÕES CONCLUÍDO");
-        logger.info("Paciente notificado: {}", pacienteNotificado ? "SIM" : "NÃO (Tarefa criada para AS)");
-        logger.info("----------------------------------------------------------");
+        return entregas;
     }
 
-    private boolean enviarEmail(String email, String assunto, String mensagem) {
-        try {
-            logger.info("   → Verificando configuração de e-mail...");
-            
-            if (emailFrom == null || emailFrom.isBlank()) {
-                logger.error("   ❌ E-MAIL DE ORIGEM NÃO CONFIGURADO!");
-                logger.error("   Verifique a variável MAIL_USERNAME no .env");
-                logger.error("   Valor atual: {}", emailFrom);
-                return false;
-            }
-            
-            logger.info("   ✓ E-mail de origem configurado: {}", emailFrom);
-            logger.info("   → Criando mensagem de e-mail...");
-            
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(emailFrom);
-            message.setTo(email);
-            message.setSubject("SusTech - " + assunto);
-            message.setText(mensagem);
-            
-            logger.info("   → Enviando e-mail via JavaMailSender...");
-            logger.info("   De: {}", emailFrom);
-            logger.info("   Para: {}", email);
-            logger.info("   Assunto: SusTech - {}", assunto);
-            
-            mailSender.send(message);
-            
-            logger.info("==========================================================");
-            logger.info("✅ EMAIL ENVIADO COM SUCESSO!");
-            logger.info("Destinatário: {}", email);
-            logger.info("Assunto: {}", assunto);
-            logger.info("==========================================================");
-            return true;
-        } catch (Exception e) {
-            logger.error("==========================================================");
-            logger.error("❌ ERRO AO ENVIAR E-MAIL");
-            logger.error("Destinatário: {}", email);
-            logger.error("E-mail de origem: {}", emailFrom);
-            logger.error("Tipo de erro: {}", e.getClass().getSimpleName());
-            logger.error("Mensagem de erro: {}", e.getMessage());
-            logger.error("Stack trace:", e);
-            logger.error("----------------------------------------------------------");
-            logger.error("POSSÍVEIS CAUSAS:");
-            logger.error("1. Credenciais do Gmail incorretas no .env");
-            logger.error("2. Senha de app do Gmail não configurada");
-            logger.error("3. Servidor SMTP não acessível (smtp.gmail.com:587)");
-            logger.error("4. Autenticação de 2 fatores não habilitada no Gmail");
-            logger.error("==========================================================");
-            return false;
+    private static List<EntregaNotificacao> montarEntregas(TipoNotificacao tipo, String email, String telefone,
+                                                           UUID pacienteId, UUID cirurgiaId, String assunto,
+                                                           String mensagemEmail, String mensagemSms, int prioridade) {
+        UUID grupoId = UUID.randomUUID();
+        List<EntregaNotificacao> entregas = new ArrayList<>(2);
+        if (temValor(email)) {
+            entregas.add(EntregaNotificacaoService.nova(grupoId, tipo, CanalNotificacao.EMAIL, email,
+                    pacienteId, cirurgiaId, assunto, mensagemEmail));
+        }
+        if (temValor(telefone)) {
+            entregas.add(EntregaNotificacaoService.nova(grupoId, tipo, CanalNotificacao.SMS, telefone,
+                    pacienteId, cirurgiaId, assunto, mensagemSms));
         }
+        entregas.forEach(entrega -> entrega.setPrioridade(prioridade));
+        return entregas;
     }
-    
+
+    /**
+     * Chamado pelo worker do outbox quando uma entrega falha definitivamente. A tarefa só é
+     * criada se todos os canais do grupo falharam, uma única vez por grupo mesmo com várias
+     * réplicas processando o outbox.
+     */
+    @Transactional
+    public void tratarFalhaDefinitiva(EntregaNotificacao entrega) {
+        if (!entrega.getTipo().geraTarefaAssistenteSocial()) {
+            return;
+        }
+        if (entregaService.registrarFallback(entrega.getGrupoId())) {
+            logger.warn("⚠ PACIENTE {} NÃO FOI NOTIFICADO (falha em todos os canais)", entrega.getPacienteId());
+            criarTarefaAssistenteSocial(entrega.getPacienteId(), entrega.getTipo(), entrega.getMensagem());
+        }
+    }
+
     private String criarMensagemAgendamento(String nomePaciente, NotificacaoCirurgiaCriadaEvent evento) {
-        return String.format(
-            "Olá, %s!\n\n" +
-            "É com alegria que informamos que sua cirurgia foi agendada com sucesso.\n\n" +
-            "Detalhes do Agendamento:\n" +
-            "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n" +
-            "📅 Data: %s\n" +
-            "🕐 Horário: %s\n" +
-            "📍 Local: %s\n" +
-            "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n\n" +
-            "Orientações Importantes:\n" +
-            "• Chegue com 1 hora de antecedência\n" +
-            "• Traga um acompanhante adulto\n" +
-            "• Siga rigorosamente as orientações de jejum fornecidas pelo seu médico\n" +
-            "• Traga seus documentos pessoais e cartão do SUS\n" +
-            "• Leve seus exames médicos mais recentes\n\n" +
-            "Em caso de dúvidas ou imprevistos, não hesite em nos contatar.\n" +
-            "Estamos aqui para cuidar de você!\n\n" +
-            "Atenciosamente,\n" +
-            "Equipe SusTech\n" +
-            "Sistema Único de Saúde",
-            nomePaciente,
-            evento.dataCirurgia().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
-            evento.horaCirurgia().format(DateTimeFormatter.ofPattern("HH:mm")),
-            evento.local()
-        );
+        return templateEngine.renderizar(TipoTemplate.AGENDAMENTO,
+                nomePaciente,
+                Formatos.data(evento.dataCirurgia()),
+                Formatos.hora(evento.horaCirurgia()),
+                evento.local());
     }
     
     private String criarMensagemAtualizacao(String nomePaciente, NotificacaoCirurgiaAtualizadaEvent evento) {
-        return String.format(
-            "Olá, %s!\n\n" +
-            "Informamos que houve uma alteração no agendamento da sua cirurgia.\n\n" +
-            "Novos Detalhes do Agendamento:\n" +
-            "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n" +
-            "📅 Nova Data: %s\n" +
-            "🕐 Novo Horário: %s\n" +
-            "📍 Local: %s\n" +
-            "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n\n" +
-            "Por favor, atualize sua agenda com estas novas informações.\n\n" +
-            "Orientações Importantes:\n" +
-            "• Chegue com 1 hora de antecedência\n" +
-            "• Traga um acompanhante adulto\n" +
-            "• Siga rigorosamente as orientações de jejum fornecidas pelo seu médico\n" +
-            "• Traga seus documentos pessoais e cartão do SUS\n" +
-            "• Leve seus exames médicos mais recentes\n\n" +
-            "Em caso de dúvidas, estamos à disposição para ajudá-lo(a).\n\n" +
-            "Atenciosamente,\n" +
-            "Equipe SusTech\n" +
-            "Sistema Único de Saúde",
-            nomePaciente,
-            evento.dataCirurgia().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
-            evento.horaCirurgia().format(DateTimeFormatter.ofPattern("HH:mm")),
-            evento.local()
-        );
+        return templateEngine.renderizar(TipoTemplate.ATUALIZACAO,
+                nomePaciente,
+                Formatos.data(evento.dataCirurgia()),
+                Formatos.hora(evento.horaCirurgia()),
+                evento.local());
     }
     
     private String criarMensagemCancelamento(String nomePaciente, NotificacaoCirurgiaCanceladaEvent evento) {
-        return String.format(
-            "Olá, %s,\n\n" +
-            "Lamentamos informar que sua cirurgia foi cancelada.\n\n" +
-            "Cirurgia Cancelada:\n" +
-            "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n" +
-            "📅 Data que estava agendada: %s\n" +
-            "🕐 Horário: %s\n" +
-            "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n\n" +
-            "Pedimos desculpas pelo transtorno. O cancelamento pode ter ocorrido por diversos motivos,\n" +
-            "incluindo questões administrativas, disponibilidade de recursos ou necessidades médicas.\n\n" +
-            "Próximos Passos:\n" +
-            "• Nossa equipe entrará em contato para reagendar sua cirurgia o mais breve possível\n" +
-            "• Continue seguindo as orientações médicas fornecidas anteriormente\n" +
-            "• Em caso de urgência ou sintomas preocupantes, procure atendimento imediato\n\n" +
-            "Compreendemos a importância deste procedimento e estamos trabalhando para\n" +
-            "encontrar uma nova data que atenda às suas necessidades.\n\n" +
-            "Para mais informações ou dúvidas, entre em contato conosco.\n" +
-            "Estamos aqui para apoiá-lo(a).\n\n" +
-            "Atenciosamente,\n" +
-            "Equipe SusTech\n" +
-            "Sistema Único de Saúde",
-            nomePaciente,
-            evento.dataCirurgia().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
-            evento.horaCirurgia().format(DateTimeFormatter.ofPattern("HH:mm"))
-        );
+        return templateEngine.renderizar(TipoTemplate.CANCELAMENTO,
+                nomePaciente,
+                Formatos.data(evento.dataCirurgia()),
+                Formatos.hora(evento.horaCirurgia()));
     }
 
-    private boolean enviarSMS(String telefone, String mensagem) {
+    private void criarTarefaAssistenteSocial(UUID pacienteId, TipoNotificacao tipo, String mensagem) {
+        metricas.registrarFallbackAssistenteSocial(tipo);
+        Timer.Sample amostra = metricas.iniciar();
         try {
-            logger.info("   → Verificando configuração do Twilio...");
-            
-            if (twilioPhoneNumber == null || twilioPhoneNumber.isBlank()) {
-                logger.warn("   ⚠ TWILIO NÃO CONFIGURADO");
-                logger.warn("   SMS não será enviado (isso é opcional)");
-                logger.warn("   Para habilitar SMS, configure as variáveis TWILIO_* no .env");
-                return false;
-            }
-            
-            logger.info("   ✓ Twilio configurado");
-            logger.info("   → Formatando número de telefone...");
-            
-            // formato internacional
-            String telefoneFormatado = telefone.startsWith("+") ? telefone : "+55" + telefone.replaceAll("[^0-9]", "");
-            logger.info("   Número original: {}", telefone);
-            logger.info("   Número formatado: {}", telefoneFormatado);
-            
-            logger.info("   → Enviando SMS via Twilio...");
-            Message message = Message.creator(
-                    new PhoneNumber(telefoneFormatado),
-                    new PhoneNumber(twilioPhoneNumber),
-                    mensagem
-            ).create();
-            
-            logger.info("==========================================================");
-            logger.info("✅ SMS ENVIADO COM SUCESSO!");
-            logger.info("Destinatário: {}", telefone);
-            logger.info("Twilio SID: {}", message.getSid());
-            logger.info("Mensagem: {}", mensagem);
-            logger.info("==========================================================");
-            return true;
-        } catch (Exception e) {
-            logger.error("==========================================================");
-            logger.error("❌ ERRO AO ENVIAR SMS");
-            logger.error("Destinatário: {}", telefone);
-            logger.error("Número Twilio: {}", twilioPhoneNumber);
-            logger.error("Tipo de erro: {}", e.getClass().getSimpleName());
-            logger.error("Mensagem de erro: {}", e.getMessage());
-            logger.error("Stack trace:", e);
-            logger.error("----------------------------------------------------------");
-            logger.error("POSSÍVEIS CAUSAS:");
-            logger.error("1. Credenciais do Twilio incorretas no .env");
-            logger.error("2. Número de telefone do Twilio não verificado");
-            logger.error("3. Saldo insuficiente na conta Twilio");
-            logger.error("4. Número de destino inválido");
-            logger.error("==========================================================");
-            return false;
-        }
-    }
-
-    private void criarTarefaAssistenteSocial(java.util.UUID pacienteId, String mensagem) {
-        try {
-            logger.info("   → Criando tarefa para Assistente Social...");
-            
             TarefaAssistenteSocial tarefa = new TarefaAssistenteSocial();
             tarefa.setPacienteId(pacienteId);
             tarefa.setDescricao("Notificar paciente presencialmente: " + mensagem);
             tarefa.setDataCriacao(LocalDateTime.now());
             
-            Optional<AssistenteSocial> assistenteDisponivel = encontrarAssistenteSocialMenosOcupada();
+            Optional<AssistenteSocial> assistenteDisponivel = indiceCarga.reservarMenosOcupada();
             
             if (assistenteDisponivel.isPresent()) {
                 AssistenteSocial assistente = assistenteDisponivel.get();
                 tarefa.setAssistenteSocialId(assistente.getId());
                 tarefa.setStatus(StatusTarefa.EM_ANDAMENTO);
-                
-                logger.info("   Tarefa atribuída automaticamente à assistente social: {}", assistente.getNome());
-                logger.info("   Matrícula: {}", assistente.getMatricula());
-                logger.info("   E-mail: {}", assistente.getEmail());
             } else {
                 tarefa.setStatus(StatusTarefa.PENDENTE);
-                logger.warn("   ⚠ Nenhuma assistente social disponível no sistema");
-                logger.warn("   Tarefa criada como PENDENTE para atribuição manual");
+                logger.warn("Nenhuma assistente social disponível: tarefa do paciente {} criada como PENDENTE", pacienteId);
             }
             
-            TarefaAssistenteSocial tarefaSalva = tarefaRepository.save(tarefa);
+            TarefaAssistenteSocial tarefaSalva;
+            try {
+                tarefaSalva = tarefaRepository.save(tarefa);
+            } catch (Exception e) {
+                // A tarefa não foi gravada: devolve a reserva feita no índice de carga
+                assistenteDisponivel.ifPresent(assistente -> indiceCarga.liberarReserva(assistente.getId()));
+                throw e;
+            }
+            assistenteDisponivel.ifPresent(assistente -> concluirReservaAoFimDaTransacao(assistente.getId()));
             
-            logger.info("==========================================================");
-            logger.info("✅ TAREFA CRIADA PARA ASSISTENTE SOCIAL");
-            logger.info("Tarefa ID: {}", tarefaSalva.getId());
-            logger.info("Paciente ID: {}", pacienteId);
-            logger.info("Status: {}", tarefaSalva.getStatus());
-            logger.info("Assistente Social: {}", tarefaSalva.getAssistenteSocialId() != null ? 
-                       tarefaSalva.getAssistenteSocialId() : "Não atribuída");
-            logger.info("Descrição: {}", tarefaSalva.getDescricao());
-            logger.info("==========================================================");
+            logger.atInfo()
+                    .addKeyValue("tarefaId", tarefaSalva.getId())
+                    .addKeyValue("pacienteId", pacienteId)
+                    .addKeyValue("tipo", tipo)
+                    .addKeyValue("status", tarefaSalva.getStatus())
+                    .addKeyValue("assistenteSocialId", tarefaSalva.getAssistenteSocialId())
+                    .log("Tarefa criada para assistente social");
+            metricas.registrarCriacaoTarefa(amostra, true);
         } catch (Exception e) {
-            logger.error("==========================================================");
-            logger.error("❌ ERRO AO CRIAR TAREFA PARA ASSISTENTE SOCIAL");
-            logger.error("Paciente ID: {}", pacienteId);
-            logger.error("Erro: {}", e.getMessage());
-            logger.error("Stack trace:", e);
-            logger.error("==========================================================");
+            metricas.registrarCriacaoTarefa(amostra, false);
+            logger.error("Erro ao criar tarefa para assistente social do paciente {}: {}", pacienteId, e.getMessage(), e);
             throw e;
         }
     }
     
-    private Optional<AssistenteSocial> encontrarAssistenteSocialMenosOcupada() {
-        
-        List<AssistenteSocial> assistentes = assistenteSocialRepository.findAll();
-        
-        if (assistentes.isEmpty()) {
-            logger.warn("   ⚠ Nenhuma assistente social cadastrada no sistema");
-            return Optional.empty();
+    /**
+     * A tarefa só passa a contar na carga da assistente depois do commit; se a transação for
+     * desfeita (inclusive após o save), a reserva é devolvida ao índice.
+     */
+    private void concluirReservaAoFimDaTransacao(UUID assistenteSocialId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            indiceCarga.confirmarReserva(assistenteSocialId);
+            return;
         }
-        
-        logger.info("{} assistente(s) social(is) encontrada(s) no sistema", assistentes.size());
-        
-        // Encontrar a assistente com menos tarefas ativas
-        Optional<AssistenteSocial> assistenteMenosOcupada = assistentes.stream()
-                .min(Comparator.comparingLong(assistente -> {
-                    long tarefasAtivas = tarefaRepository.contarTarefasAtivasPorAssistente(assistente.getId());
-                    logger.info("   - {} ({}): {} tarefa(s) ativa(s)", 
-                               assistente.getNome(), 
-                               assistente.getMatricula(), 
-                               tarefasAtivas);
-                    return tarefasAtivas;
-                }));
-        
-        assistenteMenosOcupada.ifPresent(assistente -> {
-            long tarefasAtivas = tarefaRepository.contarTarefasAtivasPorAssistente(assistente.getId());
-            logger.info("Assistente selecionada: {} (atualmente com {} tarefa(s))", 
-                       assistente.getNome(), 
-                       tarefasAtivas);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                indiceCarga.confirmarReserva(assistenteSocialId);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    indiceCarga.liberarReserva(assistenteSocialId);
+                }
+            }
         });
-        
-        return assistenteMenosOcupada;
     }
-    
-    public void enviarLembretePaciente(java.util.UUID pacienteId, String dataCirurgia, String horaCirurgia, String local) {
-        Paciente paciente = pacienteRepository.findById(pacienteId).orElse(null);
+
+    public void enviarLembretePaciente(UUID pacienteId, UUID cirurgiaId, String dataCirurgia, String horaCirurgia,
+                                       String local, int prioridade) {
+        Paciente paciente = cacheCadastros.buscarPaciente(pacienteId).orElse(null);
         
         if (paciente == null) {
             logger.warn("Paciente {} não encontrado para envio de lembrete", pacienteId);
             return;
         }
         
+        enviarLembretePaciente(paciente, cirurgiaId, dataCirurgia, horaCirurgia, local, prioridade);
+    }
+    
+    public void enviarLembretePaciente(Paciente paciente, UUID cirurgiaId, String dataCirurgia, String horaCirurgia,
+                                       String local, int prioridade) {
         String assunto = "Lembrete: Sua Cirurgia se Aproxima";
         String mensagemEmail = criarMensagemLembretePaciente(paciente.getNome(), dataCirurgia, horaCirurgia, local);
-        String mensagemSMS = String.format(
-            "LEMBRETE SUSTECH: %s, sua cirurgia está agendada para %s às %s no %s. " +
-            "Chegue com 1h de antecedência. Traga acompanhante e documentos.",
-            paciente.getNome(),
-            dataCirurgia,
-            horaCirurgia,
-            local
-        );
+        String mensagemSMS = templateEngine.renderizar(TipoTemplate.LEMBRETE_PACIENTE_SMS,
+                paciente.getNome(), dataCirurgia, horaCirurgia, local);
         
-        boolean notificado = false;
+        List<EntregaNotificacao> entregas = montarEntregas(TipoNotificacao.LEMBRETE_PACIENTE,
+                paciente.getEmail(), paciente.getTelefone(), paciente.getId(), cirurgiaId, assunto, mensagemEmail, mensagemSMS, prioridade);
+        entregaService.enfileirar(entregas);
         
-        if (paciente.getEmail() != null && !paciente.getEmail().isBlank()) {
-            enviarEmail(paciente.getEmail(), assunto, mensagemEmail);
-            logger.info("Lembrete enviado para paciente por email");
-            notificado = true;
-        }
-        
-        if (paciente.getTelefone() != null && !paciente.getTelefone().isBlank()) {
-            enviarSMS(paciente.getTelefone(), mensagemSMS);
-            logger.info("Lembrete enviado para paciente por SMS");
-            notificado = true;
-        }
-        
-        if (!notificado) {
-            logger.warn("Paciente {} não possui e-mail ou telefone para receber lembrete", pacienteId);
+        if (!entregas.isEmpty()) {
+            logger.info("Lembrete registrado para envio ao paciente {}", paciente.getId());
+        } else {
+            logger.warn("Paciente {} não possui e-mail nem telefone para receber lembrete", paciente.getId());
         }
     }
     
     private String criarMensagemLembretePaciente(String nomePaciente, String dataCirurgia, String horaCirurgia, String local) {
-        return String.format(
-            "Olá, %s!\n\n" +
-            "Este é um lembrete importante sobre sua cirurgia que está próxima.\n\n" +
-            "Detalhes da sua Cirurgia:\n" +
-            "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n" +
-            "📅 Data: %s (daqui a 7 dias)\n" +
-            "🕐 Horário: %s\n" +
-            "📍 Local: %s\n" +
-            "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n\n" +
-            "Checklist - Não se Esqueça:\n" +
-            "✓ Confirme seu acompanhante adulto\n" +
-            "✓ Separe seus documentos (RG, CPF e Cartão do SUS)\n" +
-            "✓ Reúna todos os seus exames médicos\n" +
-            "✓ Siga as orientações de jejum do seu médico\n" +
-            "✓ Chegue com 1 hora de antecedência\n" +
-            "✓ Use roupas confortáveis\n" +
-            "✓ Evite usar joias, maquiagem ou esmalte\n\n" +
-            "Importante:\n" +
-            "Caso necessite remarcar ou tenha algum imprevisto, entre em contato\n" +
-            "conosco o quanto antes. Sua saúde e bem-estar são nossa prioridade!\n\n" +
-            "Se tiver qualquer dúvida, estamos à disposição para ajudá-lo(a).\n\n" +
-            "Desejamos que tudo corra muito bem!\n\n" +
-            "Atenciosamente,\n" +
-            "Equipe SusTech\n" +
-            "Sistema Único de Saúde",
-            nomePaciente,
-            dataCirurgia,
-            horaCirurgia,
-            local
-        );
+        return templateEngine.renderizar(TipoTemplate.LEMBRETE_PACIENTE, nomePaciente, dataCirurgia, horaCirurgia, local);
     }
     
-    public void enviarLembreteAssistenteSocial(AssistenteSocial assistenteSocial, String nomePaciente, String dataCirurgia, String horaCirurgia, String local) {
+    public void enviarLembreteAssistenteSocial(AssistenteSocial assistenteSocial, UUID cirurgiaId, String nomePaciente,
+                                               String dataCirurgia, String horaCirurgia, String local, int prioridade) {
         if (assistenteSocial == null) {
             logger.warn("Assistente social não encontrada");
             return;
@@ -542,62 +418,64 @@ public class NotificacaoService {
         
         String assunto = "Lembrete: Cirurgia de Paciente Próxima";
         String mensagemEmail = criarMensagemLembreteAssistenteSocial(assistenteSocial.getNome(), nomePaciente, dataCirurgia, horaCirurgia, local);
-        String mensagemSMS = String.format(
-            "LEMBRETE SUSTECH: Assistente %s, o paciente %s tem cirurgia em %s às %s no %s. Verificar contato se necessário.",
-            assistenteSocial.getNome(),
-            nomePaciente,
-            dataCirurgia,
-            horaCirurgia,
-            local
-        );
-        
-        boolean notificado = false;
-        
-        if (assistenteSocial.getEmail() != null && !assistenteSocial.getEmail().isBlank()) {
-            enviarEmail(assistenteSocial.getEmail(), assunto, mensagemEmail);
-            logger.info("Lembrete enviado para assistente social {} por email", assistenteSocial.getNome());
-            notificado = true;
-        }
+        String mensagemSMS = templateEngine.renderizar(TipoTemplate.LEMBRETE_ASSISTENTE_SOCIAL_SMS,
+                assistenteSocial.getNome(), nomePaciente, dataCirurgia, horaCirurgia, local);
         
-        if (assistenteSocial.getTelefoneContato() != null && !assistenteSocial.getTelefoneContato().isBlank()) {
-            enviarSMS(assistenteSocial.getTelefoneContato(), mensagemSMS);
-            logger.info("Lembrete enviado para assistente social {} por SMS", assistenteSocial.getNome());
-            notificado = true;
-        }
+        List<EntregaNotificacao> entregas = montarEntregas(TipoNotificacao.LEMBRETE_ASSISTENTE_SOCIAL,
+                assistenteSocial.getEmail(), assistenteSocial.getTelefoneContato(), null, cirurgiaId,
+                assunto, mensagemEmail, mensagemSMS, prioridade);
+        entregaService.enfileirar(entregas);
         
-        if (!notificado) {
-            logger.warn("Assistente social {} não possui e-mail ou telefone para receber lembrete", 
+        if (!entregas.isEmpty()) {
+            logger.info("Lembrete registrado para envio à assistente social {}", assistenteSocial.getNome());
+        } else {
+            logger.warn("Assistente social {} não possui e-mail nem telefone para receber lembrete", 
                        assistenteSocial.getId());
         }
     }
     
     private String criarMensagemLembreteAssistenteSocial(String nomeAssistente, String nomePaciente, String dataCirurgia, String horaCirurgia, String local) {
-        return String.format(
-            "Olá, %s!\n\n" +
-            "Este é um lembrete sobre uma cirurgia próxima de um paciente sob seus cuidados.\n\n" +
-            "Informações do Paciente e Cirurgia:\n" +
-            "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n" +
-            "👤 Paciente: %s\n" +
-            "📅 Data: %s (daqui a 7 dias)\n" +
-            "🕐 Horário: %s\n" +
-            "📍 Local: %s\n" +
-            "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n\n" +
-            "Ações Recomendadas:\n" +
-            "• Verificar se o paciente recebeu as orientações pré-operatórias\n" +
-            "• Confirmar se o paciente possui acompanhante confirmado\n" +
-            "• Verificar se há necessidade de suporte adicional (transporte, documentação, etc.)\n" +
-            "• Entrar em contato com o paciente para confirmação\n\n" +
-            "Caso identifique qualquer necessidade especial ou dificuldade do paciente,\n" +
-            "por favor, tome as providências necessárias o quanto antes.\n\n" +
-            "Conte com o apoio da equipe SusTech para melhor atender nossos pacientes!\n\n" +
-            "Atenciosamente,\n" +
-            "Sistema SusTech\n" +
-            "Serviço Social - SUS",
-            nomeAssistente,
-            nomePaciente,
-            dataCirurgia,
-            horaCirurgia,
-            local
-        );
+        return templateEngine.renderizar(TipoTemplate.LEMBRETE_ASSISTENTE_SOCIAL,
+                nomeAssistente, nomePaciente, dataCirurgia, horaCirurgia, local);
+    }
+
+    /**
+     * Uma única linha por evento, com os dados como pares chave-valor: no profile {@code prod}
+     * viram campos do JSON; no console, aparecem ao fim da mensagem.
+     */
+    private void registrarResultado(NotificacaoCirurgiaEvent evento, TipoNotificacao tipo, String resultado,
+                                    List<EntregaNotificacao> entregas, long inicio) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        logger.atInfo()
+                .addKeyValue("tipo", tipo)
+                .addKeyValue("cirurgiaId", evento.cirurgiaId())
+                .addKeyValue("pacienteId", evento.pacienteId())
+                .addKeyValue("resultado", resultado)
+                .addKeyValue("email", situacaoCanal(entregas, CanalNotificacao.EMAIL))
+                .addKeyValue("sms", situacaoCanal(entregas, CanalNotificacao.SMS))
+                .addKeyValue("duracaoMs", (System.nanoTime() - inicio) / 1_000_000)
+                .log("Evento de cirurgia processado");
+    }
+
+    private static String resultado(Paciente paciente, List<EntregaNotificacao> entregas) {
+        if (paciente == null) {
+            return RESULTADO_PACIENTE_NAO_ENCONTRADO;
+        }
+        return entregas.isEmpty() ? RESULTADO_SEM_CONTATO : RESULTADO_ENFILEIRADO;
+    }
+
+    private static String situacaoCanal(List<EntregaNotificacao> entregas, CanalNotificacao canal) {
+        for (EntregaNotificacao entrega : entregas) {
+            if (entrega.getCanal() == canal) {
+                return RESULTADO_ENFILEIRADO;
+            }
+        }
+        return "NAO_ENFILEIRADO";
+    }
+
+    private static boolean temValor(String valor) {
+        return valor != null && !valor.isBlank();
     }
 }
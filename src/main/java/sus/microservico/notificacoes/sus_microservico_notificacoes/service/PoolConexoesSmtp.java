@@ -0,0 +1,168 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool de conexões SMTP autenticadas. Cada conexão mantém a sessão TCP + STARTTLS + AUTH
+ * aberta entre envios; é descartada quando fica ociosa por muito tempo ou atinge o limite
+ * de mensagens (o Gmail encerra sessões longas por conta própria).
+ */
+@Component
+public class PoolConexoesSmtp {
+
+    private final Logger logger = LoggerFactory.getLogger(PoolConexoesSmtp.class);
+    private final JavaMailSenderImpl mailSender;
+    private final int tamanho;
+    private final Duration tempoOcioso;
+    private final int maxMensagensPorConexao;
+    private final Duration esperaConexao;
+    private final Semaphore permissoes;
+    private final LinkedBlockingDeque<ConexaoSmtp> ociosas = new LinkedBlockingDeque<>();
+
+    public PoolConexoesSmtp(JavaMailSenderImpl mailSender,
+                            @Value("${notificacao.email.pool.tamanho:4}") int tamanho,
+                            @Value("${notificacao.email.pool.tempo-ocioso:PT30S}") Duration tempoOcioso,
+                            @Value("${notificacao.email.pool.max-mensagens-por-conexao:100}") int maxMensagensPorConexao,
+                            @Value("${notificacao.email.pool.espera-conexao:PT30S}") Duration esperaConexao) {
+        this.mailSender = mailSender;
+        this.tamanho = tamanho;
+        this.tempoOcioso = tempoOcioso;
+        this.maxMensagensPorConexao = maxMensagensPorConexao;
+        this.esperaConexao = esperaConexao;
+        this.permissoes = new Semaphore(tamanho, true);
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    /**
+     * Obtém uma conexão ociosa ainda válida ou abre uma nova. Quem chama deve sempre
+     * devolvê-la com {@link #devolver(ConexaoSmtp, boolean)}.
+     */
+    public ConexaoSmtp emprestar() throws MessagingException, InterruptedException {
+        if (!permissoes.tryAcquire(esperaConexao.toMillis(), TimeUnit.MILLISECONDS)) {
+            throw new MessagingException("Nenhuma conexão SMTP disponível em " + esperaConexao);
+        }
+        
+        try {
+            ConexaoSmtp conexao;
+            while ((conexao = ociosas.pollFirst()) != null) {
+                if (!conexao.expirada(tempoOcioso) && conexao.conectada()) {
+                    return conexao;
+                }
+                conexao.fechar();
+            }
+            return abrir();
+        } catch (MessagingException | RuntimeException e) {
+            permissoes.release();
+            throw e;
+        }
+    }
+
+    /**
+     * @param valida {@code false} quando o envio falhou por problema na conexão; ela é fechada
+     */
+    public void devolver(ConexaoSmtp conexao, boolean valida) {
+        try {
+            if (valida && conexao.getEnviadas() < maxMensagensPorConexao) {
+                conexao.marcarUso();
+                ociosas.offerFirst(conexao);
+            } else {
+                conexao.fechar();
+            }
+        } finally {
+            permissoes.release();
+        }
+    }
+
+    /** Indica se a conexão já atingiu o limite de mensagens e deve ser trocada. */
+    public boolean esgotada(ConexaoSmtp conexao) {
+        return conexao.getEnviadas() >= maxMensagensPorConexao;
+    }
+
+    @Scheduled(fixedDelayString = "${notificacao.email.pool.verificacao-ociosas:PT15S}")
+    public void removerOciosas() {
+        Iterator<ConexaoSmtp> iterador = ociosas.descendingIterator();
+        while (iterador.hasNext()) {
+            ConexaoSmtp conexao = iterador.next();
+            if (conexao.expirada(tempoOcioso) && ociosas.removeFirstOccurrence(conexao)) {
+                conexao.fechar();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void fechar() {
+        ConexaoSmtp conexao;
+        while ((conexao = ociosas.pollFirst()) != null) {
+            conexao.fechar();
+        }
+    }
+
+    private ConexaoSmtp abrir() throws MessagingException {
+        Session session = mailSender.getSession();
+        Transport transport = session.getTransport(mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp");
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        logger.debug("Nova conexão SMTP aberta com {}:{}", mailSender.getHost(), mailSender.getPort());
+        return new ConexaoSmtp(transport);
+    }
+
+    public static class ConexaoSmtp {
+        private final Transport transport;
+        private int enviadas;
+        private long ultimoUso = System.nanoTime();
+
+        ConexaoSmtp(Transport transport) {
+            this.transport = transport;
+        }
+
+        public Transport getTransport() {
+            return transport;
+        }
+
+        public int getEnviadas() {
+            return enviadas;
+        }
+
+        public void registrarEnvio() {
+            enviadas++;
+        }
+
+        void marcarUso() {
+            ultimoUso = System.nanoTime();
+        }
+
+        /** No SMTP envia um NOOP ao servidor; só é chamado ao reaproveitar a conexão. */
+        boolean conectada() {
+            return transport.isConnected();
+        }
+
+        boolean expirada(Duration tempoOcioso) {
+            return System.nanoTime() - ultimoUso >= tempoOcioso.toNanos();
+        }
+
+        void fechar() {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                // Conexão já encerrada pelo servidor
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.FaixaEnvio;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.TipoNotificacao;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Prioridade de uma notificação, de 0 a {@link #MAXIMA}: parte do tipo do evento e sobe quanto
+ * mais perto está a cirurgia. Um cancelamento é sempre urgente; uma confirmação de agendamento
+ * só é urgente se a cirurgia for nas próximas 48h.
+ */
+public final class PrioridadeNotificacao {
+
+    /** Também é o {@code x-max-priority} das filas de notificação. */
+    public static final int MAXIMA = 9;
+    /** A partir desta prioridade a entrega vai pela faixa urgente do outbox. */
+    public static final int URGENTE = 5;
+
+    private static final Duration IMINENTE = Duration.ofHours(48);
+    private static final Duration PROXIMA = Duration.ofDays(7);
+
+    private PrioridadeNotificacao() {
+    }
+
+    public static int calcular(TipoNotificacao tipo, LocalDate dataCirurgia, LocalTime horaCirurgia) {
+        int prioridade = switch (tipo) {
+            case CANCELAMENTO -> 5;
+            case ATUALIZACAO -> 3;
+            case LEMBRETE_PACIENTE, LEMBRETE_ASSISTENTE_SOCIAL -> 2;
+            case CRIACAO -> 0;
+        };
+        if (dataCirurgia != null) {
+            LocalDateTime cirurgia = dataCirurgia.atTime(horaCirurgia != null ? horaCirurgia : LocalTime.MIDNIGHT);
+            Duration antecedencia = Duration.between(LocalDateTime.now(), cirurgia);
+            if (antecedencia.compareTo(IMINENTE) <= 0) {
+                prioridade += 5;
+            } else if (antecedencia.compareTo(PROXIMA) <= 0) {
+                prioridade += 2;
+            }
+        }
+        return Math.min(prioridade, MAXIMA);
+    }
+
+    public static FaixaEnvio faixa(int prioridade) {
+        return prioridade >= URGENTE ? FaixaEnvio.URGENTE : FaixaEnvio.NORMAL;
+    }
+
+    public static int minima(FaixaEnvio faixa) {
+        return faixa == FaixaEnvio.URGENTE ? URGENTE : 0;
+    }
+
+    public static int maxima(FaixaEnvio faixa) {
+        return faixa == FaixaEnvio.URGENTE ? MAXIMA : URGENTE - 1;
+    }
+}
@@ -0,0 +1,187 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.GetResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.stereotype.Service;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.config.NotificacaoRabbitProperties;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.config.RabbitMQConfig;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encaminha mensagens que falharam para as filas de retentativa com atraso crescente e,
+ * esgotadas as tentativas, para o parking lot, de onde podem ser reprocessadas manualmente.
+ */
+@Service
+public class RetentativaMensagemService {
+
+    private static final int TAMANHO_MAXIMO_ERRO = 500;
+
+    private final Logger logger = LoggerFactory.getLogger(RetentativaMensagemService.class);
+    private final RabbitTemplate rabbitTemplate;
+    private final AmqpAdmin amqpAdmin;
+    private final NotificacaoMetricas metricas;
+    private final List<Duration> atrasos;
+    private final int maxTentativas;
+
+    public RetentativaMensagemService(RabbitTemplate rabbitTemplate,
+                                      AmqpAdmin amqpAdmin,
+                                      NotificacaoMetricas metricas,
+                                      NotificacaoRabbitProperties rabbitProperties) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.amqpAdmin = amqpAdmin;
+        this.metricas = metricas;
+        this.atrasos = rabbitProperties.getRetentativa().getAtrasos();
+        this.maxTentativas = rabbitProperties.getRetentativa().getMaxTentativas();
+    }
+
+    /**
+     * Recoverer dos listeners de mensagem única e destino das falhas do consumer em lote: a
+     * mensagem chega com as propriedades de recebimento.
+     */
+    public void encaminhar(Message mensagem, Throwable erro) {
+        MessageProperties propriedades = mensagem.getMessageProperties();
+        encaminhar(mensagem, propriedades.getReceivedRoutingKey(), propriedades.getConsumerQueue(), erro);
+    }
+
+    private void encaminhar(Message mensagem, String routingKey, String filaOrigem, Throwable erro) {
+        MessageProperties propriedades = mensagem.getMessageProperties();
+        int tentativa = tentativas(propriedades) + 1;
+        // Mensagens recebidas só trazem o modo de entrega em receivedDeliveryMode
+        propriedades.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        Throwable causa = causaRaiz(erro);
+        
+        // Depois da primeira retentativa a mensagem chega com o nome da fila como routing key
+        if (propriedades.getHeader(RabbitMQConfig.HEADER_ROUTING_KEY_ORIGINAL) == null) {
+            propriedades.setHeader(RabbitMQConfig.HEADER_ROUTING_KEY_ORIGINAL, routingKey);
+        }
+        String fila = filaOrigem != null ? filaOrigem : RabbitMQConfig.filaDaRoutingKey(routingKey);
+        propriedades.setHeader(RabbitMQConfig.HEADER_FILA_ORIGEM, fila);
+        
+        // Mensagem que nem pôde ser convertida não vai passar em uma nova tentativa; sem a fila de
+        // origem não há para onde devolvê-la
+        boolean irrecuperavel = contem(erro, MessageConversionException.class) || fila == null;
+        if (irrecuperavel || tentativa > maxTentativas) {
+            propriedades.setHeader(RabbitMQConfig.HEADER_TENTATIVAS, tentativa - 1);
+            propriedades.setHeader(RabbitMQConfig.HEADER_ERRO, truncar(causa.getClass().getSimpleName() + ": " + causa.getMessage()));
+            rabbitTemplate.send("", RabbitMQConfig.PARKING_LOT_QUEUE, mensagem);
+            metricas.registrarRetentativa("parking-lot");
+            logger.error("Mensagem da fila {} enviada ao parking lot após {} tentativa(s): {}",
+                    fila, tentativa - 1, causa.getMessage());
+            return;
+        }
+        
+        Duration atraso = atrasos.get(Math.min(tentativa, atrasos.size()) - 1);
+        propriedades.setHeader(RabbitMQConfig.HEADER_TENTATIVAS, tentativa);
+        propriedades.setHeader(RabbitMQConfig.HEADER_ATRASO, RabbitMQConfig.nivelRetentativa(atraso));
+        // O exchange de retentativa escolhe a fila pelo header; a routing key é usada no dead-letter
+        rabbitTemplate.send(RabbitMQConfig.RETENTATIVA_EXCHANGE, fila, mensagem);
+        metricas.registrarRetentativa("retentativa");
+        logger.warn("Mensagem da fila {} reagendada (tentativa {}/{}, atraso {}): {}",
+                fila, tentativa, maxTentativas, atraso, causa.getMessage());
+    }
+
+    public long contarParkingLot() {
+        QueueInformation info = amqpAdmin.getQueueInfo(RabbitMQConfig.PARKING_LOT_QUEUE);
+        return info != null ? info.getMessageCount() : 0;
+    }
+
+    /**
+     * Devolve até {@code limite} mensagens do parking lot diretamente para a fila de origem, com
+     * o contador de tentativas zerado. Cada mensagem só é removida do parking lot depois de
+     * republicada. Mensagens sem a routing key original ficam no parking lot: sem ela não há
+     * como saber o destino.
+     */
+    public int reprocessarParkingLot(int limite) {
+        Integer reprocessadas = rabbitTemplate.execute(channel -> {
+            int total = 0;
+            List<Long> semDestino = new ArrayList<>();
+            // Limitado pelas mensagens lidas: as que ficam no parking lot também contam
+            for (int lidas = 0; lidas < limite; lidas++) {
+                GetResponse resposta = channel.basicGet(RabbitMQConfig.PARKING_LOT_QUEUE, false);
+                if (resposta == null) {
+                    break;
+                }
+                
+                long deliveryTag = resposta.getEnvelope().getDeliveryTag();
+                AMQP.BasicProperties propriedades = resposta.getProps();
+                Map<String, Object> headers = propriedades.getHeaders() != null
+                        ? new HashMap<>(propriedades.getHeaders())
+                        : new HashMap<>();
+                Object routingKey = headers.remove(RabbitMQConfig.HEADER_ROUTING_KEY_ORIGINAL);
+                if (routingKey == null) {
+                    logger.warn("Mensagem {} do parking lot sem o header {}, mantida no parking lot",
+                            deliveryTag, RabbitMQConfig.HEADER_ROUTING_KEY_ORIGINAL);
+                    semDestino.add(deliveryTag);
+                    continue;
+                }
+                Object filaOrigem = headers.remove(RabbitMQConfig.HEADER_FILA_ORIGEM);
+                headers.remove(RabbitMQConfig.HEADER_TENTATIVAS);
+                headers.remove(RabbitMQConfig.HEADER_ATRASO);
+                headers.remove(RabbitMQConfig.HEADER_ERRO);
+                headers.remove("x-death");
+                
+                // A routing key do evento identifica a fila atual mesmo se ela foi renomeada
+                String fila = RabbitMQConfig.filaDaRoutingKey(routingKey.toString());
+                if (fila == null && filaOrigem != null) {
+                    fila = filaOrigem.toString();
+                }
+                AMQP.BasicProperties republicacao = propriedades.builder().headers(headers).build();
+                if (fila != null) {
+                    channel.basicPublish("", fila, republicacao, resposta.getBody());
+                } else {
+                    channel.basicPublish(RabbitMQConfig.EXCHANGE, routingKey.toString(), republicacao, resposta.getBody());
+                }
+                channel.basicAck(deliveryTag, false);
+                total++;
+            }
+            // Só devolve depois do laço, senão o basicGet leria as mesmas mensagens de novo
+            for (long deliveryTag : semDestino) {
+                channel.basicNack(deliveryTag, false, true);
+            }
+            return total;
+        });
+        
+        logger.info("{} mensagem(ns) do parking lot devolvida(s) para reprocessamento", reprocessadas);
+        return reprocessadas != null ? reprocessadas : 0;
+    }
+
+    private static int tentativas(MessageProperties propriedades) {
+        Object valor = propriedades.getHeader(RabbitMQConfig.HEADER_TENTATIVAS);
+        return valor instanceof Number numero ? numero.intValue() : 0;
+    }
+
+    private static Throwable causaRaiz(Throwable erro) {
+        Throwable causa = erro;
+        while (causa.getCause() != null && causa.getCause() != causa) {
+            causa = causa.getCause();
+        }
+        return causa;
+    }
+
+    private static boolean contem(Throwable erro, Class<? extends Throwable> tipo) {
+        for (Throwable atual = erro; atual != null; atual = atual.getCause()) {
+            if (tipo.isInstance(atual)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String truncar(String texto) {
+        return texto.length() > TAMANHO_MAXIMO_ERRO ? texto.substring(0, TAMANHO_MAXIMO_ERRO) : texto;
+    }
+}
@@ -0,0 +1,18 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+/**
+ * Provedor de envio de SMS. A implementação é escolhida por {@code notificacao.sms.gateway}:
+ * {@code twilio} (padrão) ou {@code fake}, para testes de carga sem acesso externo.
+ */
+public interface SmsGateway {
+
+    /** Indica se o provedor tem o necessário para enviar (credenciais, número de origem). */
+    boolean configurado();
+
+    /**
+     * @param telefone número no formato internacional (E.164)
+     * @return futuro com o identificador da mensagem no provedor; só pode ser cancelado
+     * enquanto a chamada ao provedor não tiver começado
+     */
+    EnvioCancelavel<String> enviar(String telefone, String mensagem);
+}
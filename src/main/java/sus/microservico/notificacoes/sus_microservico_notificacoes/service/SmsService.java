@@ -0,0 +1,109 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.ResultadoEnvio;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class SmsService {
+
+    private final Logger logger = LoggerFactory.getLogger(SmsService.class);
+    private final SmsGateway gateway;
+    private final LimitadorTaxa limitador;
+    private final Duration esperaMaxima;
+    private final Duration tempoMaximoEnvio;
+    
+    public SmsService(SmsGateway gateway,
+                      @Value("${notificacao.sms.taxa.mensagens-por-segundo:1}") double mensagensPorSegundo,
+                      @Value("${notificacao.sms.taxa.rajada:1}") int rajada,
+                      @Value("${notificacao.sms.taxa.espera-maxima:PT30S}") Duration esperaMaxima,
+                      @Value("${notificacao.sms.tempo-maximo-envio:PT30S}") Duration tempoMaximoEnvio) {
+        this.gateway = gateway;
+        this.limitador = new LimitadorTaxa(mensagensPorSegundo, rajada);
+        this.esperaMaxima = esperaMaxima;
+        this.tempoMaximoEnvio = tempoMaximoEnvio;
+        logger.info("SMS limitado a {} mensagem(ns)/s (rajada {}) via {}",
+                mensagensPorSegundo, rajada, gateway.getClass().getSimpleName());
+    }
+
+    /**
+     * Converte para o formato internacional: números sem {@code +} recebem o código do Brasil e
+     * perdem a pontuação. Percorre os caracteres uma vez, sem compilar uma regex a cada envio.
+     */
+    public static String formatarTelefone(String telefone) {
+        if (telefone.startsWith("+")) {
+            return telefone;
+        }
+        StringBuilder formatado = new StringBuilder(telefone.length() + 3).append("+55");
+        for (int i = 0; i < telefone.length(); i++) {
+            char c = telefone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                formatado.append(c);
+            }
+        }
+        return formatado.toString();
+    }
+
+    /**
+     * @return {@link ResultadoEnvio#ADIADO} quando o SMS nem chegou ao provedor (Twilio não
+     * configurado, limite de taxa da conta ou de conexões simultâneas): a tentativa é devolvida
+     * ao outbox
+     */
+    public ResultadoEnvio enviarSMS(String telefone, String mensagem) {
+        try {
+            if (!gateway.configurado()) {
+                logger.warn("Twilio não configurado: SMS não será enviado (configure as variáveis TWILIO_* no .env)");
+                return ResultadoEnvio.ADIADO;
+            }
+            
+            String telefoneFormatado = formatarTelefone(telefone);
+            
+            // Respeita o limite de mensagens por segundo da conta; se a espera passar do máximo,
+            // o envio é adiado e o outbox reagenda, em vez de acumular threads paradas
+            if (!limitador.adquirir(esperaMaxima)) {
+                logger.warn("Limite de envio de SMS atingido, envio para {} será reagendado", telefone);
+                return ResultadoEnvio.ADIADO;
+            }
+            
+            EnvioCancelavel<String> envio = gateway.enviar(telefoneFormatado, mensagem);
+            String sid;
+            try {
+                try {
+                    sid = envio.get(tempoMaximoEnvio.toMillis(), TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    if (envio.cancel(false)) {
+                        logger.warn("SMS para {} não chegou ao provedor em {}, envio será reagendado", telefone, tempoMaximoEnvio);
+                        return ResultadoEnvio.ADIADO;
+                    }
+                    // A chamada ao provedor já começou: reenviar poderia duplicar o SMS, então
+                    // aguarda o resultado real, limitado pelos timeouts HTTP do gateway
+                    sid = envio.get();
+                }
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof EnvioNaoRealizadoException naoRealizado) {
+                    logger.warn("SMS para {} não chegou ao provedor ({}), envio será reagendado", telefone, naoRealizado.getMessage());
+                    return ResultadoEnvio.ADIADO;
+                }
+                throw e.getCause() instanceof Exception causa ? causa : e;
+            }
+            
+            logger.debug("SMS enviado para {} (ID no provedor: {})", telefoneFormatado, sid);
+            return ResultadoEnvio.ENVIADO;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            // Credenciais, número de origem não verificado, saldo ou destino inválido são as causas comuns
+            logger.error("Erro ao enviar SMS para {} ({}): {}", telefone, e.getClass().getSimpleName(), e.getMessage());
+            logger.debug("Detalhes do erro de envio de SMS", e);
+            return ResultadoEnvio.FALHA;
+        }
+    }
+}
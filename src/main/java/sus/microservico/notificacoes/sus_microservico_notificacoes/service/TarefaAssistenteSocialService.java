@@ -1,19 +1,38 @@
 package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.controller.dto.AtribuicaoTarefaDTO;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.controller.dto.BuscarTarefaDTO;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.controller.dto.PaginaTarefasDTO;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.controller.dto.ResultadoLoteDTO;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.controller.dto.TarefaDTO;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.model.TarefaAssistenteSocial;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.StatusTarefa;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.CursorTarefa;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.FiltroTarefas;
 import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.TarefaAssistenteSocialRepository;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -21,20 +40,52 @@ public class TarefaAssistenteSocialService {
 
     private final Logger logger = LoggerFactory.getLogger(TarefaAssistenteSocialService.class);
     private final TarefaAssistenteSocialRepository tarefaRepository;
+    private final IndiceCargaAssistenteSocial indiceCarga;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${notificacao.tarefas.exportacao.tamanho-pagina:1000}")
+    private int tamanhoPaginaExportacao;
 
-    public List<BuscarTarefaDTO> buscarTarefasPorStatus(String status) {
-        StatusTarefa statusTarefa = StatusTarefa.fromValue(status);
-        List<TarefaAssistenteSocial> tarefas = tarefaRepository.findByStatus(statusTarefa);
-        return tarefas.stream().map(tarefa -> new BuscarTarefaDTO(
-                tarefa.getId(),
-                tarefa.getPacienteId(),
-                tarefa.getCirurgiaId(),
-                tarefa.getDescricao(),
-                tarefa.getStatus(),
-                tarefa.getAssistenteSocialId(),
-                tarefa.getDataCriacao(),
-                tarefa.getDataConclusao()
-        )).collect(Collectors.toList());
+    public PaginaTarefasDTO buscarTarefas(FiltroTarefas filtro, String cursor, int limite) {
+        CursorTarefa posicao = cursor != null && !cursor.isBlank() ? CursorTarefa.decodificar(cursor) : null;
+        
+        // Busca um item a mais só para saber se existe próxima página
+        List<BuscarTarefaDTO> tarefas = tarefaRepository.buscarPagina(filtro, posicao, limite + 1);
+        if (tarefas.size() <= limite) {
+            return new PaginaTarefasDTO(tarefas, null);
+        }
+        
+        List<BuscarTarefaDTO> pagina = tarefas.subList(0, limite);
+        BuscarTarefaDTO ultima = pagina.get(pagina.size() - 1);
+        return new PaginaTarefasDTO(List.copyOf(pagina), new CursorTarefa(ultima.dataCriacao(), ultima.id()).codificar());
+    }
+
+    /**
+     * Exporta todas as tarefas do filtro como NDJSON, percorrendo o resultado página a página,
+     * de modo que a memória usada não depende do total de tarefas.
+     */
+    public void exportarTarefas(FiltroTarefas filtro, OutputStream saida) throws IOException {
+        CursorTarefa posicao = null;
+        int exportadas = 0;
+        
+        while (true) {
+            List<BuscarTarefaDTO> pagina = tarefaRepository.buscarPagina(filtro, posicao, tamanhoPaginaExportacao);
+            for (BuscarTarefaDTO tarefa : pagina) {
+                saida.write(objectMapper.writeValueAsBytes(tarefa));
+                saida.write('\n');
+            }
+            saida.flush();
+            exportadas += pagina.size();
+            
+            if (pagina.size() < tamanhoPaginaExportacao) {
+                break;
+            }
+            BuscarTarefaDTO ultima = pagina.get(pagina.size() - 1);
+            posicao = new CursorTarefa(ultima.dataCriacao(), ultima.id());
+        }
+        
+        this.logger.info("Exportação de tarefas concluída: {} tarefa(s)", exportadas);
     }
 
     public void criarTarefa(TarefaDTO dto) {
@@ -54,9 +105,14 @@ public class TarefaAssistenteSocialService {
         TarefaAssistenteSocial tarefa = tarefaRepository.findById(uuid)
                 .orElseThrow(() -> new RuntimeException("Tarefa não encontrada"));
         
+        UUID assistenteAnterior = StatusTarefa.ATIVOS.contains(tarefa.getStatus()) ? tarefa.getAssistenteSocialId() : null;
+        
         tarefa.setAssistenteSocialId(assistenteSocialId);
         tarefa.setStatus(StatusTarefa.EM_ANDAMENTO);
         tarefaRepository.save(tarefa);
+        
+        indiceCarga.decrementar(assistenteAnterior);
+        indiceCarga.incrementar(assistenteSocialId);
         this.logger.info("Tarefa {} atribuída ao assistente social {}", id, assistenteSocialId);
     }
 
@@ -65,9 +121,152 @@ public class TarefaAssistenteSocialService {
         TarefaAssistenteSocial tarefa = tarefaRepository.findById(uuid)
                 .orElseThrow(() -> new RuntimeException("Tarefa não encontrada"));
         
+        boolean estavaAtiva = StatusTarefa.ATIVOS.contains(tarefa.getStatus());
+        
         tarefa.setStatus(StatusTarefa.CONCLUIDA);
         tarefa.setDataConclusao(LocalDateTime.now());
         tarefaRepository.save(tarefa);
+        
+        if (estavaAtiva) {
+            indiceCarga.decrementar(tarefa.getAssistenteSocialId());
+        }
         this.logger.info("Tarefa {} concluída", id);
     }
+
+    /**
+     * Cria um bloco de tarefas com um único {@code saveAll}, que o Hibernate envia em
+     * batch inserts. Itens inválidos são reportados individualmente e não impedem os demais.
+     */
+    @Transactional
+    public List<ResultadoLoteDTO> criarTarefasEmLote(List<TarefaDTO> dtos, int indiceInicial) {
+        ResultadoLoteDTO[] resultados = new ResultadoLoteDTO[dtos.size()];
+        List<TarefaAssistenteSocial> novas = new ArrayList<>(dtos.size());
+        List<Integer> posicoes = new ArrayList<>(dtos.size());
+        LocalDateTime agora = LocalDateTime.now();
+        
+        for (int i = 0; i < dtos.size(); i++) {
+            TarefaDTO dto = dtos.get(i);
+            String erro = validar(dto);
+            if (erro != null) {
+                resultados[i] = ResultadoLoteDTO.falha(indiceInicial + i, null, erro);
+                continue;
+            }
+            
+            TarefaAssistenteSocial tarefa = new TarefaAssistenteSocial();
+            tarefa.setPacienteId(dto.pacienteId());
+            tarefa.setCirurgiaId(dto.cirurgiaId());
+            tarefa.setDescricao(dto.descricao());
+            tarefa.setStatus(StatusTarefa.PENDENTE);
+            tarefa.setDataCriacao(agora);
+            novas.add(tarefa);
+            posicoes.add(i);
+        }
+        
+        List<TarefaAssistenteSocial> salvas = tarefaRepository.saveAll(novas);
+        for (int j = 0; j < salvas.size(); j++) {
+            int i = posicoes.get(j);
+            resultados[i] = ResultadoLoteDTO.sucesso(indiceInicial + i, salvas.get(j).getId());
+        }
+        
+        this.logger.info("Lote de tarefas: {} criada(s), {} rejeitada(s)", salvas.size(), dtos.size() - salvas.size());
+        return Arrays.asList(resultados);
+    }
+
+    @Transactional
+    public List<ResultadoLoteDTO> atribuirTarefasEmLote(List<AtribuicaoTarefaDTO> atribuicoes, int indiceInicial) {
+        Map<UUID, TarefaAssistenteSocial> tarefas = carregarTarefas(atribuicoes.stream()
+                .filter(Objects::nonNull)
+                .map(AtribuicaoTarefaDTO::tarefaId));
+        
+        List<ResultadoLoteDTO> resultados = new ArrayList<>(atribuicoes.size());
+        List<TarefaAssistenteSocial> alteradas = new ArrayList<>(atribuicoes.size());
+        List<UUID> liberadas = new ArrayList<>();
+        List<UUID> reservadas = new ArrayList<>();
+        
+        for (int i = 0; i < atribuicoes.size(); i++) {
+            AtribuicaoTarefaDTO atribuicao = atribuicoes.get(i);
+            String erro = validar(atribuicao);
+            if (erro != null) {
+                resultados.add(ResultadoLoteDTO.falha(indiceInicial + i, null, erro));
+                continue;
+            }
+            
+            TarefaAssistenteSocial tarefa = tarefas.get(atribuicao.tarefaId());
+            if (tarefa == null) {
+                resultados.add(ResultadoLoteDTO.falha(indiceInicial + i, atribuicao.tarefaId(), "Tarefa não encontrada"));
+                continue;
+            }
+            
+            if (StatusTarefa.ATIVOS.contains(tarefa.getStatus()) && tarefa.getAssistenteSocialId() != null) {
+                liberadas.add(tarefa.getAssistenteSocialId());
+            }
+            tarefa.setAssistenteSocialId(atribuicao.assistenteSocialId());
+            tarefa.setStatus(StatusTarefa.EM_ANDAMENTO);
+            alteradas.add(tarefa);
+            reservadas.add(atribuicao.assistenteSocialId());
+            resultados.add(ResultadoLoteDTO.sucesso(indiceInicial + i, tarefa.getId()));
+        }
+        
+        tarefaRepository.saveAll(alteradas);
+        liberadas.forEach(indiceCarga::decrementar);
+        reservadas.forEach(indiceCarga::incrementar);
+        
+        this.logger.info("Lote de atribuições: {} tarefa(s) atribuída(s), {} rejeitada(s)",
+                alteradas.size(), atribuicoes.size() - alteradas.size());
+        return resultados;
+    }
+
+    @Transactional
+    public List<ResultadoLoteDTO> concluirTarefasEmLote(List<UUID> ids, int indiceInicial) {
+        Map<UUID, TarefaAssistenteSocial> tarefas = carregarTarefas(ids.stream().filter(Objects::nonNull));
+        
+        List<ResultadoLoteDTO> resultados = new ArrayList<>(ids.size());
+        List<TarefaAssistenteSocial> alteradas = new ArrayList<>(ids.size());
+        List<UUID> liberadas = new ArrayList<>();
+        LocalDateTime agora = LocalDateTime.now();
+        
+        for (int i = 0; i < ids.size(); i++) {
+            UUID id = ids.get(i);
+            TarefaAssistenteSocial tarefa = id != null ? tarefas.get(id) : null;
+            if (tarefa == null) {
+                resultados.add(ResultadoLoteDTO.falha(indiceInicial + i, id, "Tarefa não encontrada"));
+                continue;
+            }
+            
+            if (StatusTarefa.ATIVOS.contains(tarefa.getStatus()) && tarefa.getAssistenteSocialId() != null) {
+                liberadas.add(tarefa.getAssistenteSocialId());
+            }
+            tarefa.setStatus(StatusTarefa.CONCLUIDA);
+            tarefa.setDataConclusao(agora);
+            alteradas.add(tarefa);
+            resultados.add(ResultadoLoteDTO.sucesso(indiceInicial + i, id));
+        }
+        
+        tarefaRepository.saveAll(alteradas);
+        liberadas.forEach(indiceCarga::decrementar);
+        
+        this.logger.info("Lote de conclusões: {} tarefa(s) concluída(s), {} rejeitada(s)",
+                alteradas.size(), ids.size() - alteradas.size());
+        return resultados;
+    }
+
+    private Map<UUID, TarefaAssistenteSocial> carregarTarefas(Stream<UUID> ids) {
+        Set<UUID> unicos = ids.collect(Collectors.toSet());
+        return tarefaRepository.findAllById(unicos).stream()
+                .collect(Collectors.toMap(TarefaAssistenteSocial::getId, Function.identity()));
+    }
+
+    private <T> String validar(T item) {
+        if (item == null) {
+            return "Item inválido ou vazio";
+        }
+        Set<ConstraintViolation<T>> violacoes = validator.validate(item);
+        if (violacoes.isEmpty()) {
+            return null;
+        }
+        return violacoes.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
 }
@@ -0,0 +1,150 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import com.twilio.http.NetworkHttpClient;
+import com.twilio.http.TwilioRestClient;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.type.PhoneNumber;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gateway Twilio com cliente HTTP próprio: as conexões HTTPS com a API ficam em um pool
+ * (keep-alive) em vez do cliente global do {@code Twilio.init}, e cada chamada roda em uma
+ * thread virtual para não prender a thread de quem envia.
+ */
+@Component
+@ConditionalOnProperty(name = "notificacao.sms.gateway", havingValue = "twilio", matchIfMissing = true)
+public class TwilioSmsGateway implements SmsGateway {
+
+    private final Logger logger = LoggerFactory.getLogger(TwilioSmsGateway.class);
+    private final String accountSid;
+    private final String authToken;
+    private final String numeroOrigem;
+    private final int maxConexoes;
+    private final Duration tempoOcioso;
+    private final Duration tempoConexao;
+    private final Duration tempoLeitura;
+    private final LimitadorConcorrencia limitador;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("twilio-", 0).factory());
+    private PoolingHttpClientConnectionManager conexoes;
+    private TwilioRestClient client;
+
+    public TwilioSmsGateway(@Value("${twilio.account.sid}") String accountSid,
+                            @Value("${twilio.auth.token}") String authToken,
+                            @Value("${twilio.phone.number}") String numeroOrigem,
+                            @Value("${notificacao.sms.twilio.max-conexoes:20}") int maxConexoes,
+                            @Value("${notificacao.sms.twilio.tempo-ocioso:PT30S}") Duration tempoOcioso,
+                            @Value("${notificacao.sms.twilio.tempo-conexao:PT5S}") Duration tempoConexao,
+                            @Value("${notificacao.sms.twilio.tempo-leitura:PT20S}") Duration tempoLeitura,
+                            LimitesConcorrencia limites) {
+        this.accountSid = accountSid;
+        this.authToken = authToken;
+        this.numeroOrigem = numeroOrigem;
+        this.maxConexoes = maxConexoes;
+        this.tempoOcioso = tempoOcioso;
+        this.tempoConexao = tempoConexao;
+        this.tempoLeitura = tempoLeitura;
+        this.limitador = limites.twilio();
+    }
+
+    @PostConstruct
+    public void initTwilio() {
+        if (!temValor(accountSid) || !temValor(authToken)) {
+            logger.warn("Credenciais do Twilio não configuradas - SMS não será enviado");
+            return;
+        }
+        
+        conexoes = new PoolingHttpClientConnectionManager();
+        conexoes.setMaxTotal(maxConexoes);
+        conexoes.setDefaultMaxPerRoute(maxConexoes);
+        // Com timeouts, uma chamada já iniciada sempre termina com o resultado do provedor
+        RequestConfig timeouts = RequestConfig.custom()
+                .setConnectTimeout((int) tempoConexao.toMillis())
+                .setConnectionRequestTimeout((int) tempoConexao.toMillis())
+                .setSocketTimeout((int) tempoLeitura.toMillis())
+                .build();
+        HttpClientBuilder httpClient = HttpClientBuilder.create()
+                .setConnectionManager(conexoes)
+                .setDefaultRequestConfig(timeouts)
+                .evictIdleConnections(tempoOcioso.toMillis(), TimeUnit.MILLISECONDS);
+        
+        client = new TwilioRestClient.Builder(accountSid, authToken)
+                .httpClient(new NetworkHttpClient(httpClient))
+                .build();
+        logger.info("Twilio inicializado com sucesso (pool de até {} conexões)", maxConexoes);
+    }
+
+    @Override
+    public boolean configurado() {
+        return client != null && temValor(numeroOrigem);
+    }
+
+    /**
+     * Cada envio ocupa uma permissão do limitador do Twilio enquanto usa uma conexão do pool:
+     * as threads virtuais excedentes esperam no limitador, com tempo máximo, e não no pool.
+     * Um envio cancelado enquanto espera no limitador não chega a chamar a API. Sem permissão
+     * ou sem executor o futuro termina com {@link EnvioNaoRealizadoException}.
+     */
+    @Override
+    public EnvioCancelavel<String> enviar(String telefone, String mensagem) {
+        EnvioCancelavel<String> envio = new EnvioCancelavel<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    if (!limitador.adquirir()) {
+                        envio.completeExceptionally(new EnvioNaoRealizadoException("Limite de "
+                                + limitador.getLimite() + " chamada(s) simultânea(s) ao Twilio atingido"));
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    envio.completeExceptionally(new EnvioNaoRealizadoException("Interrompido aguardando permissão do Twilio", e));
+                    return;
+                }
+                try {
+                    if (envio.iniciar()) {
+                        envio.complete(Message.creator(
+                                new PhoneNumber(telefone),
+                                new PhoneNumber(numeroOrigem),
+                                mensagem
+                        ).create(client).getSid());
+                    }
+                } catch (RuntimeException e) {
+                    envio.completeExceptionally(e);
+                } finally {
+                    limitador.liberar();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            envio.completeExceptionally(new EnvioNaoRealizadoException("Executor do Twilio encerrado", e));
+        }
+        return envio;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+        if (conexoes != null) {
+            conexoes.close();
+        }
+    }
+
+    private static boolean temValor(String valor) {
+        return valor != null && !valor.isBlank();
+    }
+}
@@ -0,0 +1,26 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.template;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Formatadores de data e hora usados nas mensagens. {@link DateTimeFormatter} é imutável e
+ * thread-safe, então as instâncias são criadas uma única vez.
+ */
+public final class Formatos {
+
+    public static final DateTimeFormatter DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    public static final DateTimeFormatter HORA = DateTimeFormatter.ofPattern("HH:mm");
+
+    private Formatos() {
+    }
+
+    public static String data(LocalDate data) {
+        return data.format(DATA);
+    }
+
+    public static String hora(LocalTime hora) {
+        return hora.format(HORA);
+    }
+}
@@ -0,0 +1,98 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.template;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Template pré-compilado: o texto é dividido uma única vez em trechos literais e
+ * placeholders {@code {{nome}}}, já resolvidos para a posição do parâmetro. A renderização
+ * apenas concatena os trechos em um {@link StringBuilder} dimensionado com o tamanho exato.
+ */
+public final class TemplateMensagem {
+
+    private static final String ABERTURA = "{{";
+    private static final String FECHAMENTO = "}}";
+
+    private final String nome;
+    private final String[] literais;
+    private final int[] indices;
+    private final int tamanhoLiterais;
+    private final int quantidadeParametros;
+
+    private TemplateMensagem(String nome, String[] literais, int[] indices, int quantidadeParametros) {
+        this.nome = nome;
+        this.literais = literais;
+        this.indices = indices;
+        this.quantidadeParametros = quantidadeParametros;
+        int tamanho = 0;
+        for (String literal : literais) {
+            tamanho += literal.length();
+        }
+        this.tamanhoLiterais = tamanho;
+    }
+
+    /**
+     * Compila o texto do template. Placeholders que não constam em {@code parametros}
+     * geram {@link IllegalArgumentException}, para que o erro apareça na carga e não no envio.
+     */
+    public static TemplateMensagem compilar(String nome, String texto, List<String> parametros) {
+        List<String> literais = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        
+        int posicao = 0;
+        while (true) {
+            int inicio = texto.indexOf(ABERTURA, posicao);
+            if (inicio < 0) {
+                break;
+            }
+            int fim = texto.indexOf(FECHAMENTO, inicio + ABERTURA.length());
+            if (fim < 0) {
+                throw new IllegalArgumentException("Placeholder sem fechamento no template " + nome + " (posição " + inicio + ")");
+            }
+            String variavel = texto.substring(inicio + ABERTURA.length(), fim).trim();
+            int indice = parametros.indexOf(variavel);
+            if (indice < 0) {
+                throw new IllegalArgumentException("Placeholder desconhecido {{" + variavel + "}} no template " + nome
+                        + " (parâmetros aceitos: " + parametros + ")");
+            }
+            literais.add(texto.substring(posicao, inicio));
+            indices.add(indice);
+            posicao = fim + FECHAMENTO.length();
+        }
+        literais.add(texto.substring(posicao));
+        
+        return new TemplateMensagem(
+                nome,
+                literais.toArray(String[]::new),
+                indices.stream().mapToInt(Integer::intValue).toArray(),
+                parametros.size()
+        );
+    }
+
+    public String renderizar(String... valores) {
+        if (valores.length != quantidadeParametros) {
+            throw new IllegalArgumentException("Template " + nome + " espera " + quantidadeParametros
+                    + " parâmetro(s), recebeu " + valores.length);
+        }
+        
+        int tamanho = tamanhoLiterais;
+        for (int indice : indices) {
+            tamanho += comprimento(valores[indice]);
+        }
+        
+        StringBuilder sb = new StringBuilder(tamanho);
+        for (int i = 0; i < indices.length; i++) {
+            sb.append(literais[i]).append(valores[indices[i]]);
+        }
+        sb.append(literais[literais.length - 1]);
+        return sb.toString();
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    private static int comprimento(String valor) {
+        return valor != null ? valor.length() : 4;
+    }
+}
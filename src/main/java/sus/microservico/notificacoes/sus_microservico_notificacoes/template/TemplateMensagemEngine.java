@@ -0,0 +1,115 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.template;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Carrega e compila os templates de mensagem na inicialização. Por padrão os textos vêm de
+ * {@code classpath:templates/notificacao}; se {@code notificacao.templates.diretorio} estiver
+ * configurado, arquivos com o mesmo nome nesse diretório têm precedência e são recarregados
+ * quando modificados, sem necessidade de novo deploy.
+ */
+@Component
+public class TemplateMensagemEngine {
+
+    public static final String CLASSPATH_TEMPLATES = "templates/notificacao/";
+
+    private final Logger logger = LoggerFactory.getLogger(TemplateMensagemEngine.class);
+    private final Path diretorioExterno;
+    private volatile Map<TipoTemplate, TemplateMensagem> templates = new EnumMap<>(TipoTemplate.class);
+    private final Map<TipoTemplate, FileTime> versoesExternas = new EnumMap<>(TipoTemplate.class);
+
+    public TemplateMensagemEngine(@Value("${notificacao.templates.diretorio:}") String diretorioExterno) {
+        this.diretorioExterno = diretorioExterno == null || diretorioExterno.isBlank() ? null : Path.of(diretorioExterno);
+    }
+
+    @PostConstruct
+    public void carregar() {
+        Map<TipoTemplate, TemplateMensagem> compilados = new EnumMap<>(TipoTemplate.class);
+        for (TipoTemplate tipo : TipoTemplate.values()) {
+            compilados.put(tipo, compilar(tipo, lerClasspath(tipo)));
+        }
+        templates = compilados;
+        recarregarExternos();
+        logger.info("{} template(s) de mensagem compilado(s){}", templates.size(),
+                diretorioExterno != null ? " (diretório externo: " + diretorioExterno + ")" : "");
+    }
+
+    public String renderizar(TipoTemplate tipo, String... valores) {
+        return templates.get(tipo).renderizar(valores);
+    }
+
+    /**
+     * Verifica periodicamente se algum arquivo do diretório externo mudou. Um template com
+     * erro de compilação é ignorado e a versão anterior continua em uso.
+     */
+    @Scheduled(fixedDelayString = "${notificacao.templates.verificacao:PT30S}")
+    public synchronized void recarregarExternos() {
+        if (diretorioExterno == null) {
+            return;
+        }
+
+        Map<TipoTemplate, TemplateMensagem> atualizados = new EnumMap<>(TipoTemplate.class);
+        for (TipoTemplate tipo : TipoTemplate.values()) {
+            Path arquivo = diretorioExterno.resolve(tipo.getArquivo());
+            try {
+                if (!Files.isRegularFile(arquivo)) {
+                    continue;
+                }
+                FileTime modificacao = Files.getLastModifiedTime(arquivo);
+                if (modificacao.equals(versoesExternas.get(tipo))) {
+                    continue;
+                }
+                atualizados.put(tipo, compilar(tipo, Files.readString(arquivo, StandardCharsets.UTF_8)));
+                versoesExternas.put(tipo, modificacao);
+                logger.info("Template {} carregado de {}", tipo, arquivo);
+            } catch (IOException | IllegalArgumentException e) {
+                logger.error("Erro ao carregar template {} de {}: {}", tipo, arquivo, e.getMessage());
+            }
+        }
+
+        if (!atualizados.isEmpty()) {
+            // Publica um novo mapa inteiro para que leitores concorrentes nunca vejam um estado parcial
+            Map<TipoTemplate, TemplateMensagem> novo = new EnumMap<>(templates);
+            novo.putAll(atualizados);
+            templates = novo;
+        }
+    }
+
+    public static TemplateMensagem compilar(TipoTemplate tipo, String texto) {
+        return TemplateMensagem.compilar(tipo.name(), removerQuebraFinal(texto), tipo.getParametros());
+    }
+
+    public static String lerClasspath(TipoTemplate tipo) {
+        try (InputStream in = new ClassPathResource(CLASSPATH_TEMPLATES + tipo.getArquivo()).getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Template " + tipo.getArquivo() + " não encontrado no classpath", e);
+        }
+    }
+
+    private static String removerQuebraFinal(String texto) {
+        if (texto.endsWith("\r\n")) {
+            return texto.substring(0, texto.length() - 2);
+        }
+        if (texto.endsWith("\n")) {
+            return texto.substring(0, texto.length() - 1);
+        }
+        return texto;
+    }
+}
@@ -0,0 +1,33 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.template;
+
+import java.util.List;
+
+/**
+ * Templates de mensagem conhecidos e os parâmetros de cada um, na ordem em que são
+ * passados para {@link TemplateMensagemEngine#renderizar(TipoTemplate, String...)}.
+ */
+public enum TipoTemplate {
+    AGENDAMENTO("agendamento", "nome", "data", "hora", "local"),
+    ATUALIZACAO("atualizacao", "nome", "data", "hora", "local"),
+    CANCELAMENTO("cancelamento", "nome", "data", "hora"),
+    LEMBRETE_PACIENTE("lembrete-paciente", "nome", "data", "hora", "local"),
+    LEMBRETE_PACIENTE_SMS("lembrete-paciente-sms", "nome", "data", "hora", "local"),
+    LEMBRETE_ASSISTENTE_SOCIAL("lembrete-assistente-social", "assistente", "paciente", "data", "hora", "local"),
+    LEMBRETE_ASSISTENTE_SOCIAL_SMS("lembrete-assistente-social-sms", "assistente", "paciente", "data", "hora", "local");
+
+    private final String arquivo;
+    private final List<String> parametros;
+
+    TipoTemplate(String arquivo, String... parametros) {
+        this.arquivo = arquivo;
+        this.parametros = List.of(parametros);
+    }
+
+    public String getArquivo() {
+        return arquivo + ".txt";
+    }
+
+    public List<String> getParametros() {
+        return parametros;
+    }
+}
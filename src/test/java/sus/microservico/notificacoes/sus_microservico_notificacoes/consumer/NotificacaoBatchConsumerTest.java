@@ -0,0 +1,125 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.consumer;
+
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.event.NotificacaoCirurgiaCriadaEvent;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.LimitadorConcorrencia;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.LimitesConcorrencia;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.NotificacaoMetricas;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.NotificacaoService;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.service.RetentativaMensagemService;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificacaoBatchConsumerTest {
+
+    private final NotificacaoService notificacaoService = mock(NotificacaoService.class);
+    private final NotificacaoMetricas metricas = mock(NotificacaoMetricas.class);
+    private final RetentativaMensagemService retentativaService = mock(RetentativaMensagemService.class);
+    private final LimitesConcorrencia limites = mock(LimitesConcorrencia.class);
+    private final Channel channel = mock(Channel.class);
+    private final NotificacaoBatchConsumer consumer = new NotificacaoBatchConsumer(notificacaoService, metricas,
+            retentativaService, limites, new Jackson2JsonMessageConverter());
+
+    NotificacaoBatchConsumerTest() {
+        when(limites.banco()).thenReturn(new LimitadorConcorrencia("banco", 10, Duration.ofSeconds(1)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void mensagemInvalidaVaiSozinhaParaOParkingLotEORestoDoLoteSegue() throws Exception {
+        UUID primeira = UUID.randomUUID();
+        UUID terceira = UUID.randomUUID();
+        Message invalida = mensagem(2, "{\"cirurgiaId\": ");
+
+        consumer.receberLoteCirurgiaCriada(List.of(valida(1, primeira), invalida, valida(3, terceira)), channel);
+
+        ArgumentCaptor<List<NotificacaoCirurgiaCriadaEvent>> lote = ArgumentCaptor.forClass(List.class);
+        verify(notificacaoService).processarLoteCriacao(lote.capture());
+        assertEquals(List.of(primeira, terceira), lote.getValue().stream().map(NotificacaoCirurgiaCriadaEvent::cirurgiaId).toList());
+
+        ArgumentCaptor<Throwable> erro = ArgumentCaptor.forClass(Throwable.class);
+        verify(retentativaService).encaminhar(same(invalida), erro.capture());
+        assertInstanceOf(MessageConversionException.class, erro.getValue());
+        verify(channel).basicAck(1, false);
+        verify(channel).basicAck(2, false);
+        verify(channel).basicAck(3, false);
+        verify(channel, never()).basicNack(anyLong(), eq(false), eq(true));
+        verify(metricas).registrarConsumoLote(eq("criada"), anyLong(), eq(2), eq(1));
+    }
+
+    @Test
+    void loteSoComMensagensInvalidasNaoChegaAoBanco() throws Exception {
+        consumer.receberLoteCirurgiaCriada(List.of(mensagem(7, "não é json")), channel);
+
+        verify(notificacaoService, never()).processarLoteCriacao(any());
+        verify(retentativaService).encaminhar(any(Message.class), any(MessageConversionException.class));
+        verify(channel).basicAck(7, false);
+    }
+
+    @Test
+    void mensagemInvalidaQueNaoPodeSerEncaminhadaVoltaParaAFila() throws Exception {
+        doThrow(new IllegalStateException("broker indisponível"))
+                .when(retentativaService).encaminhar(any(Message.class), any(Throwable.class));
+
+        consumer.receberLoteCirurgiaCriada(List.of(valida(1, UUID.randomUUID()), mensagem(2, "{")), channel);
+
+        verify(channel).basicAck(1, false);
+        verify(channel).basicNack(2, false, true);
+        verify(channel, never()).basicAck(2, false);
+    }
+
+    @Test
+    void falhaDoLoteRefazUmAUmEEncaminhaSoOEventoComErro() throws Exception {
+        UUID comErro = UUID.randomUUID();
+        Message valida = valida(1, UUID.randomUUID());
+        Message falha = valida(2, comErro);
+        doThrow(new IllegalStateException("deadlock")).when(notificacaoService).processarLoteCriacao(any());
+        doThrow(new IllegalStateException("restrição violada")).when(notificacaoService)
+                .processarNotificacaoCriacao(argThat(evento -> comErro.equals(evento.cirurgiaId())));
+
+        consumer.receberLoteCirurgiaCriada(List.of(valida, falha), channel);
+
+        verify(retentativaService, never()).encaminhar(same(valida), any());
+        verify(retentativaService).encaminhar(same(falha), any(IllegalStateException.class));
+        verify(channel).basicAck(1, false);
+        verify(channel).basicAck(2, false);
+        verify(metricas).registrarConsumoLote(anyString(), anyLong(), eq(1), eq(1));
+    }
+
+    private static Message valida(long deliveryTag, UUID cirurgiaId) {
+        return mensagem(deliveryTag, """
+                {"cirurgiaId": "%s", "pacienteId": "%s", "medicoId": "%s",
+                 "dataCirurgia": "2026-11-03", "horaCirurgia": "08:30:00", "local": "Hospital Regional"}
+                """.formatted(cirurgiaId, UUID.randomUUID(), UUID.randomUUID()));
+    }
+
+    private static Message mensagem(long deliveryTag, String json) {
+        MessageProperties propriedades = new MessageProperties();
+        propriedades.setDeliveryTag(deliveryTag);
+        propriedades.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        return new Message(json.getBytes(StandardCharsets.UTF_8), propriedades);
+    }
+}
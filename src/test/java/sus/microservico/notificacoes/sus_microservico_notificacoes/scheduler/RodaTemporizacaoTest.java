@@ -0,0 +1,99 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.scheduler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RodaTemporizacaoTest {
+
+    private static final Duration TICK = Duration.ofMillis(10);
+    private static final int SLOTS = 8;
+
+    private final BlockingQueue<List<String>> disparos = new LinkedBlockingQueue<>();
+    private final RodaTemporizacao<String> roda = new RodaTemporizacao<>("roda-teste", TICK, SLOTS, disparos::add);
+
+    @AfterEach
+    void parar() {
+        roda.parar();
+    }
+
+    @Test
+    void disparaNoInstanteAgendadoENaoAntes() throws InterruptedException {
+        long inicio = System.nanoTime();
+        roda.agendar("lembrete", Instant.now().plusMillis(200));
+
+        assertEquals(List.of("lembrete"), disparos.poll(2, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - inicio >= Duration.ofMillis(190).toNanos());
+        assertEquals(0, roda.tamanho());
+    }
+
+    @Test
+    void instanteJaPassadoDisparaNoProximoTick() throws InterruptedException {
+        roda.agendar("atrasado", Instant.now().minusSeconds(60));
+
+        assertEquals(List.of("atrasado"), disparos.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void entregaJuntosOsItensDoMesmoTick() throws InterruptedException {
+        Instant quando = Instant.now().plusMillis(100);
+        roda.agendar("a", quando);
+        roda.agendar("b", quando);
+
+        List<String> vencidos = disparos.poll(2, TimeUnit.SECONDS);
+        assertEquals(List.of("a", "b"), vencidos);
+    }
+
+    @Test
+    void itemDeUmaVoltaFuturaNaoDisparaQuandoOSlotPassa() throws InterruptedException {
+        // 8 slots de 10ms: o item de daqui a 300ms divide o slot com ticks de voltas anteriores
+        long inicio = System.nanoTime();
+        roda.agendar("proxima-volta", Instant.now().plusMillis(300));
+
+        assertNull(disparos.poll(200, TimeUnit.MILLISECONDS));
+        assertEquals(1, roda.tamanho());
+        assertEquals(List.of("proxima-volta"), disparos.poll(2, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - inicio >= Duration.ofMillis(290).toNanos());
+    }
+
+    @Test
+    void erroNoDisparoNaoParaARoda() throws InterruptedException {
+        RodaTemporizacao<String> comFalha = new RodaTemporizacao<>("roda-falha", TICK, SLOTS, vencidos -> {
+            disparos.add(vencidos);
+            if (vencidos.contains("falha")) {
+                throw new IllegalStateException("erro de envio");
+            }
+        });
+        try {
+            comFalha.agendar("falha", Instant.now());
+            assertEquals(List.of("falha"), disparos.poll(500, TimeUnit.MILLISECONDS));
+
+            comFalha.agendar("seguinte", Instant.now().plusMillis(50));
+            assertEquals(List.of("seguinte"), disparos.poll(500, TimeUnit.MILLISECONDS));
+        } finally {
+            comFalha.parar();
+        }
+    }
+
+    @Test
+    void pararDevolveOsItensQueNaoDispararam() {
+        roda.agendar("pendente-1", Instant.now().plusSeconds(60));
+        roda.agendar("pendente-2", Instant.now().plusSeconds(120));
+
+        List<String> restantes = roda.parar();
+
+        assertEquals(2, restantes.size());
+        assertTrue(restantes.containsAll(List.of("pendente-1", "pendente-2")));
+        assertEquals(0, roda.tamanho());
+    }
+}
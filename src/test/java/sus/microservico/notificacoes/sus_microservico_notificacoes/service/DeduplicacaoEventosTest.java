@@ -0,0 +1,176 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.event.NotificacaoCirurgiaAtualizadaEvent;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.event.NotificacaoCirurgiaCanceladaEvent;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.TipoNotificacao;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.EventoProcessadoRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DeduplicacaoEventosTest {
+
+    private final EventoProcessadoRepository repository = mock(EventoProcessadoRepository.class);
+    private final NotificacaoMetricas metricas = mock(NotificacaoMetricas.class);
+    private final NotificacaoCirurgiaCanceladaEvent evento = new NotificacaoCirurgiaCanceladaEvent(
+            UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+            LocalDate.of(2026, 11, 3), LocalTime.of(8, 30), "Hospital Regional", UUID.randomUUID());
+
+    @BeforeEach
+    void iniciarTransacao() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void encerrarTransacao() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void eventoNovoEGravadoNoBanco() {
+        DeduplicacaoEventos deduplicacao = criar(Duration.ofHours(1));
+        when(repository.registrar(anyString(), anyString(), any(), any())).thenReturn(1);
+
+        assertTrue(deduplicacao.registrar(evento, TipoNotificacao.CANCELAMENTO));
+    }
+
+    @Test
+    void eventoJaGravadoPorOutraReplicaEDescartado() {
+        DeduplicacaoEventos deduplicacao = criar(Duration.ofHours(1));
+        when(repository.registrar(anyString(), anyString(), any(), any())).thenReturn(0);
+
+        assertFalse(deduplicacao.registrar(evento, TipoNotificacao.CANCELAMENTO));
+        verify(metricas).registrarEventoDuplicado(TipoNotificacao.CANCELAMENTO, "banco");
+    }
+
+    @Test
+    void duplicadoAposOCommitEDescartadoPeloCacheSemIrAoBanco() {
+        DeduplicacaoEventos deduplicacao = criar(Duration.ofHours(1));
+        when(repository.registrar(anyString(), anyString(), any(), any())).thenReturn(1);
+        deduplicacao.registrar(evento, TipoNotificacao.CANCELAMENTO);
+        confirmarTransacao();
+
+        assertFalse(deduplicacao.registrar(evento, TipoNotificacao.CANCELAMENTO));
+        verify(repository, times(1)).registrar(anyString(), anyString(), any(), any());
+        verify(metricas).registrarEventoDuplicado(TipoNotificacao.CANCELAMENTO, "cache");
+    }
+
+    @Test
+    void semCommitOEventoNaoEntraNoCache() {
+        DeduplicacaoEventos deduplicacao = criar(Duration.ofHours(1));
+        when(repository.registrar(anyString(), anyString(), any(), any())).thenReturn(1);
+        deduplicacao.registrar(evento, TipoNotificacao.CANCELAMENTO);
+
+        // Transação desfeita: a reentrega precisa ser processada
+        assertTrue(deduplicacao.registrar(evento, TipoNotificacao.CANCELAMENTO));
+        verify(repository, times(2)).registrar(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void entradaExpiradaVoltaAConsultarOBanco() throws InterruptedException {
+        DeduplicacaoEventos deduplicacao = criar(Duration.ofMillis(20));
+        when(repository.registrar(anyString(), anyString(), any(), any())).thenReturn(1, 0);
+        deduplicacao.registrar(evento, TipoNotificacao.CANCELAMENTO);
+        confirmarTransacao();
+        Thread.sleep(50);
+
+        assertFalse(deduplicacao.registrar(evento, TipoNotificacao.CANCELAMENTO));
+        verify(metricas).registrarEventoDuplicado(TipoNotificacao.CANCELAMENTO, "banco");
+    }
+
+    @Test
+    void cacheDescartaOMenosUsadoAoPassarDoTamanho() {
+        DeduplicacaoEventos deduplicacao = new DeduplicacaoEventos(repository, metricas, 1,
+                Duration.ofHours(1), Duration.ofDays(30));
+        when(repository.registrar(anyString(), anyString(), any(), any())).thenReturn(1);
+        deduplicacao.registrar(evento, TipoNotificacao.CANCELAMENTO);
+        deduplicacao.registrar(evento, TipoNotificacao.ATUALIZACAO);
+        confirmarTransacao();
+
+        deduplicacao.registrar(evento, TipoNotificacao.CANCELAMENTO);
+
+        verify(repository, times(3)).registrar(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void chaveDependeDoTipoEDoIdDoEvento() {
+        NotificacaoCirurgiaCanceladaEvent reentrega = new NotificacaoCirurgiaCanceladaEvent(
+                evento.cirurgiaId(), evento.pacienteId(), evento.medicoId(),
+                evento.dataCirurgia(), evento.horaCirurgia(), evento.local(), evento.eventoId());
+        NotificacaoCirurgiaCanceladaEvent outraPublicacao = new NotificacaoCirurgiaCanceladaEvent(
+                evento.cirurgiaId(), evento.pacienteId(), evento.medicoId(),
+                evento.dataCirurgia(), evento.horaCirurgia(), evento.local(), UUID.randomUUID());
+
+        assertEquals(DeduplicacaoEventos.chave(evento, TipoNotificacao.CANCELAMENTO),
+                DeduplicacaoEventos.chave(reentrega, TipoNotificacao.CANCELAMENTO));
+        assertNotEquals(DeduplicacaoEventos.chave(evento, TipoNotificacao.CANCELAMENTO),
+                DeduplicacaoEventos.chave(evento, TipoNotificacao.ATUALIZACAO));
+        assertNotEquals(DeduplicacaoEventos.chave(evento, TipoNotificacao.CANCELAMENTO),
+                DeduplicacaoEventos.chave(outraPublicacao, TipoNotificacao.CANCELAMENTO));
+    }
+
+    @Test
+    void semIdAChaveDependeDoConteudoDoEvento() {
+        NotificacaoCirurgiaCanceladaEvent semId = new NotificacaoCirurgiaCanceladaEvent(
+                evento.cirurgiaId(), evento.pacienteId(), evento.medicoId(),
+                evento.dataCirurgia(), evento.horaCirurgia(), evento.local(), null);
+        NotificacaoCirurgiaCanceladaEvent outroLocal = new NotificacaoCirurgiaCanceladaEvent(
+                evento.cirurgiaId(), evento.pacienteId(), evento.medicoId(),
+                evento.dataCirurgia(), evento.horaCirurgia(), "Hospital Central", null);
+
+        assertEquals(DeduplicacaoEventos.chave(semId, TipoNotificacao.CANCELAMENTO),
+                DeduplicacaoEventos.chave(semId, TipoNotificacao.CANCELAMENTO));
+        assertNotEquals(DeduplicacaoEventos.chave(semId, TipoNotificacao.CANCELAMENTO),
+                DeduplicacaoEventos.chave(outroLocal, TipoNotificacao.CANCELAMENTO));
+    }
+
+    @Test
+    void remarcacaoDeVoltaAoHorarioAnteriorNaoEDescartada() {
+        DeduplicacaoEventos deduplicacao = criar(Duration.ofHours(1));
+        when(repository.registrar(anyString(), anyString(), any(), any())).thenReturn(1);
+        NotificacaoCirurgiaAtualizadaEvent paraA = atualizacao(LocalTime.of(8, 30));
+        NotificacaoCirurgiaAtualizadaEvent paraB = atualizacao(LocalTime.of(14, 0));
+        NotificacaoCirurgiaAtualizadaEvent deVoltaParaA = atualizacao(LocalTime.of(8, 30));
+
+        assertTrue(deduplicacao.registrar(paraA, TipoNotificacao.ATUALIZACAO));
+        confirmarTransacao();
+        assertTrue(deduplicacao.registrar(paraB, TipoNotificacao.ATUALIZACAO));
+        confirmarTransacao();
+
+        assertTrue(deduplicacao.registrar(deVoltaParaA, TipoNotificacao.ATUALIZACAO));
+        verify(repository, times(3)).registrar(anyString(), anyString(), any(), any());
+    }
+
+    private NotificacaoCirurgiaAtualizadaEvent atualizacao(LocalTime hora) {
+        return new NotificacaoCirurgiaAtualizadaEvent(evento.cirurgiaId(), evento.pacienteId(), evento.medicoId(),
+                evento.dataCirurgia(), hora, evento.local(), UUID.randomUUID());
+    }
+
+    private DeduplicacaoEventos criar(Duration ttlCache) {
+        return new DeduplicacaoEventos(repository, metricas, 100, ttlCache, Duration.ofDays(30));
+    }
+
+    private static void confirmarTransacao() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+    }
+}
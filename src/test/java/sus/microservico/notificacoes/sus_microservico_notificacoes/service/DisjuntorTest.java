@@ -0,0 +1,100 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DisjuntorTest {
+
+    private static final Duration TEMPO_ABERTO = Duration.ofMillis(50);
+
+    private final Disjuntor disjuntor = new Disjuntor("teste", 4, 4, 0.5, TEMPO_ABERTO, 2);
+
+    @Test
+    void abreQuandoATaxaDeFalhasAtingeOLimite() {
+        registrar(true);
+        registrar(true);
+        registrar(false);
+        assertEquals(Disjuntor.Estado.FECHADO, disjuntor.getEstado());
+
+        registrar(false);
+
+        assertEquals(Disjuntor.Estado.ABERTO, disjuntor.getEstado());
+        assertTrue(disjuntor.recusando());
+        assertTrue(disjuntor.permitir().isEmpty());
+    }
+
+    @Test
+    void fechaQuandoTodasAsChamadasDeTesteTemSucesso() throws InterruptedException {
+        abrir();
+        Thread.sleep(TEMPO_ABERTO.toMillis() * 2);
+
+        Disjuntor.Permissao primeira = disjuntor.permitir().orElseThrow();
+        assertEquals(Disjuntor.Estado.SEMIABERTO, disjuntor.getEstado());
+        Disjuntor.Permissao segunda = disjuntor.permitir().orElseThrow();
+        assertTrue(disjuntor.permitir().isEmpty());
+
+        disjuntor.registrar(primeira, true);
+        assertEquals(Disjuntor.Estado.SEMIABERTO, disjuntor.getEstado());
+        disjuntor.registrar(segunda, true);
+
+        assertEquals(Disjuntor.Estado.FECHADO, disjuntor.getEstado());
+    }
+
+    @Test
+    void reabreNaPrimeiraFalhaDeTeste() throws InterruptedException {
+        abrir();
+        Thread.sleep(TEMPO_ABERTO.toMillis() * 2);
+
+        disjuntor.registrar(disjuntor.permitir().orElseThrow(), false);
+
+        assertEquals(Disjuntor.Estado.ABERTO, disjuntor.getEstado());
+        assertTrue(disjuntor.recusando());
+    }
+
+    @Test
+    void ignoraResultadoDeChamadaAdmitidaEmOutroEstado() throws InterruptedException {
+        Disjuntor.Permissao lenta = disjuntor.permitir().orElseThrow();
+        abrir();
+        Thread.sleep(TEMPO_ABERTO.toMillis() * 2);
+        Disjuntor.Permissao teste = disjuntor.permitir().orElseThrow();
+
+        // A resposta atrasada da chamada admitida com o disjuntor fechado não vale como teste
+        disjuntor.registrar(lenta, false);
+        assertEquals(Disjuntor.Estado.SEMIABERTO, disjuntor.getEstado());
+
+        disjuntor.registrar(teste, true);
+        disjuntor.registrar(disjuntor.permitir().orElseThrow(), true);
+        assertEquals(Disjuntor.Estado.FECHADO, disjuntor.getEstado());
+    }
+
+    @Test
+    void liberarDevolveAVagaDeTeste() throws InterruptedException {
+        abrir();
+        Thread.sleep(TEMPO_ABERTO.toMillis() * 2);
+
+        disjuntor.permitir().orElseThrow();
+        Disjuntor.Permissao adiada = disjuntor.permitir().orElseThrow();
+        assertTrue(disjuntor.permitir().isEmpty());
+
+        disjuntor.liberar(adiada);
+
+        assertTrue(disjuntor.permitir().isPresent());
+        assertFalse(disjuntor.recusando());
+    }
+
+    private void abrir() {
+        for (int i = 0; i < 4; i++) {
+            registrar(false);
+        }
+        assertEquals(Disjuntor.Estado.ABERTO, disjuntor.getEstado());
+    }
+
+    private void registrar(boolean sucesso) {
+        disjuntor.registrar(disjuntor.permitir().orElseThrow(), sucesso);
+    }
+}
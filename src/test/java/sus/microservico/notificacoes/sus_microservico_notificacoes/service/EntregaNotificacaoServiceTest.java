@@ -0,0 +1,148 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import org.junit.jupiter.api.Test;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.EntregaNotificacao;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.CanalNotificacao;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.StatusEntrega;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.TipoNotificacao;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.EntregaNotificacaoRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EntregaNotificacaoServiceTest {
+
+    private static final Duration BACKOFF_INICIAL = Duration.ofSeconds(30);
+    private static final Duration BACKOFF_MAXIMO = Duration.ofMinutes(30);
+    private static final Duration ADIAMENTO = Duration.ofSeconds(45);
+
+    private final EntregaNotificacaoRepository repository = mock(EntregaNotificacaoRepository.class);
+    private final EntregaNotificacaoService service = new EntregaNotificacaoService(repository, 3,
+            BACKOFF_INICIAL, BACKOFF_MAXIMO, Duration.ofMinutes(5), ADIAMENTO);
+
+    @Test
+    void sucessoMarcaComoEnviada() {
+        EntregaNotificacao entrega = reservada(1);
+        entrega.setUltimoErro("erro anterior");
+
+        List<EntregaNotificacao> falhas = registrar(entrega, Map.of(), Set.of());
+
+        assertTrue(falhas.isEmpty());
+        assertEquals(StatusEntrega.ENVIADA, entrega.getStatus());
+        assertNull(entrega.getUltimoErro());
+    }
+
+    @Test
+    void adiadaVoltaDepoisDoDisjuntorSemConsumirTentativa() {
+        EntregaNotificacao entrega = reservada(2);
+        LocalDateTime antes = LocalDateTime.now();
+
+        List<EntregaNotificacao> falhas = registrar(entrega, Map.of(), Set.of(entrega.getId()));
+
+        assertTrue(falhas.isEmpty());
+        assertEquals(StatusEntrega.PENDENTE, entrega.getStatus());
+        assertEquals(1, entrega.getTentativas());
+        entreAgoraMais(antes, ADIAMENTO, entrega.getProximaTentativa());
+    }
+
+    @Test
+    void adiadaSubstituidaDuranteOEnvioNaoVoltaParaAFila() {
+        EntregaNotificacao entrega = reservada(1);
+        entrega.setStatus(StatusEntrega.SUBSTITUIDA);
+
+        registrar(entrega, Map.of(), Set.of(entrega.getId()));
+
+        assertEquals(StatusEntrega.SUBSTITUIDA, entrega.getStatus());
+        assertEquals(1, entrega.getTentativas());
+    }
+
+    @Test
+    void falhaReagendaComBackoffExponencial() {
+        EntregaNotificacao primeira = reservada(1);
+        EntregaNotificacao segunda = reservada(2);
+        LocalDateTime antes = LocalDateTime.now();
+
+        registrar(primeira, Map.of(primeira.getId(), "timeout"), Set.of());
+        registrar(segunda, Map.of(segunda.getId(), "timeout"), Set.of());
+
+        assertEquals(StatusEntrega.PENDENTE, primeira.getStatus());
+        assertEquals("timeout", primeira.getUltimoErro());
+        entreAgoraMais(antes, BACKOFF_INICIAL, primeira.getProximaTentativa());
+        entreAgoraMais(antes, BACKOFF_INICIAL.multipliedBy(2), segunda.getProximaTentativa());
+    }
+
+    @Test
+    void backoffNaoPassaDoMaximo() {
+        EntregaNotificacaoService semLimite = new EntregaNotificacaoService(repository, 100,
+                BACKOFF_INICIAL, BACKOFF_MAXIMO, Duration.ofMinutes(5), ADIAMENTO);
+        EntregaNotificacao entrega = reservada(40);
+        when(repository.findAllById(Set.of(entrega.getId()))).thenReturn(List.of(entrega));
+        LocalDateTime antes = LocalDateTime.now();
+
+        semLimite.registrarResultados(Set.of(entrega.getId()), Map.of(entrega.getId(), "timeout"), Set.of());
+
+        entreAgoraMais(antes, BACKOFF_MAXIMO, entrega.getProximaTentativa());
+    }
+
+    @Test
+    void ultimaTentativaComFalhaEDefinitiva() {
+        EntregaNotificacao entrega = reservada(3);
+
+        List<EntregaNotificacao> falhas = registrar(entrega, Map.of(entrega.getId(), "x".repeat(600)), Set.of());
+
+        assertEquals(List.of(entrega), falhas);
+        assertEquals(StatusEntrega.FALHA, entrega.getStatus());
+        assertEquals(500, entrega.getUltimoErro().length());
+    }
+
+    @Test
+    void falhaDeEntregaSubstituidaNaoEReagendada() {
+        EntregaNotificacao entrega = reservada(3);
+        entrega.setStatus(StatusEntrega.SUBSTITUIDA);
+
+        List<EntregaNotificacao> falhas = registrar(entrega, Map.of(entrega.getId(), "timeout"), Set.of());
+
+        assertTrue(falhas.isEmpty());
+        assertEquals(StatusEntrega.SUBSTITUIDA, entrega.getStatus());
+    }
+
+    @Test
+    void fallbackERegistradoUmaUnicaVezPorGrupo() {
+        UUID grupoId = UUID.randomUUID();
+        // A primeira réplica marca o grupo; a atualização seguinte não encontra mais linhas
+        when(repository.registrarFallback(grupoId)).thenReturn(2, 0);
+
+        assertTrue(service.registrarFallback(grupoId));
+        assertFalse(service.registrarFallback(grupoId));
+    }
+
+    private List<EntregaNotificacao> registrar(EntregaNotificacao entrega, Map<UUID, String> erros, Set<UUID> adiadas) {
+        when(repository.findAllById(Set.of(entrega.getId()))).thenReturn(List.of(entrega));
+        return service.registrarResultados(Set.of(entrega.getId()), erros, adiadas);
+    }
+
+    private static EntregaNotificacao reservada(int tentativas) {
+        EntregaNotificacao entrega = EntregaNotificacaoService.nova(UUID.randomUUID(), TipoNotificacao.CANCELAMENTO,
+                CanalNotificacao.EMAIL, "paciente@example.com", UUID.randomUUID(), UUID.randomUUID(),
+                "Cirurgia cancelada", "mensagem");
+        entrega.setId(UUID.randomUUID());
+        entrega.setTentativas(tentativas);
+        return entrega;
+    }
+
+    private static void entreAgoraMais(LocalDateTime antes, Duration atraso, LocalDateTime proximaTentativa) {
+        assertFalse(proximaTentativa.isBefore(antes.plus(atraso)));
+        assertFalse(proximaTentativa.isAfter(LocalDateTime.now().plus(atraso)));
+    }
+}
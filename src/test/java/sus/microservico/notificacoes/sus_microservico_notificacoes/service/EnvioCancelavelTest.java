@@ -0,0 +1,28 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EnvioCancelavelTest {
+
+    @Test
+    void cancelaEnvioQueAindaNaoComecou() {
+        EnvioCancelavel<Void> envio = new EnvioCancelavel<>();
+
+        assertTrue(envio.cancel(false));
+        assertTrue(envio.isCancelled());
+        assertFalse(envio.iniciar());
+    }
+
+    @Test
+    void naoCancelaEnvioJaIniciado() {
+        EnvioCancelavel<Void> envio = new EnvioCancelavel<>();
+
+        assertTrue(envio.iniciar());
+        assertFalse(envio.cancel(true));
+        assertFalse(envio.isDone());
+        assertTrue(envio.complete(null));
+    }
+}
@@ -0,0 +1,105 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara a vazão do envio anterior (uma sessão SMTP por {@code mailSender.send}) com o
+ * envio em lote pelo pool de conexões, usando o GreenMail como servidor SMTP local.
+ */
+class EnvioEmailLoteTest {
+
+    private static final int MENSAGENS = 500;
+    private static final String USUARIO = "sustech@teste.local";
+
+    private final Logger logger = LoggerFactory.getLogger(EnvioEmailLoteTest.class);
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withUser(USUARIO, "senha"))
+            .withPerMethodLifecycle(true);
+
+    @Test
+    void enviaTodasAsMensagensPeloPoolEmLote() throws Exception {
+        JavaMailSenderImpl mailSender = criarMailSender();
+        
+        long inicio = System.nanoTime();
+        for (int i = 0; i < MENSAGENS; i++) {
+            SimpleMailMessage mensagem = new SimpleMailMessage();
+            mensagem.setFrom(USUARIO);
+            mensagem.setTo("paciente" + i + "@teste.local");
+            mensagem.setSubject("SusTech - Lembrete " + i);
+            mensagem.setText("Mensagem " + i);
+            mailSender.send(mensagem);
+        }
+        double antes = mensagensPorSegundo(System.nanoTime() - inicio);
+        assertTrue(greenMail.waitForIncomingEmail(10_000, MENSAGENS));
+        greenMail.purgeEmailFromAllMailboxes();
+        
+        PoolConexoesSmtp pool = new PoolConexoesSmtp(mailSender, 4, Duration.ofSeconds(30), 100, Duration.ofSeconds(30));
+        EnvioEmailLote envioLote = new EnvioEmailLote(pool, 50, 1000);
+        envioLote.iniciar();
+        try {
+            inicio = System.nanoTime();
+            List<CompletableFuture<Void>> envios = new ArrayList<>(MENSAGENS);
+            for (int i = 0; i < MENSAGENS; i++) {
+                envios.add(envioLote.enviar(criarMensagem(mailSender, i)));
+            }
+            CompletableFuture.allOf(envios.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+            double depois = mensagensPorSegundo(System.nanoTime() - inicio);
+            
+            assertTrue(greenMail.waitForIncomingEmail(10_000, MENSAGENS));
+            assertEquals(MENSAGENS, greenMail.getReceivedMessages().length);
+            logger.info("Vazão SMTP ({} mensagens): uma sessão por envio {} msg/s, pool em lote {} msg/s",
+                    MENSAGENS, String.format("%.0f", antes), String.format("%.0f", depois));
+        } finally {
+            envioLote.encerrar();
+            pool.fechar();
+        }
+    }
+
+    private static JavaMailSenderImpl criarMailSender() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(ServerSetupTest.SMTP.getBindAddress());
+        mailSender.setPort(greenMail.getSmtp().getPort());
+        mailSender.setUsername(USUARIO);
+        mailSender.setPassword("senha");
+        Properties propriedades = new Properties();
+        propriedades.put("mail.smtp.auth", "true");
+        mailSender.setJavaMailProperties(propriedades);
+        return mailSender;
+    }
+
+    private static MimeMessage criarMensagem(JavaMailSenderImpl mailSender, int i) throws Exception {
+        MimeMessage mensagem = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mensagem, "UTF-8");
+        helper.setFrom(USUARIO);
+        helper.setTo("paciente" + i + "@teste.local");
+        helper.setSubject("SusTech - Lembrete " + i);
+        helper.setText("Mensagem " + i);
+        return mensagem;
+    }
+
+    private static double mensagensPorSegundo(long nanos) {
+        return MENSAGENS / (nanos / 1_000_000_000.0);
+    }
+}
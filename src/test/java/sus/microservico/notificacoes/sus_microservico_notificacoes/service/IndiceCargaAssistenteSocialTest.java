@@ -0,0 +1,151 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.AssistenteSocial;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.EntregaNotificacao;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.CanalNotificacao;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.TipoNotificacao;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.AssistenteSocialRepository;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.CargaAssistenteSocial;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.TarefaAssistenteSocialRepository;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.template.TemplateMensagemEngine;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IndiceCargaAssistenteSocialTest {
+
+    private final AssistenteSocialRepository assistenteRepository = mock(AssistenteSocialRepository.class);
+    private final TarefaAssistenteSocialRepository tarefaRepository = mock(TarefaAssistenteSocialRepository.class);
+    private final IndiceCargaAssistenteSocial indice = new IndiceCargaAssistenteSocial(assistenteRepository, tarefaRepository);
+    // Em caso de empate o índice escolhe o menor id: Ana
+    private final AssistenteSocial ana = assistente(new UUID(0, 1), "Ana");
+    private final AssistenteSocial bia = assistente(new UUID(0, 2), "Bia");
+
+    IndiceCargaAssistenteSocialTest() {
+        when(assistenteRepository.findAll()).thenReturn(List.of(ana, bia));
+        when(tarefaRepository.contarTarefasPorAssistente(any())).thenReturn(List.of(carga(ana, 1)));
+    }
+
+    @AfterEach
+    void encerrarTransacao() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reservaContaNaSelecaoESoViraTarefaAtivaAoConfirmar() {
+        assertEquals(bia, reservar());
+        assertEquals(0, indice.tarefasAtivas(bia.getId()));
+
+        indice.confirmarReserva(bia.getId());
+
+        assertEquals(1, indice.tarefasAtivas(bia.getId()));
+        // Confirmar não conta a tarefa duas vezes: com 1 cada, o empate fica com Ana
+        assertEquals(ana, reservar());
+        assertEquals(bia, reservar());
+    }
+
+    @Test
+    void reservaLiberadaDevolveACarga() {
+        assertEquals(bia, reservar());
+
+        indice.liberarReserva(bia.getId());
+
+        assertEquals(bia, reservar());
+        assertEquals(0, indice.tarefasAtivas(bia.getId()));
+    }
+
+    @Test
+    void reconciliacaoMantemAsReservasPendentes() {
+        assertEquals(bia, reservar());
+
+        indice.reconciliar();
+
+        assertEquals(ana, reservar());
+    }
+
+    @Test
+    void transacaoDesfeitaDepoisDoSaveLiberaAReserva() {
+        NotificacaoService service = notificacaoService();
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.tratarFalhaDefinitiva(entregaSemSucesso());
+        assertEquals(0, indice.tarefasAtivas(bia.getId()));
+        concluirTransacao(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Sem a reserva, Bia volta a ser a menos ocupada
+        assertEquals(0, indice.tarefasAtivas(bia.getId()));
+        assertEquals(bia, reservar());
+    }
+
+    @Test
+    void commitConfirmaATarefaNaCarga() {
+        NotificacaoService service = notificacaoService();
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.tratarFalhaDefinitiva(entregaSemSucesso());
+        assertEquals(0, indice.tarefasAtivas(bia.getId()));
+        concluirTransacao(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(1, indice.tarefasAtivas(bia.getId()));
+    }
+
+    private AssistenteSocial reservar() {
+        return indice.reservarMenosOcupada().orElseThrow();
+    }
+
+    private NotificacaoService notificacaoService() {
+        EntregaNotificacaoService entregaService = mock(EntregaNotificacaoService.class);
+        when(entregaService.registrarFallback(any())).thenReturn(true);
+        when(tarefaRepository.save(any())).thenAnswer(invocacao -> invocacao.getArgument(0));
+        return new NotificacaoService(mock(CacheCadastros.class), tarefaRepository, indice, entregaService,
+                mock(TemplateMensagemEngine.class), mock(NotificacaoMetricas.class), mock(DeduplicacaoEventos.class),
+                mock(LembreteCirurgiaService.class), Duration.ofSeconds(60));
+    }
+
+    private static void concluirTransacao(int status) {
+        List<TransactionSynchronization> sincronizacoes = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            sincronizacoes.forEach(TransactionSynchronization::afterCommit);
+        }
+        sincronizacoes.forEach(sincronizacao -> sincronizacao.afterCompletion(status));
+    }
+
+    private static EntregaNotificacao entregaSemSucesso() {
+        return EntregaNotificacaoService.nova(UUID.randomUUID(), TipoNotificacao.CANCELAMENTO, CanalNotificacao.SMS,
+                "+5511999990000", UUID.randomUUID(), UUID.randomUUID(), "Cirurgia cancelada", "mensagem");
+    }
+
+    private static AssistenteSocial assistente(UUID id, String nome) {
+        AssistenteSocial assistente = new AssistenteSocial();
+        assistente.setId(id);
+        assistente.setNome(nome);
+        return assistente;
+    }
+
+    private static CargaAssistenteSocial carga(AssistenteSocial assistente, long tarefasAtivas) {
+        return new CargaAssistenteSocial() {
+            @Override
+            public UUID getAssistenteSocialId() {
+                return assistente.getId();
+            }
+
+            @Override
+            public long getTarefasAtivas() {
+                return tarefasAtivas;
+            }
+        };
+    }
+}
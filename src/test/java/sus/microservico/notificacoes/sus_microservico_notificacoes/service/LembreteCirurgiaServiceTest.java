@@ -0,0 +1,98 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.LembreteCirurgia;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.StatusLembrete;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.CirurgiaRepository;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.LeaseAgendamentoRepository;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.repository.LembreteCirurgiaRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LembreteCirurgiaServiceTest {
+
+    private static final int DEZ_DIAS = (int) Duration.ofDays(10).toMinutes();
+    private static final int SETE_DIAS = (int) Duration.ofDays(7).toMinutes();
+    private static final int DUAS_HORAS = (int) Duration.ofHours(2).toMinutes();
+
+    private final LembreteCirurgiaRepository lembreteRepository = mock(LembreteCirurgiaRepository.class);
+    private final LembreteCirurgiaService service = new LembreteCirurgiaService(lembreteRepository,
+            mock(LeaseAgendamentoRepository.class), mock(CirurgiaRepository.class), "teste",
+            List.of(Duration.ofDays(10), Duration.ofDays(7), Duration.ofHours(2)), Duration.ofHours(6),
+            Duration.ofMinutes(30), Duration.ofMinutes(30), Duration.ofMinutes(5), Duration.ofMinutes(5),
+            200, Duration.ofDays(30));
+    private final UUID cirurgiaId = UUID.randomUUID();
+
+    @Test
+    void adiarACirurgiaDescartaOsLembretesJaEnviadosQueVoltamAFicarAFrente() {
+        // Cirurgia era daqui a 5 dias: os lembretes de 10 e 7 dias já saíram
+        LembreteCirurgia dezDias = lembrete(DEZ_DIAS, StatusLembrete.ENVIADO);
+        LembreteCirurgia seteDias = lembrete(SETE_DIAS, StatusLembrete.ENVIADO);
+        LembreteCirurgia duasHoras = lembrete(DUAS_HORAS, StatusLembrete.PENDENTE);
+        when(lembreteRepository.findByCirurgiaId(cirurgiaId)).thenReturn(List.of(dezDias, seteDias, duasHoras));
+
+        // Remarcada para daqui a 8 dias: o de 7 dias precisa sair de novo; o de 10 dias já passou
+        LocalDateTime novoHorario = LocalDateTime.now().plusDays(8);
+        int descartados = service.reagendar(cirurgiaId, novoHorario.toLocalDate(), novoHorario.toLocalTime());
+
+        assertEquals(2, descartados);
+        assertEquals(List.of(seteDias, duasHoras), descartados());
+    }
+
+    @Test
+    void alteracaoSemMudarOHorarioNaoReenviaOsLembretesJaEnviados() {
+        LembreteCirurgia seteDias = lembrete(SETE_DIAS, StatusLembrete.ENVIADO);
+        LembreteCirurgia duasHoras = lembrete(DUAS_HORAS, StatusLembrete.AGENDADO);
+        when(lembreteRepository.findByCirurgiaId(cirurgiaId)).thenReturn(List.of(seteDias, duasHoras));
+
+        LocalDateTime mesmoHorario = LocalDateTime.now().plusDays(3);
+        service.reagendar(cirurgiaId, mesmoHorario.toLocalDate(), mesmoHorario.toLocalTime());
+
+        assertEquals(List.of(duasHoras), descartados());
+    }
+
+    @Test
+    void semNovoHorarioDescartaTodos() {
+        LembreteCirurgia seteDias = lembrete(SETE_DIAS, StatusLembrete.ENVIADO);
+        when(lembreteRepository.findByCirurgiaId(cirurgiaId)).thenReturn(List.of(seteDias));
+
+        assertEquals(1, service.reagendar(cirurgiaId, null, null));
+        assertEquals(List.of(seteDias), descartados());
+    }
+
+    @Test
+    void cirurgiaSemLembretesNaoApagaNada() {
+        when(lembreteRepository.findByCirurgiaId(cirurgiaId)).thenReturn(List.of());
+
+        LocalDateTime novoHorario = LocalDateTime.now().plusDays(8);
+        assertEquals(0, service.reagendar(cirurgiaId, novoHorario.toLocalDate(), novoHorario.toLocalTime()));
+        verify(lembreteRepository, never()).deleteAllInBatch(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<LembreteCirurgia> descartados() {
+        ArgumentCaptor<Iterable<LembreteCirurgia>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(lembreteRepository).deleteAllInBatch(captor.capture());
+        return (List<LembreteCirurgia>) captor.getValue();
+    }
+
+    private LembreteCirurgia lembrete(int antecedenciaMinutos, StatusLembrete status) {
+        LembreteCirurgia lembrete = new LembreteCirurgia();
+        lembrete.setId(UUID.randomUUID());
+        lembrete.setCirurgiaId(cirurgiaId);
+        lembrete.setAntecedenciaMinutos(antecedenciaMinutos);
+        lembrete.setStatus(status);
+        return lembrete;
+    }
+}
@@ -0,0 +1,96 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LimitadorTaxaTest {
+
+    @Test
+    void liberaARajadaSemEspera() throws InterruptedException {
+        LimitadorTaxa limitador = new LimitadorTaxa(1, 3);
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limitador.adquirir(Duration.ZERO));
+        }
+
+        assertTrue(System.nanoTime() - inicio < Duration.ofMillis(500).toNanos());
+    }
+
+    @Test
+    void recusaSemConsumirQuandoAEsperaPassaDoMaximo() throws InterruptedException {
+        LimitadorTaxa limitador = new LimitadorTaxa(1, 1);
+        assertTrue(limitador.adquirir(Duration.ZERO));
+
+        // O próximo token só chega em ~1s: a recusa não pode reservá-lo
+        assertFalse(limitador.adquirir(Duration.ofMillis(100)));
+        assertFalse(limitador.adquirir(Duration.ofMillis(100)));
+    }
+
+    @Test
+    void esperaOProximoTokenDentroDoMaximo() throws InterruptedException {
+        LimitadorTaxa limitador = new LimitadorTaxa(20, 1);
+        assertTrue(limitador.adquirir(Duration.ZERO));
+
+        long inicio = System.nanoTime();
+        assertTrue(limitador.adquirir(Duration.ofSeconds(1)));
+
+        // 20 permissões/s: um token a cada 50ms
+        assertTrue(System.nanoTime() - inicio >= Duration.ofMillis(30).toNanos());
+    }
+
+    @Test
+    void quemEsperaReservaOTokenDosSeguintes() throws InterruptedException {
+        LimitadorTaxa limitador = new LimitadorTaxa(10, 1);
+        assertTrue(limitador.adquirir(Duration.ZERO));
+        AtomicBoolean liberado = new AtomicBoolean();
+        Thread esperando = new Thread(() -> {
+            try {
+                liberado.set(limitador.adquirir(Duration.ofSeconds(1)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        esperando.start();
+        Thread.sleep(20);
+
+        // O token dos próximos 100ms já foi reservado por quem está esperando: agora são ~200ms
+        assertFalse(limitador.adquirir(Duration.ofMillis(150)));
+        esperando.join();
+        assertTrue(liberado.get());
+    }
+
+    @Test
+    void interrupcaoDuranteAEsperaDevolveOToken() throws InterruptedException {
+        LimitadorTaxa limitador = new LimitadorTaxa(10, 1);
+        assertTrue(limitador.adquirir(Duration.ZERO));
+        AtomicBoolean interrompido = new AtomicBoolean();
+        Thread esperando = new Thread(() -> {
+            try {
+                limitador.adquirir(Duration.ofSeconds(1));
+            } catch (InterruptedException e) {
+                interrompido.set(true);
+            }
+        });
+        esperando.start();
+        Thread.sleep(20);
+        esperando.interrupt();
+        esperando.join();
+
+        // Sem a devolução o próximo token estaria a ~180ms; devolvido, volta a ~80ms
+        assertTrue(interrompido.get());
+        assertTrue(limitador.adquirir(Duration.ofMillis(150)));
+    }
+
+    @Test
+    void rejeitaConfiguracaoInvalida() {
+        assertThrows(IllegalArgumentException.class, () -> new LimitadorTaxa(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new LimitadorTaxa(1, 0));
+    }
+}
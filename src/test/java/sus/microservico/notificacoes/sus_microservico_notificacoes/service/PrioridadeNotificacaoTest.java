@@ -0,0 +1,74 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import org.junit.jupiter.api.Test;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.FaixaEnvio;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.TipoNotificacao;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PrioridadeNotificacaoTest {
+
+    @Test
+    void semDataUsaApenasOTipo() {
+        assertEquals(5, PrioridadeNotificacao.calcular(TipoNotificacao.CANCELAMENTO, null, null));
+        assertEquals(3, PrioridadeNotificacao.calcular(TipoNotificacao.ATUALIZACAO, null, null));
+        assertEquals(2, PrioridadeNotificacao.calcular(TipoNotificacao.LEMBRETE_PACIENTE, null, null));
+        assertEquals(2, PrioridadeNotificacao.calcular(TipoNotificacao.LEMBRETE_ASSISTENTE_SOCIAL, null, null));
+        assertEquals(0, PrioridadeNotificacao.calcular(TipoNotificacao.CRIACAO, null, null));
+    }
+
+    @Test
+    void cirurgiaNasProximas48hSobeCinco() {
+        LocalDateTime amanha = LocalDateTime.now().plusDays(1);
+
+        assertEquals(5, PrioridadeNotificacao.calcular(TipoNotificacao.CRIACAO, amanha.toLocalDate(), amanha.toLocalTime()));
+        assertEquals(7, PrioridadeNotificacao.calcular(TipoNotificacao.LEMBRETE_PACIENTE, amanha.toLocalDate(), amanha.toLocalTime()));
+    }
+
+    @Test
+    void cirurgiaNaSemanaSobeDois() {
+        LocalDateTime emCincoDias = LocalDateTime.now().plusDays(5);
+
+        assertEquals(2, PrioridadeNotificacao.calcular(TipoNotificacao.CRIACAO, emCincoDias.toLocalDate(), emCincoDias.toLocalTime()));
+        assertEquals(5, PrioridadeNotificacao.calcular(TipoNotificacao.ATUALIZACAO, emCincoDias.toLocalDate(), emCincoDias.toLocalTime()));
+    }
+
+    @Test
+    void cirurgiaDistanteNaoSobe() {
+        LocalDate emUmMes = LocalDate.now().plusMonths(1);
+
+        assertEquals(0, PrioridadeNotificacao.calcular(TipoNotificacao.CRIACAO, emUmMes, null));
+        assertEquals(5, PrioridadeNotificacao.calcular(TipoNotificacao.CANCELAMENTO, emUmMes, null));
+    }
+
+    @Test
+    void cancelamentoIminenteFicaNoMaximo() {
+        LocalDateTime hoje = LocalDateTime.now().plusHours(3);
+
+        assertEquals(PrioridadeNotificacao.MAXIMA,
+                PrioridadeNotificacao.calcular(TipoNotificacao.CANCELAMENTO, hoje.toLocalDate(), hoje.toLocalTime()));
+    }
+
+    @Test
+    void faixaSeparaUrgentesDosDemais() {
+        assertEquals(FaixaEnvio.NORMAL, PrioridadeNotificacao.faixa(0));
+        assertEquals(FaixaEnvio.NORMAL, PrioridadeNotificacao.faixa(PrioridadeNotificacao.URGENTE - 1));
+        assertEquals(FaixaEnvio.URGENTE, PrioridadeNotificacao.faixa(PrioridadeNotificacao.URGENTE));
+        assertEquals(FaixaEnvio.URGENTE, PrioridadeNotificacao.faixa(PrioridadeNotificacao.MAXIMA));
+    }
+
+    @Test
+    void limitesDasFaixasCobremTodasAsPrioridadesSemSobreposicao() {
+        for (int prioridade = 0; prioridade <= PrioridadeNotificacao.MAXIMA; prioridade++) {
+            FaixaEnvio faixa = PrioridadeNotificacao.faixa(prioridade);
+            for (FaixaEnvio outra : FaixaEnvio.values()) {
+                boolean dentro = prioridade >= PrioridadeNotificacao.minima(outra)
+                        && prioridade <= PrioridadeNotificacao.maxima(outra);
+                assertEquals(outra == faixa, dentro, "prioridade " + prioridade + " na faixa " + outra);
+            }
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.GetResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.ChannelCallback;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.config.NotificacaoRabbitProperties;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.config.RabbitMQConfig;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RetentativaMensagemServiceTest {
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final NotificacaoMetricas metricas = mock(NotificacaoMetricas.class);
+    private RetentativaMensagemService service;
+
+    @BeforeEach
+    void criar() {
+        NotificacaoRabbitProperties properties = new NotificacaoRabbitProperties();
+        properties.getRetentativa().setMaxTentativas(4);
+        service = new RetentativaMensagemService(rabbitTemplate, mock(AmqpAdmin.class), metricas, properties);
+    }
+
+    @Test
+    void primeiraFalhaVaiParaRetentativaComAFilaDeOrigem() {
+        Message mensagem = recebida(RabbitMQConfig.NOTIFICACAO_CIRURGIA_CRIADA_ROUTING_KEY,
+                RabbitMQConfig.CIRURGIA_CRIADA_QUEUE, null);
+
+        service.encaminhar(mensagem, new IllegalStateException("banco indisponível"));
+
+        MessageProperties enviada = enviada(RabbitMQConfig.RETENTATIVA_EXCHANGE, RabbitMQConfig.CIRURGIA_CRIADA_QUEUE);
+        assertEquals(1, (Integer) enviada.getHeader(RabbitMQConfig.HEADER_TENTATIVAS));
+        assertEquals("10s", enviada.getHeader(RabbitMQConfig.HEADER_ATRASO));
+        assertEquals(RabbitMQConfig.NOTIFICACAO_CIRURGIA_CRIADA_ROUTING_KEY,
+                enviada.getHeader(RabbitMQConfig.HEADER_ROUTING_KEY_ORIGINAL));
+        assertEquals(RabbitMQConfig.CIRURGIA_CRIADA_QUEUE, enviada.getHeader(RabbitMQConfig.HEADER_FILA_ORIGEM));
+        assertEquals(MessageDeliveryMode.PERSISTENT, enviada.getDeliveryMode());
+        verify(metricas).registrarRetentativa("retentativa");
+    }
+
+    @Test
+    void retentativaSeguinteVoltaSoParaAFilaDeOrigem() {
+        // Depois do dead-letter a routing key recebida é o nome da fila
+        Message mensagem = recebida(RabbitMQConfig.CIRURGIA_CANCELADA_QUEUE, RabbitMQConfig.CIRURGIA_CANCELADA_QUEUE, 2);
+        mensagem.getMessageProperties().setHeader(RabbitMQConfig.HEADER_ROUTING_KEY_ORIGINAL,
+                RabbitMQConfig.NOTIFICACAO_CIRURGIA_CANCELADA_ROUTING_KEY);
+
+        service.encaminhar(mensagem, new IllegalStateException("timeout"));
+
+        MessageProperties enviada = enviada(RabbitMQConfig.RETENTATIVA_EXCHANGE, RabbitMQConfig.CIRURGIA_CANCELADA_QUEUE);
+        assertEquals(3, (Integer) enviada.getHeader(RabbitMQConfig.HEADER_TENTATIVAS));
+        assertEquals("600s", enviada.getHeader(RabbitMQConfig.HEADER_ATRASO));
+        assertEquals(RabbitMQConfig.NOTIFICACAO_CIRURGIA_CANCELADA_ROUTING_KEY,
+                enviada.getHeader(RabbitMQConfig.HEADER_ROUTING_KEY_ORIGINAL));
+    }
+
+    @Test
+    void tentativasAlemDosNiveisUsamOUltimoAtraso() {
+        Message mensagem = recebida(RabbitMQConfig.CIRURGIA_CRIADA_QUEUE, RabbitMQConfig.CIRURGIA_CRIADA_QUEUE, 3);
+
+        service.encaminhar(mensagem, new IllegalStateException("timeout"));
+
+        MessageProperties enviada = enviada(RabbitMQConfig.RETENTATIVA_EXCHANGE, RabbitMQConfig.CIRURGIA_CRIADA_QUEUE);
+        assertEquals(4, (Integer) enviada.getHeader(RabbitMQConfig.HEADER_TENTATIVAS));
+        assertEquals("600s", enviada.getHeader(RabbitMQConfig.HEADER_ATRASO));
+    }
+
+    @Test
+    void esgotadasAsTentativasVaiParaOParkingLot() {
+        Message mensagem = recebida(RabbitMQConfig.CIRURGIA_CRIADA_QUEUE, RabbitMQConfig.CIRURGIA_CRIADA_QUEUE, 4);
+
+        service.encaminhar(mensagem, new RuntimeException("falhou", new IllegalStateException("banco indisponível")));
+
+        MessageProperties enviada = enviada("", RabbitMQConfig.PARKING_LOT_QUEUE);
+        assertEquals(4, (Integer) enviada.getHeader(RabbitMQConfig.HEADER_TENTATIVAS));
+        assertEquals("IllegalStateException: banco indisponível", enviada.getHeader(RabbitMQConfig.HEADER_ERRO));
+        assertEquals(RabbitMQConfig.CIRURGIA_CRIADA_QUEUE, enviada.getHeader(RabbitMQConfig.HEADER_FILA_ORIGEM));
+        verify(metricas).registrarRetentativa("parking-lot");
+    }
+
+    @Test
+    void mensagemQueNaoConverteVaiDiretoParaOParkingLot() {
+        Message mensagem = recebida(RabbitMQConfig.NOTIFICACAO_CIRURGIA_CRIADA_ROUTING_KEY,
+                RabbitMQConfig.CIRURGIA_CRIADA_QUEUE, null);
+
+        service.encaminhar(mensagem, new RuntimeException(new MessageConversionException("JSON inválido")));
+
+        MessageProperties enviada = enviada("", RabbitMQConfig.PARKING_LOT_QUEUE);
+        assertEquals(0, (Integer) enviada.getHeader(RabbitMQConfig.HEADER_TENTATIVAS));
+    }
+
+    @Test
+    void semFilaDeOrigemConhecidaVaiParaOParkingLot() {
+        Message mensagem = recebida("outro.evento", null, null);
+
+        service.encaminhar(mensagem, new IllegalStateException("erro"));
+
+        enviada("", RabbitMQConfig.PARKING_LOT_QUEUE);
+    }
+
+    @Test
+    void semFilaDoConsumidorUsaARoutingKeyEMantemAPrioridade() {
+        Message mensagem = recebida(RabbitMQConfig.NOTIFICACAO_CIRURGIA_ATUALIZADA_ROUTING_KEY, null, 1);
+        mensagem.getMessageProperties().setPriority(7);
+
+        service.encaminhar(mensagem, new IllegalStateException("erro"));
+
+        MessageProperties enviada = enviada(RabbitMQConfig.RETENTATIVA_EXCHANGE, RabbitMQConfig.CIRURGIA_ATUALIZADA_QUEUE);
+        assertEquals(2, (Integer) enviada.getHeader(RabbitMQConfig.HEADER_TENTATIVAS));
+        assertEquals(7, enviada.getPriority());
+    }
+
+    @Test
+    void reprocessarParkingLotDevolveParaAFilaDaRoutingKeyOriginal() throws Exception {
+        Channel channel = mock(Channel.class);
+        Map<String, Object> headers = new HashMap<>();
+        headers.put(RabbitMQConfig.HEADER_ROUTING_KEY_ORIGINAL, RabbitMQConfig.NOTIFICACAO_CIRURGIA_CANCELADA_ROUTING_KEY);
+        headers.put(RabbitMQConfig.HEADER_FILA_ORIGEM, "notificacao.cirurgia.cancelada.queue");
+        headers.put(RabbitMQConfig.HEADER_TENTATIVAS, 4);
+        headers.put(RabbitMQConfig.HEADER_ERRO, "erro");
+        headers.put("x-death", "morte");
+        headers.put("x-correlacao", "abc");
+        when(channel.basicGet(RabbitMQConfig.PARKING_LOT_QUEUE, false))
+                .thenReturn(doParkingLot(1, headers), (GetResponse) null);
+        executarNoCanal(channel);
+
+        assertEquals(1, service.reprocessarParkingLot(10));
+
+        ArgumentCaptor<AMQP.BasicProperties> propriedades = ArgumentCaptor.forClass(AMQP.BasicProperties.class);
+        verify(channel).basicPublish(eq(""), eq(RabbitMQConfig.CIRURGIA_CANCELADA_QUEUE), propriedades.capture(), any());
+        verify(channel).basicAck(1, false);
+        assertEquals(Map.of("x-correlacao", "abc"), propriedades.getValue().getHeaders());
+        assertEquals(9, propriedades.getValue().getPriority());
+    }
+
+    @Test
+    void reprocessarParkingLotUsaAFilaDeOrigemParaRoutingKeyDesconhecida() throws Exception {
+        Channel channel = mock(Channel.class);
+        Map<String, Object> headers = new HashMap<>();
+        headers.put(RabbitMQConfig.HEADER_ROUTING_KEY_ORIGINAL, "outro.evento");
+        headers.put(RabbitMQConfig.HEADER_FILA_ORIGEM, "outra.fila");
+        when(channel.basicGet(RabbitMQConfig.PARKING_LOT_QUEUE, false))
+                .thenReturn(doParkingLot(1, headers), doParkingLot(2, new HashMap<>()));
+        executarNoCanal(channel);
+
+        // O limite interrompe a leitura mesmo com mensagens restantes
+        assertEquals(1, service.reprocessarParkingLot(1));
+
+        verify(channel).basicPublish(eq(""), eq("outra.fila"), any(AMQP.BasicProperties.class), any());
+        verify(channel).basicAck(1, false);
+        verify(channel, never()).basicAck(2, false);
+    }
+
+    @Test
+    void reprocessarParkingLotMantemMensagemSemRoutingKeyOriginal() throws Exception {
+        Channel channel = mock(Channel.class);
+        Map<String, Object> semRoutingKey = new HashMap<>();
+        semRoutingKey.put(RabbitMQConfig.HEADER_FILA_ORIGEM, RabbitMQConfig.CIRURGIA_CRIADA_QUEUE);
+        Map<String, Object> comRoutingKey = new HashMap<>();
+        comRoutingKey.put(RabbitMQConfig.HEADER_ROUTING_KEY_ORIGINAL, RabbitMQConfig.NOTIFICACAO_CIRURGIA_CRIADA_ROUTING_KEY);
+        // Devolvida à fila, a mensagem sem destino voltaria a ser lida se o laço não tivesse limite
+        when(channel.basicGet(RabbitMQConfig.PARKING_LOT_QUEUE, false))
+                .thenReturn(doParkingLot(1, semRoutingKey), doParkingLot(2, comRoutingKey), doParkingLot(3, semRoutingKey));
+        executarNoCanal(channel);
+
+        assertEquals(1, service.reprocessarParkingLot(3));
+
+        verify(channel).basicPublish(eq(""), eq(RabbitMQConfig.CIRURGIA_CRIADA_QUEUE), any(AMQP.BasicProperties.class), any());
+        verify(channel, never()).basicPublish(eq(RabbitMQConfig.EXCHANGE), any(), any(AMQP.BasicProperties.class), any());
+        verify(channel).basicAck(2, false);
+        verify(channel).basicNack(1, false, true);
+        verify(channel).basicNack(3, false, true);
+        verify(channel, never()).basicAck(1, false);
+    }
+
+    private Message recebida(String routingKey, String filaConsumidor, Integer tentativas) {
+        MessageProperties propriedades = new MessageProperties();
+        propriedades.setReceivedRoutingKey(routingKey);
+        propriedades.setConsumerQueue(filaConsumidor);
+        if (tentativas != null) {
+            propriedades.setHeader(RabbitMQConfig.HEADER_TENTATIVAS, tentativas);
+        }
+        return new Message("{}".getBytes(StandardCharsets.UTF_8), propriedades);
+    }
+
+    private MessageProperties enviada(String exchange, String routingKey) {
+        ArgumentCaptor<Message> mensagem = ArgumentCaptor.forClass(Message.class);
+        verify(rabbitTemplate).send(eq(exchange), eq(routingKey), mensagem.capture());
+        return mensagem.getValue().getMessageProperties();
+    }
+
+    private static GetResponse doParkingLot(long deliveryTag, Map<String, Object> headers) {
+        AMQP.BasicProperties propriedades = new AMQP.BasicProperties.Builder()
+                .headers(headers)
+                .priority(9)
+                .deliveryMode(2)
+                .build();
+        Envelope envelope = new Envelope(deliveryTag, false, "", RabbitMQConfig.PARKING_LOT_QUEUE);
+        return new GetResponse(envelope, propriedades, "{}".getBytes(StandardCharsets.UTF_8), 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void executarNoCanal(Channel channel) {
+        when(rabbitTemplate.execute(any(ChannelCallback.class)))
+                .thenAnswer(invocacao -> ((ChannelCallback<Object>) invocacao.getArgument(0)).doInRabbit(channel));
+    }
+}
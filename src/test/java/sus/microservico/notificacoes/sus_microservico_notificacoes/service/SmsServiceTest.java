@@ -0,0 +1,50 @@
+package sus.microservico.notificacoes.sus_microservico_notificacoes.service;
+
+import org.junit.jupiter.api.Test;
+import sus.microservico.notificacoes.sus_microservico_notificacoes.model.enums.ResultadoEnvio;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SmsServiceTest {
+
+    private final SmsGateway gateway = mock(SmsGateway.class);
+    private final SmsService service = new SmsService(gateway, 1000, 10, Duration.ofSeconds(1), Duration.ofSeconds(1));
+
+    SmsServiceTest() {
+        when(gateway.configurado()).thenReturn(true);
+    }
+
+    @Test
+    void envioConcluidoRetornaEnviado() {
+        EnvioCancelavel<String> envio = new EnvioCancelavel<>();
+        envio.complete("SM123");
+        when(gateway.enviar(anyString(), anyString())).thenReturn(envio);
+
+        assertEquals(ResultadoEnvio.ENVIADO, service.enviarSMS("11999990000", "mensagem"));
+    }
+
+    @Test
+    void envioQueNaoChegouAoProvedorEAdiado() {
+        EnvioCancelavel<String> envio = new EnvioCancelavel<>();
+        envio.completeExceptionally(new EnvioNaoRealizadoException("Executor do Twilio encerrado",
+                new RejectedExecutionException()));
+        when(gateway.enviar(anyString(), anyString())).thenReturn(envio);
+
+        assertEquals(ResultadoEnvio.ADIADO, service.enviarSMS("11999990000", "mensagem"));
+    }
+
+    @Test
+    void erroDoProvedorEFalha() {
+        EnvioCancelavel<String> envio = new EnvioCancelavel<>();
+        envio.completeExceptionally(new IllegalStateException("número de destino inválido"));
+        when(gateway.enviar(anyString(), anyString())).thenReturn(envio);
+
+        assertEquals(ResultadoEnvio.FALHA, service.enviarSMS("11999990000", "mensagem"));
+    }
+}